@@ -15,6 +15,7 @@ import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
@@ -25,6 +26,7 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.NoType;
 import javax.lang.model.type.TypeKind;
@@ -32,12 +34,30 @@ import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
 
 @SupportedAnnotationTypes({"dev.slfc.epilogue.CustomLoggerFor", "dev.slfc.epilogue.Epilogue"})
+@SupportedOptions({AnnotationProcessor.INLINE_DEPTH_OPTION, AnnotationProcessor.PROFILE_OPTION})
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 @AutoService(Processor.class)
 public class AnnotationProcessor extends AbstractProcessor {
+  /**
+   * The processor option that sets how many levels of nested {@code @Epilogue} objects are logged
+   * directly by the logger of the object that contains them, eg
+   * {@code -Aepilogue.inlineDepth=2}. Defaults to 0, where every nested object is logged by its
+   * own logger.
+   */
+  public static final String INLINE_DEPTH_OPTION = "epilogue.inlineDepth";
+
+  /**
+   * The processor option that prints how long each phase of annotation processing took, eg
+   * {@code -Aepilogue.profile}. Timings are reported as notes at the end of every processing round.
+   */
+  public static final String PROFILE_OPTION = "epilogue.profile";
+
   private EpiloguerGenerator epiloguerGenerator;
   private LoggerGenerator loggerGenerator;
-  private List<ElementHandler> handlers;
+  private ManifestGenerator manifestGenerator;
+  private StructGenerator structGenerator;
+  private HandlerCache handlers;
+  private Profiler profiler;
 
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
@@ -46,6 +66,9 @@ public class AnnotationProcessor extends AbstractProcessor {
       return false;
     }
 
+    profiler = new Profiler(isProfiling());
+    long start = profiler.start();
+
     Map<TypeMirror, DeclaredType> customLoggers = new HashMap<>();
 
     annotations.stream().filter(ann -> ann.getSimpleName().contentEquals("CustomLoggerFor")).findAny().ifPresent(customLogger -> {
@@ -61,32 +84,93 @@ public class AnnotationProcessor extends AbstractProcessor {
           processingEnv.getMessager().printError("Custom logger classes should have a @CustomLoggerFor annotation", e);
         });
 
+    profiler.stop("custom loggers", start);
+
     // Handlers are declared in order of priority. If an element could be logged in more than one
     // way (eg a class implements both Sendable and StructSerializable), the order of the handlers
     // in this list will determine how it gets logged.
-    handlers = List.of(
+    // The struct and array handlers are shared by the handlers for containers of structs and arrays,
+    // so struct checks are only made once per type
+    var structHandler = new StructHandler(processingEnv);
+    var arrayHandler = new ArrayHandler(processingEnv, structHandler);
+
+    // Handlers are cached per round, since custom loggers can change between rounds
+    handlers = new HandlerCache(List.of(
         new LoggableHandler(processingEnv), // prioritize epilogue logging over Sendable
         new ConfiguredLoggerHandler(processingEnv, customLoggers), // then customized logging configs
 
-        new ArrayHandler(processingEnv),
-        new CollectionHandler(processingEnv),
+        arrayHandler,
+        new CollectionHandler(processingEnv, arrayHandler, structHandler),
         new EnumHandler(processingEnv),
         new MeasureHandler(processingEnv),
         new PrimitiveHandler(processingEnv),
-        new StructHandler(processingEnv), // prioritize struct over sendable
-        new SendableHandler(processingEnv)
-    );
+        structHandler, // prioritize struct over sendable
+        new SendableHandler(processingEnv),
+        new PolymorphicHandler(processingEnv, loggedTypes(roundEnv, customLoggers)) // only if nothing else can log it
+    ));
 
     epiloguerGenerator = new EpiloguerGenerator(processingEnv, customLoggers);
-    loggerGenerator = new LoggerGenerator(processingEnv, handlers);
+    structGenerator = new StructGenerator(processingEnv, structHandler);
+    loggerGenerator = new LoggerGenerator(processingEnv, handlers, structGenerator, inlineDepth());
+    manifestGenerator = new ManifestGenerator(processingEnv);
 
     annotations.stream().filter(ann -> ann.getSimpleName().contentEquals("Epilogue")).findAny().ifPresent(epilogue -> {
       processEpilogue(roundEnv, epilogue);
     });
 
+    if (profiler.isEnabled()) {
+      processingEnv.getMessager().printNote(
+          "[EPILOGUE] Processing took " + profiler.totalMillis() + " ms: " + profiler.summary()
+              + ". Resolved handlers for " + handlers.getResolvedTypes() + " types in "
+              + handlers.getLookups() + " lookups"
+      );
+    }
+
     return false;
   }
 
+  /**
+   * Gets the types that have loggers: classes annotated with {@code @Epilogue} (except records
+   * logged as structs) and types with custom loggers.
+   */
+  private List<TypeMirror> loggedTypes(RoundEnvironment roundEnv, Map<TypeMirror, DeclaredType> customLoggers) {
+    var loggedTypes = new ArrayList<>(customLoggers.keySet());
+    for (Element element : roundEnv.getElementsAnnotatedWith(Epilogue.class)) {
+      if (element instanceof TypeElement type && !StructHandler.hasGeneratedStruct(type)) {
+        loggedTypes.add(type.asType());
+      }
+    }
+    return loggedTypes;
+  }
+
+  private boolean isProfiling() {
+    var option = processingEnv.getOptions().get(PROFILE_OPTION);
+
+    // -Aepilogue.profile with no value is passed through as null
+    return processingEnv.getOptions().containsKey(PROFILE_OPTION) && !"false".equalsIgnoreCase(option);
+  }
+
+  private int inlineDepth() {
+    var option = processingEnv.getOptions().get(INLINE_DEPTH_OPTION);
+    if (option == null) {
+      return 0;
+    }
+
+    try {
+      int depth = Integer.parseInt(option.trim());
+      if (depth >= 0) {
+        return depth;
+      }
+    } catch (NumberFormatException e) {
+      // Fall through to the error
+    }
+
+    processingEnv.getMessager().printError(
+        "[EPILOGUE] " + INLINE_DEPTH_OPTION + " must be a non-negative integer, but was " + option
+    );
+    return 0;
+  }
+
   private boolean validateFields(Set<? extends Element> annotatedElements) {
     var fields =
         annotatedElements.stream()
@@ -110,6 +194,8 @@ public class AnnotationProcessor extends AbstractProcessor {
           );
           valid = false;
         }
+
+        valid &= validatePrecision(field, config, field.asType());
       }
     }
     return valid;
@@ -180,11 +266,65 @@ public class AnnotationProcessor extends AbstractProcessor {
 
           valid = false;
         }
+
+        valid &= validatePrecision(method, config, method.getReturnType());
       }
     }
     return valid;
   }
 
+  /**
+   * Checks that the precision and resolution settings of a logged element can be applied to its
+   * type, printing errors for any that can't.
+   *
+   * @param element the logged element
+   * @param config the element's configuration
+   * @param type the type of data logged by the element
+   * @return true if the settings are valid, false if not
+   */
+  private boolean validatePrecision(Element element, Epilogue config, TypeMirror type) {
+    var kind = type instanceof ArrayType array ? array.getComponentType().getKind() : type.getKind();
+    boolean valid = true;
+
+    if (config.precision() == Epilogue.Precision.FLOAT && kind != TypeKind.DOUBLE) {
+      processingEnv.getMessager().printMessage(
+          Diagnostic.Kind.ERROR,
+          "[EPILOGUE] Only double and double[] values can be logged as floats",
+          element
+      );
+      valid = false;
+    }
+
+    if (config.resolution() != 0) {
+      if (!(config.resolution() > 0) || Double.isInfinite(config.resolution())) {
+        processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR,
+            "[EPILOGUE] Resolutions must be positive and finite",
+            element
+        );
+        valid = false;
+      } else if (kind != TypeKind.DOUBLE && kind != TypeKind.FLOAT) {
+        processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR,
+            "[EPILOGUE] Only floating point values can be logged with a resolution",
+            element
+        );
+        valid = false;
+      }
+
+      if (config.precision() != Epilogue.Precision.FULL) {
+        processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR,
+            "[EPILOGUE] Elements logged with a resolution cannot also set a precision",
+            element
+        );
+        valid = false;
+      }
+    }
+
+    return valid;
+  }
+
   /**
    * Checks if a type is not loggable.
    *
@@ -196,7 +336,7 @@ public class AnnotationProcessor extends AbstractProcessor {
       return true;
     }
 
-    boolean loggable = handlers.stream().anyMatch(h -> h.isLoggable(element));
+    boolean loggable = handlers.isLoggable(element);
 
     if (loggable) {
       return false;
@@ -276,12 +416,15 @@ public class AnnotationProcessor extends AbstractProcessor {
 
     List<String> loggerClassNames = new ArrayList<>();
     var mainRobotClasses = new ArrayList<TypeElement>();
+    var loggedClasses = new ArrayList<TypeElement>();
 
     // Used to check for a main robot class
     var robotBaseClass = processingEnv.getElementUtils().getTypeElement("edu.wpi.first.wpilibj.RobotBase").asType();
 
+    long start = profiler.start();
     boolean validFields = validateFields(annotatedElements);
     boolean validMethods = validateMethods(annotatedElements);
+    profiler.stop("validation", start);
 
     if (!(validFields && validMethods)) {
       // Generate nothing and bail
@@ -290,16 +433,49 @@ public class AnnotationProcessor extends AbstractProcessor {
     }
 
     var classes = annotatedElements.stream().filter(e -> e instanceof TypeElement).map(e -> (TypeElement) e).toList();
+    var structClasses = classes.stream().filter(c -> c.getAnnotation(Epilogue.class).struct()).toList();
+
+    start = profiler.start();
+    // Check every class before generating anything, so all the errors are reported at once
+    boolean validStructs = structClasses.stream().map(structGenerator::validate).reduce(true, Boolean::logicalAnd);
+    if (!validStructs) {
+      return;
+    }
+
+    for (TypeElement clazz : structClasses) {
+      try {
+        structGenerator.writeStructFile(clazz);
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR,
+            "Could not write struct file for " + clazz.getQualifiedName(),
+            clazz
+        );
+      }
+    }
+    profiler.stop("struct generation", start);
+
     for (TypeElement clazz : classes) {
+      if (StructHandler.hasGeneratedStruct(clazz)) {
+        // Logged as a struct wherever it's used, so it doesn't need a logger of its own
+        continue;
+      }
+
       try {
+        start = profiler.start();
         warnOfNonLoggableElements(clazz);
+        profiler.stop("validation", start);
+
+        start = profiler.start();
         String loggedClassName = loggerGenerator.writeLoggerFile(clazz);
+        profiler.stop("logger generation", start);
 
         if (processingEnv.getTypeUtils().isAssignable(clazz.getSuperclass(), robotBaseClass)) {
           mainRobotClasses.add(clazz);
         }
 
         loggerClassNames.add(loggedClassName + "Logger");
+        loggedClasses.add(clazz);
       } catch (IOException e) {
         processingEnv.getMessager().printMessage(
             Diagnostic.Kind.ERROR,
@@ -311,7 +487,13 @@ public class AnnotationProcessor extends AbstractProcessor {
 
     // Sort alphabetically
     mainRobotClasses.sort(Comparator.comparing(c -> c.getSimpleName().toString()));
-    epiloguerGenerator.writeEpiloguerFile(loggerClassNames, mainRobotClasses);
+    start = profiler.start();
+    epiloguerGenerator.writeEpiloguerFile(loggerClassNames, mainRobotClasses, loggedClasses);
+    profiler.stop("Epiloguer generation", start);
+
+    start = profiler.start();
+    manifestGenerator.writeManifest(loggerGenerator.getManifestEntries());
+    profiler.stop("manifest generation", start);
   }
 
   private void warnOfNonLoggableElements(TypeElement clazz) {
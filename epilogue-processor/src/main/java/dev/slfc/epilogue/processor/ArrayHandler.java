@@ -14,11 +14,11 @@ public class ArrayHandler extends ElementHandler {
   private final StructHandler structHandler;
   private final TypeMirror javaLangString;
 
-  protected ArrayHandler(ProcessingEnvironment processingEnv) {
+  protected ArrayHandler(ProcessingEnvironment processingEnv, StructHandler structHandler) {
     super(processingEnv);
 
-    // use a struct handler for managing struct arrays
-    structHandler = new StructHandler(processingEnv);
+    // use the struct handler for managing struct arrays
+    this.structHandler = structHandler;
 
     javaLangString = processingEnv.getElementUtils().getTypeElement("java.lang.String").asType();
   }
@@ -49,7 +49,7 @@ public class ArrayHandler extends ElementHandler {
   }
 
   @Override
-  public String logInvocation(Element element) {
+  public String logInvocation(Element element, String access, String name) {
     var dataType = dataType(element);
 
     // known to be an array type (assuming isLoggable is checked first); this is a safe cast
@@ -57,10 +57,10 @@ public class ArrayHandler extends ElementHandler {
 
     if (structHandler.isLoggableType(componentType)) {
       // Struct arrays need to pass in the struct serializer
-      return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ", " + structHandler.structAccess(componentType) + ")";
+      return "dataLogger.log(\"" + name + "\", " + access + ", " + structHandler.structAccess(componentType) + ")";
     } else {
       // Primitive or string array
-      return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ")";
+      return "dataLogger.log(\"" + name + "\", " + access + ")";
     }
   }
 }
@@ -13,32 +13,34 @@ public class CollectionHandler extends ElementHandler {
   private final TypeMirror collectionType;
   private final StructHandler structHandler;
 
-  protected CollectionHandler(ProcessingEnvironment processingEnv) {
+  protected CollectionHandler(ProcessingEnvironment processingEnv, ArrayHandler arrayHandler, StructHandler structHandler) {
     super(processingEnv);
-    arrayHandler = new ArrayHandler(processingEnv);
-    collectionType = processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType();
-    structHandler = new StructHandler(processingEnv);
+    this.arrayHandler = arrayHandler;
+    collectionType = processingEnv.getTypeUtils().erasure(
+        processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType()
+    );
+    this.structHandler = structHandler;
   }
 
   @Override
   public boolean isLoggable(Element element) {
     var dataType = dataType(element);
 
-    return processingEnv.getTypeUtils().isAssignable(dataType, processingEnv.getTypeUtils().erasure(collectionType))
+    return processingEnv.getTypeUtils().isAssignable(dataType, collectionType)
         && dataType instanceof DeclaredType decl
         && decl.getTypeArguments().size() == 1
         && arrayHandler.isLoggableComponentType(decl.getTypeArguments().getFirst());
   }
 
   @Override
-  public String logInvocation(Element element) {
+  public String logInvocation(Element element, String access, String name) {
     var dataType = dataType(element);
     var componentType = ((DeclaredType) dataType).getTypeArguments().getFirst();
 
     if (structHandler.isLoggableType(componentType)) {
-      return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ", " + structHandler.structAccess(componentType) + ")";
+      return "dataLogger.log(\"" + name + "\", " + access + ", " + structHandler.structAccess(componentType) + ")";
     } else {
-      return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ")";
+      return "dataLogger.log(\"" + name + "\", " + access + ")";
     }
   }
 }
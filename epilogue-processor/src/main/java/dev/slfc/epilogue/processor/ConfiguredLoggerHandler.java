@@ -21,13 +21,13 @@ public class ConfiguredLoggerHandler extends ElementHandler {
   }
 
   @Override
-  public String logInvocation(Element element) {
+  public String logInvocation(Element element, String access, String name) {
     var dataType = dataType(element);
     var loggerType = customLoggers.get(dataType);
 
     return "Epiloguer." + StringUtils.lowerCamelCase(loggerType.asElement().getSimpleName())
-        + ".tryUpdate(dataLogger.getSubLogger(\"" + loggedName(element) + "\"), "
-        + elementAccess(element)
+        + "().tryUpdate(dataLogger.getSubLogger(\"" + name + "\"), "
+        + access
         + ", Epiloguer.getConfig().errorHandler)";
   }
 }
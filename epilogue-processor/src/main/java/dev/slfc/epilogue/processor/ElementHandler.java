@@ -6,6 +6,7 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
 
@@ -68,23 +69,40 @@ public abstract class ElementHandler {
    * @return the generated access snippet
    */
   public String elementAccess(Element element) {
+    return elementAccess(element, "object");
+  }
+
+  /**
+   * Generates the code snippet to use to access a field or method on an object, like
+   * {@link #elementAccess(Element)}, but on the object in the given variable instead of the object
+   * passed to the logger.
+   *
+   * @param element the element to generate the access for
+   * @param object the name of the variable holding the object to read from
+   * @return the generated access snippet
+   */
+  public String elementAccess(Element element, String object) {
     return switch (element) {
       case VariableElement field -> {
+        boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
         if (field.getModifiers().contains(Modifier.PRIVATE)) {
-          // (com.example.Foo) $fooField.get(object)
-          yield "(" + field.asType() + ") $" + field.getSimpleName() + ".get(object)";
+          // (com.example.Foo) $fooField.get(object), or $FOO_FIELD.get() for static fields
+          yield "(" + field.asType() + ") $" + field.getSimpleName() + ".get(" + (isStatic ? "" : object) + ")";
+        } else if (isStatic) {
+          // com.example.Bar.FOO_FIELD
+          yield ((TypeElement) field.getEnclosingElement()).getQualifiedName() + "." + field.getSimpleName();
         } else {
           // object.fooField
-          yield "object." + field.getSimpleName();
+          yield object + "." + field.getSimpleName();
         }
       }
       case ExecutableElement method -> {
         if (method.getModifiers().contains(Modifier.PRIVATE)) {
           // (com.example.Foo) _getFoo.invoke(object)
-          yield "(" + method.getReturnType() + ") _" + method.getSimpleName() + ".invoke(object)";
+          yield "(" + method.getReturnType() + ") _" + method.getSimpleName() + ".invoke(" + object + ")";
         } else {
           // object.getFoo()
-          yield "object." + method.getSimpleName() + "()";
+          yield object + "." + method.getSimpleName() + "()";
         }
       }
       default -> throw new IllegalStateException("Unexpected" + element.getClass().getName());
@@ -107,5 +125,34 @@ public abstract class ElementHandler {
    * @param element the field or method element to generate the logger call for
    * @return the generated log invocation
    */
-  public abstract String logInvocation(Element element);
+  public String logInvocation(Element element) {
+    return logInvocation(element, elementAccess(element));
+  }
+
+  /**
+   * Generates a code snippet to log the value of a field or method, like
+   * {@link #logInvocation(Element)}, but reading the value from the given expression instead of
+   * from the field or method itself. This lets the generated logger read a value only once, even
+   * if it needs to check the value before logging it.
+   *
+   * @param element the field or method element to generate the logger call for
+   * @param access the expression to read the logged value from, such as a local variable name
+   * @return the generated log invocation
+   */
+  public String logInvocation(Element element, String access) {
+    return logInvocation(element, access, loggedName(element));
+  }
+
+  /**
+   * Generates a code snippet to log a value under the given name, like
+   * {@link #logInvocation(Element, String)}. The name may include a path, like
+   * {@code "drivetrain/gyro/yaw"}, for elements of nested objects that are logged directly by a
+   * parent object's logger.
+   *
+   * @param element the field or method element to generate the logger call for
+   * @param access the expression to read the logged value from, such as a local variable name
+   * @param name the name to log the value under
+   * @return the generated log invocation
+   */
+  public abstract String logInvocation(Element element, String access, String name);
 }
@@ -21,7 +21,7 @@ public class EnumHandler extends ElementHandler {
   }
 
   @Override
-  public String logInvocation(Element element) {
-    return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ")";
+  public String logInvocation(Element element, String access, String name) {
+    return "dataLogger.log(\"" + name + "\", " + access + ")";
   }
 }
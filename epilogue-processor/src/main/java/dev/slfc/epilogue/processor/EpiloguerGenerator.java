@@ -5,17 +5,27 @@ import java.io.PrintWriter;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 
 /**
  * Generates the {@code Epiloguer} file used as the main entry point to logging with Epilogue in a
- * robot program. {@code Epiloguer} has instances of every generated logger class, a
+ * robot program. {@code Epiloguer} has accessors for every generated logger class, a
  * {@link dev.slfc.epilogue.EpilogueConfiguration config} object, and (if the main robot class
  * inherits from {@link edu.wpi.first.wpilibj.TimedRobot TimedRobot}) a {@code bind()} method to
  * automatically add a periodic logging call to the robot.
+ *
+ * <p>Loggers are created lazily. Each one is held by its own nested holder class, which the JVM
+ * only initializes the first time the logger is used, so loading {@code Epiloguer} doesn't create
+ * every logger (and look up every private field and method they log) during robot startup.
+ *
+ * <p>{@code Epiloguer} also maps classes to their loggers at runtime with {@code loggerFor()}, which
+ * is used to log fields and methods declared as a superclass or interface of a logged class.
  */
 public class EpiloguerGenerator {
   private final ProcessingEnvironment processingEnv;
@@ -31,13 +41,27 @@ public class EpiloguerGenerator {
    * with the generated loggers.
    *
    * @param loggerClassNames the names of the generated logger classes. Each of these will be
-   *                         instantiated in a public static field on the Epiloguer class.
+   *                         lazily instantiated and returned by a public static method on the
+   *                         Epiloguer class.
    * @param mainRobotClasses the main robot classes. May be empty. Used to generate a {@code bind()}
    *                         method to add a callback hook to a TimedRobot to log itself.
+   * @param loggedClasses the classes the generated loggers log. These and the custom logger
+   *                      classes are the originating elements of the Epiloguer file.
    */
-  public void writeEpiloguerFile(List<String> loggerClassNames, Collection<TypeElement> mainRobotClasses) {
+  public void writeEpiloguerFile(
+      List<String> loggerClassNames,
+      Collection<TypeElement> mainRobotClasses,
+      Collection<TypeElement> loggedClasses) {
     try {
-      var centralStore = processingEnv.getFiler().createSourceFile("dev.slfc.epilogue.Epiloguer");
+      // Epiloguer aggregates every logger, so it originates from all of the logged classes and
+      // custom loggers
+      var originatingElements = Stream.concat(
+          loggedClasses.stream(),
+          customLoggers.values().stream().map(DeclaredType::asElement)
+      ).distinct().toArray(Element[]::new);
+
+      var centralStore =
+          processingEnv.getFiler().createSourceFile("dev.slfc.epilogue.Epiloguer", originatingElements);
 
       try (var out = new PrintWriter(centralStore.openOutputStream())) {
         out.println("package dev.slfc.epilogue;");
@@ -63,25 +87,66 @@ public class EpiloguerGenerator {
 
         out.println("public final class Epiloguer {");
         out.println("  private static final EpilogueConfiguration config = new EpilogueConfiguration();");
+        out.println("  private static long cycle = 0;");
+        if (!mainRobotClasses.isEmpty()) {
+          // The class of the bound robot, and the data logger its entries were last preregistered in
+          out.println("  private static Class<?> boundRobotClass = null;");
+          out.println("  private static dev.slfc.epilogue.logging.DataLogger preregistered = null;");
+        }
         out.println();
 
-        loggerClassNames.forEach(name -> {
-          String simple = StringUtils.simpleName(name);
-
-          // public static final FooLogger fooLogger = new FooLogger();
-          out.print("  public static final ");
-          out.print(simple);
-          out.print(" ");
-          out.print(StringUtils.lowerCamelCase(simple));
-          out.print(" = new ");
-          out.print(simple);
-          out.println("();");
-        });
-        customLoggers.values().stream().distinct().forEach((loggerType) -> {
-          var loggerTypeName = loggerType.asElement().getSimpleName();
-          out.println("  public static final " + loggerTypeName + " " + StringUtils.lowerCamelCase(loggerTypeName) + " = new " + loggerTypeName + "();");
-        });
-        out.println();
+        var loggerSimpleNames = Stream.concat(
+            loggerClassNames.stream().map(StringUtils::simpleName),
+            customLoggers.values().stream().distinct().map(t -> t.asElement().getSimpleName().toString())
+        ).toList();
+
+        for (String simple : loggerSimpleNames) {
+          // private static final class FooLoggerHolder {
+          //   static final FooLogger instance = new FooLogger();
+          // }
+          //
+          // public static FooLogger fooLogger() {
+          //   return FooLoggerHolder.instance;
+          // }
+          out.println("  private static final class " + simple + "Holder {");
+          out.println("    static final " + simple + " instance = new " + simple + "();");
+          out.println("  }");
+          out.println();
+          out.println("  public static " + simple + " " + StringUtils.lowerCamelCase(simple) + "() {");
+          out.println("    return " + simple + "Holder.instance;");
+          out.println("  }");
+          out.println();
+        }
+
+        writeLoggerRegistry(out, loggerClassNames, loggedClasses);
+
+        out.print("""
+              /**
+               * Creates every logger that hasn't been used yet. Loggers are otherwise created the first
+               * time they're used, which can make the first logging update slow.
+               */
+              public static void prewarm() {
+            """);
+        for (String simple : loggerSimpleNames) {
+          out.println("    " + StringUtils.lowerCamelCase(simple) + "();");
+        }
+        out.println("""
+              }
+
+              /**
+               * Creates every logger on a background daemon thread, so they're ready by the time the
+               * first logging update runs without slowing down robot startup. Loggers that are used
+               * before the background thread gets to them are created by the thread that uses them.
+               *
+               * @return the started thread
+               */
+              public static Thread prewarmInBackground() {
+                var thread = new Thread(Epiloguer::prewarm, "Epilogue prewarm");
+                thread.setDaemon(true);
+                thread.start();
+                return thread;
+              }
+            """);
 
 
         out.println("""
@@ -101,10 +166,49 @@ public class EpiloguerGenerator {
               public static boolean shouldLog(Epilogue.Importance importance) {
                 return importance.compareTo(config.minimumImportance) >= 0;
               }
+
+              /**
+               * Gets the current logging cycle. Elements configured to be logged every N cycles are only
+               * logged on cycles that are a multiple of N.
+               */
+              public static long getCycle() {
+                return cycle;
+              }
+
+              /**
+               * Advances to the next logging cycle. This is called automatically after every update when
+               * using {@code bind()}; programs that update loggers manually should call this once after
+               * each update.
+               */
+              public static void advanceCycle() {
+                cycle++;
+              }
             """.stripTrailing());
 
         // Only generate a binding if the robot class is a TimedRobot
         if (!mainRobotClasses.isEmpty()) {
+          out.println();
+          out.print("""
+                /**
+                 * Creates every entry listed in the {@link EpilogueManifest} for the bound robot in the
+                 * configured data logger, so the first update doesn't have to create them. {@code bind()}
+                 * calls this automatically, and the next update calls it again if the data logger has
+                 * been changed since. Programs that configure the data logger or minimum importance level
+                 * after binding should call this from {@code robotInit()} once they're done, so the
+                 * entries aren't created during the first update. Does nothing if no robot is bound.
+                 */
+                public static void preregister() {
+                  if (boundRobotClass == null) {
+                    return;
+                  }
+
+                  var dataLogger = config.dataLogger.getSubLogger(config.root);
+                  dataLogger.preregister(EpilogueManifest.entriesFor(boundRobotClass, config.minimumImportance));
+                  preregistered = dataLogger;
+                }
+              """.stripTrailing());
+          out.println();
+
           for (TypeElement mainRobotClass : mainRobotClasses) {
             String robotClassName = mainRobotClass.getQualifiedName().toString();
 
@@ -117,13 +221,32 @@ public class EpiloguerGenerator {
                    * help avoid high CPU loads. However, this does mean that any logged data that reads
                    * directly from sensors will be slightly different from data used in the main robot
                    * loop.
+                   *
+                   * <p>Loggers are prewarmed in the background, so they're ready before the first update.
+                   * Every entry listed in the {@link EpilogueManifest} for the robot is created up front
+                   * too; see {@link #preregister()}.
                    */
                 """);
             out.println("  public static void bind(" + robotClassName + " robot) {");
+            out.println("    prewarmInBackground();");
+            out.println("    boundRobotClass = " + robotClassName + ".class;");
+            out.println("    preregister();");
+            out.println("    var stats = new dev.slfc.epilogue.logging.NTDataLogger(edu.wpi.first.networktables.NetworkTableInstance.getDefault()).getSubLogger(\"Epilogue/Stats\");");
             out.println("    robot.addPeriodic(() -> {");
             out.println("      long start = System.nanoTime();");
-            out.println("      " + StringUtils.lowerCamelCase(StringUtils.simpleName(robotClassName)) + "Logger.tryUpdate(config.dataLogger.getSubLogger(config.root), robot, config.errorHandler);");
-            out.println("      edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry(\"Epilogue/Stats/Last Run\").setDouble((System.nanoTime() - start) / 1e6);");
+            out.println("      var dataLogger = config.dataLogger.getSubLogger(config.root);");
+            out.println("      if (dataLogger != preregistered) {");
+            out.println("        // The data logger was changed after binding");
+            out.println("        preregister();");
+            out.println("      }");
+            out.println("      " + StringUtils.lowerCamelCase(StringUtils.simpleName(robotClassName)) + "Logger().tryUpdate(dataLogger, robot, config.errorHandler);");
+            out.println("      config.errorHandler.periodic(stats);");
+            out.println("      advanceCycle();");
+            out.println("      long elapsed = System.nanoTime() - start;");
+            out.println("      edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry(\"Epilogue/Stats/Last Run\").setDouble(elapsed / 1e6);");
+            out.println("      if (config.adaptiveImportance != null) {");
+            out.println("        config.adaptiveImportance.update(config, elapsed);");
+            out.println("      }");
             out.println("    }, robot.getPeriod(), robot.getPeriod() / 2);");
             out.println("  }");
           }
@@ -135,4 +258,95 @@ public class EpiloguerGenerator {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Writes the methods that look up loggers by the runtime type of an object. Each class's logger
+   * is found with a string switch on the class name the first time it's used, then cached in a
+   * {@link ClassValue}, so later lookups don't need reflection or type checks.
+   *
+   * @param out the writer for the Epiloguer file
+   * @param loggerClassNames the names of the generated logger classes
+   * @param loggedClasses the classes logged by the generated loggers, in the same order
+   */
+  private void writeLoggerRegistry(
+      PrintWriter out,
+      List<String> loggerClassNames,
+      Collection<TypeElement> loggedClasses) {
+    var elements = processingEnv.getElementUtils();
+
+    // Binary class name -> logger accessor. Generated loggers take priority over custom loggers
+    // for the same type, just like they do in the generated loggers
+    var accessors = new TreeMap<String, String>();
+    var classes = List.copyOf(loggedClasses);
+    for (int i = 0; i < classes.size(); i++) {
+      accessors.putIfAbsent(
+          elements.getBinaryName(classes.get(i)).toString(),
+          StringUtils.lowerCamelCase(StringUtils.simpleName(loggerClassNames.get(i))) + "()"
+      );
+    }
+    customLoggers.forEach((type, loggerType) -> {
+      accessors.putIfAbsent(
+          elements.getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString(),
+          StringUtils.lowerCamelCase(loggerType.asElement().getSimpleName()) + "()"
+      );
+    });
+
+    out.print("""
+          private static final ClassValue<dev.slfc.epilogue.logging.ClassSpecificLogger<?>> loggersByType = new ClassValue<>() {
+            @Override
+            protected dev.slfc.epilogue.logging.ClassSpecificLogger<?> computeValue(Class<?> type) {
+              return findLogger(type);
+            }
+          };
+
+          /**
+           * Gets the logger for objects of a class. Classes without a logger of their own use the
+           * logger of their closest logged superclass, or of a logged interface they implement.
+           * Lookups are cached per class.
+           *
+           * @param type the class of the objects to log
+           * @return the logger, or null if no logger can log the class
+           */
+          @SuppressWarnings("unchecked")
+          public static <T> dev.slfc.epilogue.logging.ClassSpecificLogger<? super T> loggerFor(Class<T> type) {
+            return (dev.slfc.epilogue.logging.ClassSpecificLogger<? super T>) loggersByType.get(type);
+          }
+
+          /**
+           * Updates an object in a data log with the logger for its runtime type. Used to log fields
+           * and methods declared as a superclass or interface of a logged class. Objects without a
+           * logger are ignored.
+           */
+          @SuppressWarnings({"unchecked", "rawtypes"})
+          public static void tryUpdateByRuntimeType(dev.slfc.epilogue.logging.DataLogger dataLogger, Object object) {
+            dev.slfc.epilogue.logging.ClassSpecificLogger logger = loggersByType.get(object.getClass());
+            if (logger != null) {
+              logger.tryUpdateNested(dataLogger, object, config.errorHandler);
+            }
+          }
+
+          private static dev.slfc.epilogue.logging.ClassSpecificLogger<?> findLogger(Class<?> type) {
+            // Loggers are cast through Object so the bytecode verifier doesn't load every logger
+            // class to check its type when Epiloguer is loaded
+            dev.slfc.epilogue.logging.ClassSpecificLogger<?> logger = switch (type.getName()) {
+        """);
+    accessors.forEach((className, accessor) -> {
+      out.println("      case \"" + className + "\" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) " + accessor + ";");
+    });
+    out.println("""
+                default -> null;
+              };
+              if (logger == null && type.getSuperclass() != null) {
+                logger = loggersByType.get(type.getSuperclass());
+              }
+              for (Class<?> iface : type.getInterfaces()) {
+                if (logger != null) {
+                  break;
+                }
+                logger = loggersByType.get(iface);
+              }
+              return logger;
+            }
+          """);
+  }
 }
@@ -0,0 +1,79 @@
+package dev.slfc.epilogue.processor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Remembers which handler logs each data type, so every type is only checked against the list of
+ * handlers once per processing round instead of once for every field and method that uses it.
+ * Handlers only look at the type of data logged by an element, so elements of the same type are
+ * always logged by the same handler.
+ *
+ * <p>Types are compared by identity. Most uses of a non-generic class or a primitive type share
+ * the same type object, while parameterized and annotated types may not, and will be resolved
+ * again; this is never wrong, only slower.
+ */
+public class HandlerCache {
+  private final List<ElementHandler> handlers;
+  private final Map<TypeMirror, Optional<ElementHandler>> handlersByType = new HashMap<>();
+  private int lookups = 0;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param handlers the element handlers, in order of priority
+   */
+  public HandlerCache(List<ElementHandler> handlers) {
+    this.handlers = handlers;
+  }
+
+  /**
+   * Gets the highest priority handler that can log a field or method.
+   *
+   * @param element the field or method element
+   * @return the handler for the element, or null if the element cannot be logged
+   */
+  public ElementHandler handlerFor(Element element) {
+    lookups++;
+    return handlersByType
+        .computeIfAbsent(dataType(element), t -> handlers.stream().filter(h -> h.isLoggable(element)).findFirst())
+        .orElse(null);
+  }
+
+  /**
+   * Checks if any handler can log a field or method.
+   *
+   * @param element the field or method element
+   */
+  public boolean isLoggable(Element element) {
+    return handlerFor(element) != null;
+  }
+
+  /**
+   * Gets the number of times a handler was looked up.
+   */
+  public int getLookups() {
+    return lookups;
+  }
+
+  /**
+   * Gets the number of types that had to be checked against the handlers.
+   */
+  public int getResolvedTypes() {
+    return handlersByType.size();
+  }
+
+  private static TypeMirror dataType(Element element) {
+    return switch (element) {
+      case VariableElement field -> field.asType();
+      case ExecutableElement method -> method.getReturnType();
+      default -> throw new IllegalStateException("Unexpected" + element.getClass().getName());
+    };
+  }
+}
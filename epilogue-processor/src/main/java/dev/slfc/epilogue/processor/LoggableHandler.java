@@ -17,19 +17,59 @@ public class LoggableHandler extends ElementHandler {
   @Override
   public boolean isLoggable(Element element) {
     var dataType = dataType(element);
+    if (StructHandler.generatedStructRecord(dataType) != null) {
+      // Records with generated structs are logged as a single struct entry instead
+      return false;
+    }
+
     return dataType.getAnnotation(Epilogue.class) != null
         || (dataType instanceof DeclaredType decl && decl.asElement().getAnnotation(Epilogue.class) != null);
   }
 
   @Override
-  public String logInvocation(Element element) {
+  public String logInvocation(Element element, String access, String name) {
     TypeMirror dataType = dataType(element);
-    var reflectedType =
-        processingEnv.getElementUtils().getTypeElement(processingEnv.getTypeUtils().erasure(dataType).toString());
+    var reflectedType = processingEnv.getTypeUtils().asElement(dataType);
 
     return "Epiloguer." + StringUtils.lowerCamelCase(reflectedType.getSimpleName()) + "Logger"
-        + ".tryUpdate(dataLogger.getSubLogger(\"" + loggedName(element) + "\"), "
-        + elementAccess(element)
+        + "().tryUpdateNested(dataLogger.getSubLogger(\"" + name + "\"), "
+        + access
         + ", Epiloguer.getConfig().errorHandler)";
   }
+
+  /**
+   * Checks if the type of a logged field or method implements {@link dev.slfc.epilogue.Versioned},
+   * in which case the object is only logged when its version changes.
+   *
+   * @param element the field or method to check
+   */
+  public boolean isVersioned(Element element) {
+    var versioned = processingEnv.getElementUtils().getTypeElement("dev.slfc.epilogue.Versioned");
+    var types = processingEnv.getTypeUtils();
+    return versioned != null && types.isAssignable(types.erasure(dataType(element)), versioned.asType());
+  }
+
+  /**
+   * Generates the statement that logs a versioned object, skipping the call to its logger entirely
+   * if it's the same object at the same version as the last time it was logged. The object is
+   * always logged on the first update, so new logs get a complete copy. The last logged object and
+   * version are only updated if the nested logger actually ran, so an update that's skipped
+   * because the logger is disabled or that fails is retried on the next cycle.
+   *
+   * @param element the field or method to log
+   * @param access the local variable holding the object, which must not be null
+   * @param logInvocation the invocation that logs the object, from {@link #logInvocation}
+   * @param last the prefix of the fields holding the last logged object and version
+   * @return the generated statement
+   */
+  public String versionedLogStatement(Element element, String access, String logInvocation, String last) {
+    var version = access + "$version";
+    return "long " + version + " = " + access + ".logVersion();\n"
+        + "if (firstUpdate || " + last + "$object != " + access + " || " + last + "$version != " + version + ") {\n"
+        + "  if (" + logInvocation + ") {\n"
+        + "    " + last + "$object = " + access + ";\n"
+        + "    " + last + "$version = " + version + ";\n"
+        + "  }\n"
+        + "}";
+  }
 }
@@ -1,15 +1,24 @@
 package dev.slfc.epilogue.processor;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 import dev.slfc.epilogue.Epilogue;
 import dev.slfc.epilogue.NotLogged;
+import dev.slfc.epilogue.logging.wpilog.WPILogFormat;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
@@ -17,17 +26,89 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 
 /**
  * Generates logger class files for {@link dev.slfc.epilogue.Epilogue @Epilogue}-annotated classes.
  */
 public class LoggerGenerator {
+  /**
+   * The largest method HotSpot will JIT compile, in bytes of bytecode. Larger methods are always
+   * interpreted (unless the JVM is run with {@code -XX:-DontCompileHugeMethods}).
+   */
+  static final int HUGE_METHOD_LIMIT = 8000;
+
+  /**
+   * The largest method HotSpot will inline into a frequently executed caller, in bytes of bytecode.
+   */
+  static final int INLINE_LIMIT = 325;
+
+  /**
+   * The most booleans that can be packed into a single bitfield entry.
+   */
+  static final int BITFIELD_SIZE = Long.SIZE;
+
+  // Tokens that compile to at least one instruction: string literals, identifiers (with an opening
+  // parenthesis if they're a method call), numbers, and comparison and arithmetic operators
+  private static final Pattern BYTECODE_TOKEN =
+      Pattern.compile("\"(?:\\\\.|[^\"\\\\])*\"|[A-Za-z_$][\\w$]*\\s*\\(?|\\d+(?:\\.\\d+)?|[=!<>]=|[%<>]");
+
   private final ProcessingEnvironment processingEnv;
-  private final List<ElementHandler> handlers;
+  private final HandlerCache handlers;
+  private final StructGenerator structGenerator;
+  private final int inlineDepth;
+  private final TypeMirror javaLangString;
+
+  // The entries logged by each generated logger, by logged class, for the manifest
+  private final Map<TypeElement, List<ManifestGenerator.Entry>> manifestEntries = new LinkedHashMap<>();
+
+  // The entries logged by the logger currently being generated
+  private List<ManifestGenerator.Entry> entries = new ArrayList<>();
 
   public LoggerGenerator(ProcessingEnvironment processingEnv, List<ElementHandler> handlers) {
+    this(processingEnv, handlers, 0);
+  }
+
+  public LoggerGenerator(ProcessingEnvironment processingEnv, List<ElementHandler> handlers, int inlineDepth) {
+    this(
+        processingEnv,
+        new HandlerCache(handlers),
+        new StructGenerator(processingEnv, structHandlerIn(processingEnv, handlers)),
+        inlineDepth
+    );
+  }
+
+  /**
+   * Creates a new logger generator.
+   *
+   * @param processingEnv the processing environment
+   * @param handlers the element handlers, in order of priority, and the types they resolve to
+   * @param structGenerator the generator for the structs of classes logged as frames
+   * @param inlineDepth how many levels of nested {@code @Epilogue} objects to log directly in the
+   *                    logger of the class that contains them, instead of calling their own
+   *                    loggers. 0 disables inlining
+   */
+  public LoggerGenerator(
+      ProcessingEnvironment processingEnv,
+      HandlerCache handlers,
+      StructGenerator structGenerator,
+      int inlineDepth) {
     this.processingEnv = processingEnv;
     this.handlers = handlers;
+    this.structGenerator = structGenerator;
+    this.inlineDepth = inlineDepth;
+    this.javaLangString = processingEnv.getElementUtils().getTypeElement("java.lang.String").asType();
+  }
+
+  private static StructHandler structHandlerIn(ProcessingEnvironment processingEnv, List<ElementHandler> handlers) {
+    return handlers.stream()
+        .filter(h -> h instanceof StructHandler)
+        .map(h -> (StructHandler) h)
+        .findFirst()
+        .orElseGet(() -> new StructHandler(processingEnv));
   }
 
   private static boolean isNotSkipped(Element e) {
@@ -36,41 +117,77 @@ public class LoggerGenerator {
 
   public String writeLoggerFile(TypeElement clazz) throws IOException {
     var epilogue = clazz.getAnnotation(Epilogue.class);
-    boolean requireExplicitOptIn = epilogue.strategy() == Epilogue.Strategy.OPT_IN;
-
-    Predicate<Element> notSkipped = LoggerGenerator::isNotSkipped;
-    Predicate<Element> optedIn = e -> !requireExplicitOptIn || e.getAnnotation(Epilogue.class) != null;
-
-    var fieldsToLog =
-        clazz.getEnclosedElements().stream()
-            .filter(e -> e instanceof VariableElement)
-            .map(e -> (VariableElement) e)
-            .filter(notSkipped)
-            .filter(optedIn)
-            .filter(e -> !e.getModifiers().contains(Modifier.STATIC))
-            .filter(this::isLoggable)
-            .toList();
-
-    var methodsToLog =
-        clazz.getEnclosedElements().stream()
-            .filter(e -> e instanceof ExecutableElement)
-            .map(e -> (ExecutableElement) e)
-            .filter(notSkipped)
-            .filter(optedIn)
-            .filter(e -> !e.getModifiers().contains(Modifier.STATIC))
-            .filter(e -> e.getModifiers().contains(Modifier.PUBLIC))
-            .filter(e -> e.getParameters().isEmpty())
-            .filter(e -> e.getReceiverType() != null)
-            .filter(this::isLoggable)
-            .toList();
-
     String loggedClassName = clazz.getQualifiedName().toString();
 
-    writeLoggerFile(loggedClassName, epilogue, fieldsToLog, methodsToLog);
+    writeLoggerFile(loggedClassName, epilogue, fieldsToLog(clazz), methodsToLog(clazz));
 
     return loggedClassName;
   }
 
+  /**
+   * Gets the entries logged by every logger generated so far, by logged class. Entries that can
+   * only be known at runtime, like the entries of structs and of objects logged by custom loggers,
+   * are left out.
+   */
+  public Map<TypeElement, List<ManifestGenerator.Entry>> getManifestEntries() {
+    return manifestEntries;
+  }
+
+  private List<VariableElement> fieldsToLog(TypeElement clazz) {
+    return clazz.getEnclosedElements().stream()
+        .filter(e -> e instanceof VariableElement)
+        .map(e -> (VariableElement) e)
+        .filter(LoggerGenerator::isNotSkipped)
+        .filter(e -> isOptedIn(clazz, e))
+        .filter(e -> !e.getModifiers().contains(Modifier.STATIC) || e.getAnnotation(Epilogue.class) != null)
+        .filter(this::isLoggable)
+        .toList();
+  }
+
+  private List<ExecutableElement> methodsToLog(TypeElement clazz) {
+    return clazz.getEnclosedElements().stream()
+        .filter(e -> e instanceof ExecutableElement)
+        .map(e -> (ExecutableElement) e)
+        .filter(LoggerGenerator::isNotSkipped)
+        .filter(e -> isOptedIn(clazz, e))
+        .filter(e -> !e.getModifiers().contains(Modifier.STATIC))
+        .filter(e -> e.getModifiers().contains(Modifier.PUBLIC))
+        .filter(e -> e.getParameters().isEmpty())
+        .filter(e -> e.getReceiverType() != null)
+        .filter(this::isLoggable)
+        .toList();
+  }
+
+  private static boolean isOptedIn(TypeElement clazz, Element element) {
+    boolean requireExplicitOptIn = clazz.getAnnotation(Epilogue.class).strategy() == Epilogue.Strategy.OPT_IN;
+    return !requireExplicitOptIn || element.getAnnotation(Epilogue.class) != null;
+  }
+
+  /**
+   * Builds a map of importance levels to the elements logged at those levels, e.g.
+   * { DEBUG: [fieldA, fieldB], INFO: [fieldC], CRITICAL: [fieldD, fieldE, fieldF] }.
+   */
+  private static Map<Epilogue.Importance, List<Element>> groupByImportance(
+      Epilogue classConfig,
+      List<VariableElement> fields,
+      List<ExecutableElement> methods) {
+    return Stream
+        .concat(fields.stream(), methods.stream())
+        .collect(groupingBy(
+            element -> {
+              var config = element.getAnnotation(Epilogue.class);
+              if (config == null) {
+                // No configuration on this element, fall back to the class-level configuration
+                return classConfig.importance();
+              } else {
+                return config.importance();
+              }
+            },
+            () -> new EnumMap<>(Epilogue.Importance.class), // EnumMap for consistent ordering
+            toList())
+        );
+  }
+
   public void writeLoggerFile(
       String className,
       Epilogue classConfig,
@@ -86,11 +203,170 @@ public class LoggerGenerator {
     String loggerClassName = className + "Logger";
     String loggerSimpleClassName = loggerClassName.substring(lastDot + 1);
 
-    var loggerFile = processingEnv.getFiler().createSourceFile(loggerClassName);
+    // The logged class is the originating element, so incremental builds know which logger to
+    // regenerate or delete when the class changes
+    var loggedClass = processingEnv.getElementUtils().getTypeElement(className);
+    var loggerFile = processingEnv.getFiler().createSourceFile(loggerClassName, loggedClass);
+
+    entries = new ArrayList<>();
+    manifestEntries.put(loggedClass, entries);
 
     var privateFields = loggableFields.stream().filter(e -> e.getModifiers().contains(Modifier.PRIVATE)).toList();
     boolean requiresVarHandles = !privateFields.isEmpty();
 
+    // Nested objects are only updated in parallel if there are any to update
+    boolean parallel =
+        classConfig.parallel()
+            && Stream.concat(loggableFields.stream(), loggableMethods.stream()).anyMatch(this::isNestedObject);
+
+    var loggedElementsByImportance = groupByImportance(classConfig, loggableFields, loggableMethods);
+
+    // Elements that only need to be logged once, which are logged separately from the elements
+    // logged every cycle
+    List<Element> onceElements = Stream.concat(loggableFields.stream(), loggableMethods.stream())
+        .filter(LoggerGenerator::isLoggedOnce)
+        .map(e -> (Element) e)
+        .toList();
+    loggedElementsByImportance.values().forEach(elements -> elements.removeAll(onceElements));
+    loggedElementsByImportance.values().removeIf(List::isEmpty);
+
+    // Elements only logged when their values change, compared against the last values logged for
+    // them. These are always logged directly
+    List<Element> changeElements = loggedElementsByImportance.values().stream()
+        .flatMap(List::stream)
+        .filter(e -> isLoggedOnChange(classConfig, e))
+        .toList();
+    boolean onChange = !changeElements.isEmpty();
+
+    // Versioned objects are skipped entirely if their version hasn't changed since they were last
+    // logged. The last logged version is kept with the last values of on-change elements. Loggers
+    // that contain a versioned object check its version before calling its logger, so this check
+    // is only needed for objects logged some other way, like the robot or elements of collections
+    boolean versioned = isVersioned(loggedClass);
+
+    // Boolean elements packed into bitfields of up to 64 elements each, by importance level
+    Map<Epilogue.Importance, List<List<Element>>> bitfieldsByImportance = new EnumMap<>(Epilogue.Importance.class);
+    if (classConfig.packBooleans()) {
+      loggedElementsByImportance.forEach((importance, elements) -> {
+        var packed = elements.stream()
+            .filter(e -> !changeElements.contains(e))
+            .filter(this::isPackable)
+            .toList();
+        if (!packed.isEmpty()) {
+          bitfieldsByImportance.put(importance, partition(packed, BITFIELD_SIZE));
+        }
+      });
+    }
+    List<Element> packedElements = bitfieldsByImportance.values().stream()
+        .flatMap(List::stream)
+        .flatMap(List::stream)
+        .toList();
+
+    // Fixed-width elements logged together as a single struct, by importance level
+    Map<Epilogue.Importance, List<Element>> framesByImportance = new EnumMap<>(Epilogue.Importance.class);
+    if (classConfig.frame()) {
+      loggedElementsByImportance.forEach((importance, elements) -> {
+        var framed = elements.stream()
+            .filter(e -> !packedElements.contains(e))
+            .filter(e -> !changeElements.contains(e))
+            .filter(this::isFramed)
+            .toList();
+        if (!framed.isEmpty()) {
+          framesByImportance.put(importance, framed);
+        }
+      });
+    }
+    List<Element> framedElements = framesByImportance.values().stream().flatMap(List::stream).toList();
+
+    // Elements copied into a snapshot to be logged on a background thread, in the order they're
+    // read. Any other elements are logged directly
+    List<Element> snapshotElements =
+        classConfig.snapshot()
+            ? loggedElementsByImportance.values().stream()
+                .flatMap(List::stream)
+                .filter(this::isSnapshotted)
+                .filter(e -> !packedElements.contains(e))
+                .filter(e -> !framedElements.contains(e))
+                .filter(e -> !changeElements.contains(e))
+                .toList()
+            : List.of();
+    boolean snapshot = !snapshotElements.isEmpty();
+
+    // Nested versioned objects, which are only passed to their loggers when their versions change.
+    // The last logged object and version of each one are kept with the last values of on-change
+    // elements, so unchanged objects don't cost a call to their loggers at all
+    List<Element> versionedElements = loggedElementsByImportance.values().stream()
+        .flatMap(List::stream)
+        .filter(e -> handlerFor(e) instanceof LoggableHandler h && h.isVersioned(e))
+        .filter(e -> !snapshotElements.contains(e))
+        .toList();
+    boolean hasVersionedElements = !versionedElements.isEmpty();
+
+    // Types whose elements are being logged directly by this logger, starting with the logged
+    // class itself. Used to detect cycles when inlining nested objects
+    List<TypeElement> inlined = List.of(loggedClass);
+
+    // Statements that log metadata that never changes, which only needs to be logged once
+    List<String> metadata = new ArrayList<>();
+
+    Map<Epilogue.Importance, List<String>> statementsByImportance = new EnumMap<>(Epilogue.Importance.class);
+    loggedElementsByImportance.forEach((importance, elements) -> {
+      var statements = new ArrayList<String>();
+      for (var loggableElement : elements) {
+        if (packedElements.contains(loggableElement) || framedElements.contains(loggableElement)) {
+          continue;
+        }
+        var statement = elementStatement(
+            loggableElement, importance, "object", "", inlined, snapshotElements, changeElements, versionedElements,
+            parallel, metadata);
+        if (statement != null) {
+          statements.add(statement);
+        }
+      }
+      if (framesByImportance.containsKey(importance)) {
+        statements.add(frameStatement(simpleClassName, importance, framesByImportance.get(importance)));
+      }
+      var bitfields = bitfieldsByImportance.getOrDefault(importance, List.of());
+      for (int i = 0; i < bitfields.size(); i++) {
+        statements.add(bitfieldStatement(importance, i, bitfields.get(i)));
+
+        // Bit-to-name mappings
+        var names = bitfields.get(i).stream()
+            .map(e -> handlerFor(e).loggedName(e))
+            .collect(joining(","));
+        metadata.add("dataLogger.log(\"" + bitfieldName(importance, i) + ".names\", \"" + names + "\");");
+        entries.add(new ManifestGenerator.Entry(bitfieldName(importance, i), WPILogFormat.TYPE_INT64, importance, null));
+        entries.add(new ManifestGenerator.Entry(bitfieldName(importance, i) + ".names", WPILogFormat.TYPE_STRING, Epilogue.Importance.CRITICAL, null));
+      }
+      statementsByImportance.put(importance, statements);
+    });
+
+    // One-time data is logged regardless of importance, so it's never missing from a log
+    List<String> onceStatements = new ArrayList<>();
+    for (var element : onceElements) {
+      var statement = elementStatement(
+          element, Epilogue.Importance.CRITICAL, "object", "", inlined, List.of(), List.of(), List.of(), false, metadata);
+      if (statement != null) {
+        onceStatements.add(statement);
+      }
+    }
+    boolean logOnce = !metadata.isEmpty() || !onceStatements.isEmpty();
+
+    // HotSpot never compiles huge methods, so an update() method that big would be interpreted
+    // every cycle. Split it up into chunks small enough to be inlined back into update() instead
+    int estimatedSize = statementsByImportance.values().stream()
+        .flatMap(List::stream)
+        .mapToInt(LoggerGenerator::estimateBytecodeSize)
+        .sum();
+    boolean split = estimatedSize > HUGE_METHOD_LIMIT;
+
+    Map<Epilogue.Importance, List<List<String>>> chunksByImportance = new EnumMap<>(Epilogue.Importance.class);
+    if (split) {
+      statementsByImportance.forEach((importance, statements) -> {
+        chunksByImportance.put(importance, chunk(statements));
+      });
+    }
+
     try (var out = new PrintWriter(loggerFile.openWriter())) {
       if (packageName != null) {
         // package com.example;
@@ -98,19 +374,50 @@ public class LoggerGenerator {
         out.println();
       }
 
-      out.println("import dev.slfc.epilogue.Epilogue;");
-      out.println("import dev.slfc.epilogue.Epiloguer;");
-      out.println("import dev.slfc.epilogue.logging.ClassSpecificLogger;");
-      out.println("import dev.slfc.epilogue.logging.DataLogger;");
+      Set<String> imports = new TreeSet<>(List.of(
+          "dev.slfc.epilogue.Epilogue",
+          "dev.slfc.epilogue.Epiloguer",
+          "dev.slfc.epilogue.logging.ClassSpecificLogger",
+          "dev.slfc.epilogue.logging.DataLogger"
+      ));
       if (requiresVarHandles) {
-        out.println("import java.lang.invoke.MethodHandles;");
-        out.println("import java.lang.invoke.VarHandle;");
+        imports.add("java.lang.invoke.MethodHandles");
+        imports.add("java.lang.invoke.VarHandle");
+      }
+      if (parallel) {
+        imports.add("java.util.ArrayList");
+        imports.add("java.util.List");
+      }
+      if (snapshot) {
+        imports.add("dev.slfc.epilogue.logging.LogSnapshot");
+        imports.add("java.util.Arrays");
+        if (snapshotElements.stream().anyMatch(e -> handlerFor(e) instanceof StructHandler)) {
+          imports.add("java.nio.ByteBuffer");
+          imports.add("java.nio.ByteOrder");
+        }
+      }
+      if (!framesByImportance.isEmpty()) {
+        imports.add("edu.wpi.first.util.struct.Struct");
+        imports.add("java.nio.ByteBuffer");
       }
+      imports.forEach(i -> out.println("import " + i + ";"));
       out.println();
 
       // public class FooLogger implements ClassSpecificLogger<Foo> {
       out.println("public class " + loggerSimpleClassName + " extends ClassSpecificLogger<" + simpleClassName + "> {");
 
+      if (snapshot) {
+        writeSnapshotClass(out, simpleClassName, snapshotElements);
+      }
+
+      framesByImportance.forEach((importance, elements) -> {
+        writeFrameClasses(out, className, importance, elements);
+      });
+
+      if (onChange || versioned || hasVersionedElements) {
+        writeLastValuesClass(out, simpleClassName, changeElements, versionedElements, versioned);
+      }
+
       if (requiresVarHandles) {
         for (var privateField : privateFields) {
           // This field needs a VarHandle to access.
@@ -127,7 +434,8 @@ public class LoggerGenerator {
 
         for (var privateField : privateFields) {
           var fieldName = privateField.getSimpleName();
-          out.println("      $" + fieldName + " = lookup.findVarHandle(" + clazz + ", \"" + fieldName + "\", " + processingEnv.getTypeUtils().erasure(privateField.asType()) + ".class);");
+          var find = privateField.getModifiers().contains(Modifier.STATIC) ? "findStaticVarHandle" : "findVarHandle";
+          out.println("      $" + fieldName + " = lookup." + find + "(" + clazz + ", \"" + fieldName + "\", " + processingEnv.getTypeUtils().erasure(privateField.asType()) + ".class);");
         }
 
         out.println("    } catch (ReflectiveOperationException e) {");
@@ -148,55 +456,894 @@ public class LoggerGenerator {
       out.println("  @Override");
       out.println("  public void update(DataLogger dataLogger, " + simpleClassName + " object) {");
 
+      if (onChange || versioned || hasVersionedElements) {
+        out.println("    var lastValues = getLastValues(dataLogger, LastValues::new);");
+      }
+
+      if (versioned || hasVersionedElements) {
+        // One-time data is still logged when the object hasn't changed, and the object is always
+        // logged in full along with it so a new log has a complete copy. Nested versioned objects
+        // are logged in full on the first update, too
+        if (versioned) {
+          out.println("    long version = object.logVersion();");
+        }
+        out.println("    boolean firstUpdate = isFirstUpdate(dataLogger);");
+        if (logOnce) {
+          out.println("    if (firstUpdate) {");
+          out.println("      logOnce(dataLogger, object);");
+          out.println("    }");
+        }
+        if (versioned) {
+          out.println("    if (!firstUpdate && lastValues.$object == object && lastValues.$version == version) {");
+          out.println("      // Nothing has changed since the last update");
+          out.println("      return;");
+          out.println("    }");
+          out.println("    lastValues.$object = object;");
+          out.println("    lastValues.$version = version;");
+        }
+      } else if (logOnce) {
+        out.println("    if (isFirstUpdate(dataLogger)) {");
+        out.println("      logOnce(dataLogger, object);");
+        out.println("    }");
+      }
+
+      if (parallel) {
+        // Nested objects are collected here and updated all at once at the end
+        out.println("    List<Runnable> parallelUpdates = new ArrayList<>();");
+      }
+
+      if (snapshot) {
+        // Values are copied into the snapshot here and published once everything's been read
+        out.println("    var snapshots = getSnapshotBuffer(dataLogger, Snapshot::new);");
+        out.println("    var snapshot = snapshots.getFillSnapshot();");
+        out.println("    Arrays.fill(snapshot.$present, false);");
+      }
+
       // [log fields]
       // [log methods]
 
-      // Build a map of importance levels to the fields logged at those levels
-      // e.g. { DEBUG: [fieldA, fieldB], INFO: [fieldC], CRITICAL: [fieldD, fieldE, fieldF] }
-      var loggedElementsByImportance =
-          Stream
-              .concat(loggableFields.stream(), loggableMethods.stream())
-              .collect(groupingBy(
-                  element -> {
-                    var config = element.getAnnotation(Epilogue.class);
-                    if (config == null) {
-                      // No configuration on this element, fall back to the class-level configuration
-                      return classConfig.importance();
-                    } else {
-                      return config.importance();
-                    }
-                  },
-                  () -> new EnumMap<>(Epilogue.Importance.class), // EnumMap for consistent ordering
-                  toList())
-              );
-
-      loggedElementsByImportance.forEach((importance, elements) -> {
-        out.println("    if (Epiloguer.shouldLog(Epilogue.Importance." + importance.name() + ")) {");
-
-        for (var loggableElement : elements) {
-          // findFirst for prioritization
-          var handler = handlers.stream().filter(h -> h.isLoggable(loggableElement)).findFirst();
-
-          handler.ifPresent(h -> {
-            // May be null if the handler consumes the element but does not actually want it to be
-            // logged. For example, the sendable handler consumes all sendable types but does not
-            // log commands or subsystems, to prevent excessive warnings about unloggable commands.
-            var logInvocation = h.logInvocation(loggableElement);
-            if (logInvocation != null) {
-              out.println(logInvocation.indent(6).stripTrailing() + ";");
-            }
-          });
+      if (split) {
+        // Call the chunk methods for each importance level, passing along any local variables
+        // their statements use
+        var chunkArguments = new StringBuilder("dataLogger, object");
+        if (parallel) {
+          chunkArguments.append(", parallelUpdates");
+        }
+        if (snapshot) {
+          chunkArguments.append(", snapshot");
+        }
+        if (onChange || hasVersionedElements) {
+          chunkArguments.append(", lastValues");
+        }
+        if (hasVersionedElements) {
+          chunkArguments.append(", firstUpdate");
         }
 
-        out.println("    }");
-      });
+        chunksByImportance.forEach((importance, chunks) -> {
+          out.println("    if (Epiloguer.shouldLog(Epilogue.Importance." + importance.name() + ")) {");
+          for (int i = 0; i < chunks.size(); i++) {
+            out.println("      " + chunkMethodName(importance, i) + "(" + chunkArguments + ");");
+          }
+          out.println("    }");
+        });
+      } else {
+        statementsByImportance.forEach((importance, statements) -> {
+          out.println("    if (Epiloguer.shouldLog(Epilogue.Importance." + importance.name() + ")) {");
+          for (var statement : statements) {
+            out.println(statement.indent(6).stripTrailing());
+          }
+          out.println("    }");
+        });
+      }
+
+      if (snapshot) {
+        out.println("    publishSnapshot(snapshots, Epiloguer.getConfig().snapshotExecutor, Epiloguer.getConfig().errorHandler);");
+      }
+
+      if (parallel) {
+        out.println("    updateInParallel(parallelUpdates, Epiloguer.getConfig().parallelExecutor);");
+      }
 
       out.println("  }");
+
+      if (logOnce) {
+        // Metadata and elements that don't change, logged on the first update
+        out.println();
+        out.println("  private void logOnce(DataLogger dataLogger, " + simpleClassName + " object) {");
+        for (var statement : metadata) {
+          out.println("    " + statement);
+        }
+        for (var statement : onceStatements) {
+          out.println(statement.indent(4).stripTrailing());
+        }
+        out.println("  }");
+      }
+
+      if (split) {
+        var chunkParameters = new StringBuilder("DataLogger dataLogger, " + simpleClassName + " object");
+        if (parallel) {
+          chunkParameters.append(", List<Runnable> parallelUpdates");
+        }
+        if (snapshot) {
+          chunkParameters.append(", Snapshot snapshot");
+        }
+        if (onChange || hasVersionedElements) {
+          chunkParameters.append(", LastValues lastValues");
+        }
+        if (hasVersionedElements) {
+          chunkParameters.append(", boolean firstUpdate");
+        }
+
+        chunksByImportance.forEach((importance, chunks) -> {
+          for (int i = 0; i < chunks.size(); i++) {
+            out.println();
+            out.println("  private void " + chunkMethodName(importance, i) + "(" + chunkParameters + ") {");
+            for (var statement : chunks.get(i)) {
+              out.println(statement.indent(4).stripTrailing());
+            }
+            out.println("  }");
+          }
+        });
+      }
+
       out.println("}");
     }
   }
 
+  /**
+   * Estimates how many bytes of bytecode a generated statement compiles to. Every string literal,
+   * identifier, number, and operator is counted as a 3-byte instruction (like a constant load, a
+   * field read, or a branch) and every method call as a 5-byte instruction. Qualified names and
+   * local variable reads compile to fewer instructions than that, so this errs on the large side.
+   */
+  static int estimateBytecodeSize(String statement) {
+    int size = 0;
+    var tokens = BYTECODE_TOKEN.matcher(statement);
+    while (tokens.find()) {
+      size += tokens.group().endsWith("(") ? 5 : 3;
+    }
+    return size;
+  }
+
+  /**
+   * Splits statements into consecutive chunks that are each estimated to be small enough to
+   * inline. A statement too large to inline on its own gets a chunk to itself.
+   */
+  private static List<List<String>> chunk(List<String> statements) {
+    List<List<String>> chunks = new ArrayList<>();
+    List<String> current = new ArrayList<>();
+    int currentSize = 0;
+
+    for (var statement : statements) {
+      int size = estimateBytecodeSize(statement);
+      if (!current.isEmpty() && currentSize + size > INLINE_LIMIT) {
+        chunks.add(current);
+        current = new ArrayList<>();
+        currentSize = 0;
+      }
+      current.add(statement);
+      currentSize += size;
+    }
+
+    if (!current.isEmpty()) {
+      chunks.add(current);
+    }
+    return chunks;
+  }
+
+  /**
+   * Splits a list into consecutive sublists of at most the given size.
+   */
+  private static <E> List<List<E>> partition(List<E> list, int size) {
+    List<List<E>> partitions = new ArrayList<>();
+    for (int i = 0; i < list.size(); i += size) {
+      partitions.add(list.subList(i, Math.min(i + size, list.size())));
+    }
+    return partitions;
+  }
+
+  /**
+   * Gets the logged name of a packed boolean bitfield, eg "packedBooleans/debug" for the first
+   * bitfield of debug elements and "packedBooleans/debug1" for the second.
+   */
+  private static String bitfieldName(Epilogue.Importance importance, int index) {
+    return "packedBooleans/" + importance.name().toLowerCase(Locale.ROOT) + (index == 0 ? "" : index);
+  }
+
+  /**
+   * Generates the statements that pack boolean elements into a bitfield and log it, eg
+   * {@code packedDebug |= object.enabled ? 1L << 3 : 0;}. The first element is stored in the
+   * lowest bit.
+   */
+  private String bitfieldStatement(Epilogue.Importance importance, int index, List<Element> elements) {
+    // Named after the importance level and index, so several bitfields can share a method
+    var bits = "packed" + StringUtils.upperCamelCase(importance.name().toLowerCase(Locale.ROOT)) + (index == 0 ? "" : index);
+
+    var statement = new StringBuilder("long " + bits + " = 0;\n");
+    for (int bit = 0; bit < elements.size(); bit++) {
+      var element = elements.get(bit);
+      var access = handlerFor(element).elementAccess(element, "object");
+      statement.append(bits).append(" |= ").append(access).append(" ? 1L << ").append(bit).append(" : 0;\n");
+    }
+    statement.append("dataLogger.log(\"").append(bitfieldName(importance, index)).append("\", ").append(bits).append(");");
+    return statement.toString();
+  }
+
+  /**
+   * Gets the name of the frame record for an importance level, eg "DebugFrame".
+   */
+  private static String frameName(Epilogue.Importance importance) {
+    return StringUtils.upperCamelCase(importance.name().toLowerCase(Locale.ROOT)) + "Frame";
+  }
+
+  /**
+   * Gets the struct members of a frame, named after the elements they hold. Fields and methods
+   * may have the same name, and no member may shadow the byte buffer that structs are packed into,
+   * so conflicting names get an underscore suffix.
+   */
+  private static List<StructGenerator.Member> frameMembers(List<Element> elements) {
+    Set<String> names = new HashSet<>(Set.of("bb"));
+    List<StructGenerator.Member> members = new ArrayList<>();
+    for (var element : elements) {
+      var name = element.getSimpleName().toString();
+      while (!names.add(name)) {
+        name += "_";
+      }
+      members.add(new StructGenerator.Member(name, dataTypeOf(element), isReferenceType(element)));
+    }
+    return members;
+  }
+
+  /**
+   * Writes the nested frame record for an importance level, which holds the values of the framed
+   * elements logged at that level, and the struct that serializes it.
+   */
+  private void writeFrameClasses(
+      PrintWriter out,
+      String className,
+      Epilogue.Importance importance,
+      List<Element> elements) {
+    var simpleClassName = StringUtils.simpleName(className);
+    var frame = frameName(importance);
+    var members = frameMembers(elements);
+
+    var components = members.stream().map(m -> m.type() + " " + m.name()).collect(joining(", "));
+
+    out.println("  /**");
+    out.println("   * The fixed-width " + importance.name().toLowerCase(Locale.ROOT) + " values of a {@code " + simpleClassName + "}, logged as a single struct.");
+    out.println("   */");
+    out.println("  record " + frame + "(" + components + ") {");
+    out.println("  }");
+    out.println();
+
+    // The type name is prefixed with the logged class's qualified name, since struct type names are
+    // global and classes in different packages may have the same simple name
+    structGenerator.writeStructClass(
+        out, "  ", "static final class " + frame + "Struct", frame,
+        StructHandler.qualifiedTypeName(className + frame), members);
+    out.println();
+  }
+
+  /**
+   * Generates the statements that read the framed elements into a frame and log it as a struct.
+   */
+  private String frameStatement(String simpleClassName, Epilogue.Importance importance, List<Element> elements) {
+    var frame = frameName(importance);
+    var local = StringUtils.lowerCamelCase(frame);
+
+    var statement = new StringBuilder("var " + local + " = new " + frame + "(\n");
+    for (int i = 0; i < elements.size(); i++) {
+      var element = elements.get(i);
+      statement.append("    ").append(handlerFor(element).elementAccess(element, "object"));
+      statement.append(i < elements.size() - 1 ? ",\n" : "\n");
+    }
+    statement.append(");\n");
+    statement.append("dataLogger.log(\"frame/").append(importance.name().toLowerCase(Locale.ROOT)).append("\", ")
+        .append(local).append(", ").append(frame).append("Struct.INSTANCE);");
+    return statement.toString();
+  }
+
+  /**
+   * Gets the name of a chunk of an update() method that has been split up, eg "updateDebug0".
+   */
+  private static String chunkMethodName(Epilogue.Importance importance, int index) {
+    return "update" + StringUtils.upperCamelCase(importance.name().toLowerCase(Locale.ROOT)) + index;
+  }
+
+  /**
+   * Checks if an element is logged at a reduced precision or resolution.
+   */
+  private static boolean hasReducedPrecision(Element element) {
+    var config = element.getAnnotation(Epilogue.class);
+    return config != null
+        && (config.precision() != Epilogue.Precision.FULL || config.resolution() > 0);
+  }
+
+  /**
+   * Converts the value of an element to the precision it's configured to be logged at, eg
+   * {@code (float) object.current} or {@code Math.round(object.current / 0.1)}. Arrays are
+   * converted by helper methods in {@code ClassSpecificLogger}.
+   *
+   * @param element the element being logged
+   * @param access the expression that reads the element's value
+   * @return the expression for the value to log
+   */
+  private static String precisionAccess(Element element, String access) {
+    if (!hasReducedPrecision(element)) {
+      return access;
+    }
+
+    var config = element.getAnnotation(Epilogue.class);
+    boolean array = dataTypeOf(element).getKind() == TypeKind.ARRAY;
+    if (config.resolution() > 0) {
+      return array
+          ? "quantize(" + access + ", " + config.resolution() + ")"
+          : "Math.round(" + access + " / " + config.resolution() + ")";
+    } else {
+      return array ? "toFloats(" + access + ")" : "(float) " + access;
+    }
+  }
+
+  /**
+   * Generates the statement that logs a single field or method.
+   *
+   * @param element the field or method to log
+   * @param importance the importance level the element is logged at
+   * @param object the name of the variable holding the object to read the element from
+   * @param namePrefix the prefix to add to the logged name, for elements of inlined objects
+   * @param inlined the types being inlined into the logger, from the logged class down to the
+   *                type that declares the element
+   * @param snapshotElements the elements copied into the logger's snapshot
+   * @param changeElements the elements only logged when their values change
+   * @param versionedElements the nested versioned objects only logged when their versions change
+   * @param parallel whether nested objects are updated in parallel
+   * @param metadata the metadata statements to log once, which the element's own metadata is
+   *                 added to
+   * @return the generated statement, or null if the element should not be logged
+   */
+  private String elementStatement(
+      Element element,
+      Epilogue.Importance importance,
+      String object,
+      String namePrefix,
+      List<TypeElement> inlined,
+      List<Element> snapshotElements,
+      List<Element> changeElements,
+      List<Element> versionedElements,
+      boolean parallel,
+      List<String> metadata) {
+    // findFirst for prioritization
+    var h = handlerFor(element);
+    if (h == null) {
+      return null;
+    }
+
+    boolean nullable = isReferenceType(element);
+    boolean onChange = changeElements.contains(element);
+
+    // Nullable values and values compared against their last logged values are read into a local
+    // variable so they're only read once. Inlined objects are read into variables of their own,
+    // since nested scopes can't reuse a variable name
+    int depth = inlined.size() - 1;
+    var local = depth == 0 ? "value" : "value" + depth;
+    boolean readIntoLocal = nullable || onChange;
+    var access = readIntoLocal ? local : h.elementAccess(element, object);
+    var name = namePrefix + h.loggedName(element);
+
+    String statement;
+    var inlinedType = inlinableType(h, element, inlined);
+    if (inlinedType != null) {
+      // Log the nested object's elements right here, instead of calling its logger
+      var nested = new ArrayList<>(inlined);
+      nested.add(inlinedType);
+      statement = inlinedStatements(inlinedType, importance, local, name + "/", nested, metadata);
+      if (statement.isEmpty()) {
+        return null;
+      }
+    } else {
+      int snapshotIndex = snapshotElements.indexOf(element);
+      var logInvocation = snapshotIndex >= 0
+          ? snapshotCopy(h, element, snapshotIndex, access)
+          : h.logInvocation(element, precisionAccess(element, access), name);
+
+      // May be null if the handler consumes the element but does not actually want it to be
+      // logged. For example, the sendable handler consumes all sendable types but does not
+      // log commands or subsystems, to prevent excessive warnings about unloggable commands.
+      if (logInvocation == null) {
+        return null;
+      }
+
+      statement = logInvocation.stripTrailing() + ";";
+      addManifestEntry(h, element, name, importance);
+
+      if (versionedElements.contains(element)) {
+        // Don't call the nested logger at all if the object hasn't changed
+        statement = ((LoggableHandler) h).versionedLogStatement(
+            element, access, logInvocation.stripTrailing(), "lastValues." + snapshotField(element));
+      } else if (onChange) {
+        // Only log the value if it's different from the last value that was logged
+        var last = "lastValues." + snapshotField(element);
+        statement =
+            "if (!" + last + "$logged || " + changed(element, last, local) + ") {\n"
+                + "  " + last + " = " + local + ";\n"
+                + "  " + last + "$logged = true;\n"
+                + statement.indent(2).stripTrailing() + "\n"
+                + "}";
+      }
+
+      var config = element.getAnnotation(Epilogue.class);
+      if (config != null && config.resolution() > 0) {
+        metadata.add("dataLogger.log(\"" + name + ".resolution\", " + config.resolution() + ");");
+        entries.add(new ManifestGenerator.Entry(name + ".resolution", WPILogFormat.TYPE_DOUBLE, Epilogue.Importance.CRITICAL, null));
+      }
+    }
+
+    if (nullable) {
+      // Skip null values. A null check is much cheaper than letting the data logger throw an
+      // exception and reporting it to the error handler every cycle, and it doesn't abort
+      // the rest of the update
+      statement =
+          "var " + local + " = " + h.elementAccess(element, object) + ";\n"
+              + "if (" + local + " != null) {\n"
+              + statement.indent(2).stripTrailing() + "\n"
+              + "}";
+    } else if (onChange) {
+      statement = "var " + local + " = " + h.elementAccess(element, object) + ";\n" + statement;
+    }
+
+    var config = element.getAnnotation(Epilogue.class);
+    boolean sampled = config != null && config.everyNCycles() > 1 && !isLoggedOnce(element);
+
+    if (parallel && isNestedObject(element)) {
+      // The value is read inside the parallel update, so blocking reads run in parallel too
+      statement =
+          "parallelUpdates.add(() -> {\n"
+              + statement.indent(2).stripTrailing() + "\n"
+              + "});";
+    } else if (readIntoLocal && !sampled) {
+      // Scope the local variable to this element. Sampled elements are already scoped by
+      // their if block
+      statement = "{\n" + statement.indent(2).stripTrailing() + "\n}";
+    }
+
+    if (sampled) {
+      // Only sample the element on its own schedule. On skipped cycles, the element
+      // isn't even read
+      statement =
+          "if (Epiloguer.getCycle() % " + config.everyNCycles() + " == 0) {\n"
+              + statement.indent(2).stripTrailing() + "\n"
+              + "}";
+    }
+
+    return statement;
+  }
+
+  /**
+   * Generates the statements that log all the elements of an inlined object, grouped by importance
+   * the same way as the elements of the logged class. Groups at least as important as the
+   * inlined object itself don't need to check their importance again.
+   */
+  private String inlinedStatements(
+      TypeElement type,
+      Epilogue.Importance enclosingImportance,
+      String object,
+      String namePrefix,
+      List<TypeElement> inlined,
+      List<String> metadata) {
+    var byImportance =
+        groupByImportance(type.getAnnotation(Epilogue.class), fieldsToLog(type), methodsToLog(type));
+
+    var code = new StringBuilder();
+    byImportance.forEach((importance, elements) -> {
+      var statements = new StringBuilder();
+      int firstEntry = entries.size();
+      for (var element : elements) {
+        var statement =
+            elementStatement(element, importance, object, namePrefix, inlined, List.of(), List.of(), List.of(), false, metadata);
+        if (statement != null) {
+          statements.append(statement).append('\n');
+        }
+      }
+
+      // Inlined elements are only logged if the inlined object is logged, too
+      for (int i = firstEntry; i < entries.size(); i++) {
+        entries.set(i, entries.get(i).cappedAt(enclosingImportance));
+      }
+
+      if (statements.isEmpty()) {
+        return;
+      }
+
+      if (importance.compareTo(enclosingImportance) >= 0) {
+        code.append(statements);
+      } else {
+        code.append("if (Epiloguer.shouldLog(Epilogue.Importance.").append(importance.name()).append(")) {\n")
+            .append(statements.toString().indent(2))
+            .append("}\n");
+      }
+    });
+    return code.toString().stripTrailing();
+  }
+
+  /**
+   * Gets the type of a nested object that can be logged directly by the logger of the object that
+   * contains it. Only {@code @Epilogue} types are inlined, up to the configured depth, and only if
+   * all of their logged elements can be read from the generated logger without reflection. Types
+   * that log on other threads, that pack their booleans or log frames, that are versioned, that log
+   * elements only when they change or only once, or that would be inlined into themselves are never
+   * inlined.
+   *
+   * @return the type to inline, or null if the element should be logged by its own logger
+   */
+  private TypeElement inlinableType(ElementHandler handler, Element element, List<TypeElement> inlined) {
+    if (inlined.size() > inlineDepth || !(handler instanceof LoggableHandler)) {
+      return null;
+    }
+
+    if (!(dataTypeOf(element) instanceof DeclaredType declaredType)
+        || !(declaredType.asElement() instanceof TypeElement type)) {
+      return null;
+    }
+
+    var config = type.getAnnotation(Epilogue.class);
+    if (config == null || config.parallel() || config.snapshot() || config.packBooleans()
+        || config.frame() || isVersioned(type)) {
+      return null;
+    }
+
+    // Last logged values and one-time data are tracked by the logger of the class that declares them
+    if (Stream.concat(fieldsToLog(type).stream(), methodsToLog(type).stream())
+        .anyMatch(e -> isLoggedOnChange(config, e) || isLoggedOnce(e))) {
+      return null;
+    }
+
+    if (!type.getTypeParameters().isEmpty() || inlined.contains(type)) {
+      // Generic, or a cycle
+      return null;
+    }
+
+    var elements = processingEnv.getElementUtils();
+    var loggerPackage = elements.getPackageOf(inlined.get(0));
+    for (var field : fieldsToLog(type)) {
+      boolean accessible =
+          field.getModifiers().contains(Modifier.PUBLIC)
+              || (!field.getModifiers().contains(Modifier.PRIVATE)
+                  && elements.getPackageOf(field).equals(loggerPackage));
+      if (!accessible) {
+        return null;
+      }
+    }
+
+    return type;
+  }
+
+  /**
+   * Writes the nested snapshot class for a logger. The snapshot has a field to hold a copy of the
+   * value of each snapshotted element, and a {@code writeTo} method that logs the values that were
+   * copied in during the most recent update.
+   */
+  private void writeSnapshotClass(PrintWriter out, String simpleClassName, List<Element> elements) {
+    out.println("  /**");
+    out.println("   * A copy of the logged values of a {@code " + simpleClassName + "}, written to the data logger on a");
+    out.println("   * background thread.");
+    out.println("   */");
+    out.println("  static final class Snapshot implements LogSnapshot {");
+
+    // Tracks which values were copied in during the last update. Elements may be skipped because
+    // of their importance level, sampling period, or a null value
+    out.println("    final boolean[] $present = new boolean[" + elements.size() + "];");
+
+    for (var element : elements) {
+      var field = snapshotField(element);
+      if (handlerFor(element) instanceof StructHandler structHandler) {
+        // Structs are packed into a buffer, so the snapshot doesn't hold onto a mutable object
+        var struct = structHandler.structAccess(dataTypeOf(element));
+        out.println("    final ByteBuffer " + field + " = ByteBuffer.allocate(" + struct + ".getSize()).order(ByteOrder.LITTLE_ENDIAN);");
+      } else {
+        out.println("    " + dataTypeOf(element) + " " + field + ";");
+      }
+    }
+    out.println();
+
+    out.println("    @Override");
+    out.println("    public void writeTo(DataLogger dataLogger) {");
+    for (int i = 0; i < elements.size(); i++) {
+      var element = elements.get(i);
+      var handler = handlerFor(element);
+      var field = "this." + snapshotField(element);
+
+      String invocation;
+      if (handler instanceof StructHandler structHandler) {
+        // Log the packed bytes as they are, instead of unpacking them into a new object just to
+        // pack it again
+        var struct = structHandler.structAccess(dataTypeOf(element));
+        invocation = "dataLogger.logPacked(\"" + handler.loggedName(element) + "\", " + field + ".rewind(), " + struct + ")";
+      } else {
+        invocation = handler.logInvocation(element, field).stripTrailing();
+      }
+
+      out.println("      if ($present[" + i + "]) {");
+      out.println("        " + invocation + ";");
+      out.println("      }");
+    }
+    out.println("    }");
+    out.println("  }");
+    out.println();
+  }
+
+  /**
+   * Writes the nested class that holds the last logged values of the elements that are only logged
+   * when they change. Every element has a flag to track if it's been logged yet, so its first
+   * value is always logged. Loggers for versioned objects also keep the last logged object and
+   * its version, and so do loggers for the nested versioned objects they contain.
+   */
+  private void writeLastValuesClass(
+      PrintWriter out,
+      String simpleClassName,
+      List<Element> elements,
+      List<Element> versionedElements,
+      boolean versioned) {
+    out.println("  /**");
+    out.println("   * The last values logged for a {@code " + simpleClassName + "}, used to skip logging data that hasn't");
+    out.println("   * changed.");
+    out.println("   */");
+    out.println("  static final class LastValues {");
+    if (versioned) {
+      out.println("    " + simpleClassName + " $object;");
+      out.println("    long $version;");
+    }
+    for (var element : elements) {
+      var field = snapshotField(element);
+      out.println("    " + dataTypeOf(element) + " " + field + ";");
+      out.println("    boolean " + field + "$logged;");
+    }
+    for (var element : versionedElements) {
+      // Only compared by identity, so the declared type doesn't matter
+      var field = snapshotField(element);
+      out.println("    Object " + field + "$object;");
+      out.println("    long " + field + "$version;");
+    }
+    out.println("  }");
+    out.println();
+  }
+
+  /**
+   * Checks if a class implements {@link dev.slfc.epilogue.Versioned}.
+   */
+  private boolean isVersioned(TypeElement clazz) {
+    var versioned = processingEnv.getElementUtils().getTypeElement("dev.slfc.epilogue.Versioned");
+    var types = processingEnv.getTypeUtils();
+    return versioned != null && types.isAssignable(types.erasure(clazz.asType()), versioned.asType());
+  }
+
+  /**
+   * Checks if an element is only logged once, instead of every cycle. Constants never change, so
+   * static final fields are always logged once. Other static fields may change, and are logged
+   * every cycle like instance fields.
+   */
+  private static boolean isLoggedOnce(Element element) {
+    var config = element.getAnnotation(Epilogue.class);
+    return (config != null && config.once())
+        || (element.getModifiers().contains(Modifier.STATIC) && element.getModifiers().contains(Modifier.FINAL));
+  }
+
+  /**
+   * Checks if an element is only logged when its value changes. Only primitives and enums, which
+   * can be compared with {@code !=}, are logged on change.
+   *
+   * @param classConfig the configuration of the class that declares the element
+   * @param element the element to check
+   */
+  private boolean isLoggedOnChange(Epilogue classConfig, Element element) {
+    var config = element.getAnnotation(Epilogue.class);
+    if (!classConfig.onChange() && (config == null || !config.onChange())) {
+      return false;
+    }
+
+    var handler = handlerFor(element);
+    return handler instanceof EnumHandler
+        || (handler instanceof PrimitiveHandler && dataTypeOf(element).getKind().isPrimitive());
+  }
+
+  /**
+   * Generates the code to copy the value of an element into the snapshot during an update.
+   */
+  private String snapshotCopy(ElementHandler handler, Element element, int index, String access) {
+    var field = "snapshot." + snapshotField(element);
+
+    String copy;
+    if (handler instanceof StructHandler structHandler) {
+      copy = structHandler.structAccess(dataTypeOf(element)) + ".pack(" + field + ".clear(), " + access + ")";
+    } else {
+      copy = field + " = " + access;
+    }
+
+    return copy + ";\nsnapshot.$present[" + index + "] = true";
+  }
+
+  /**
+   * Gets the name of the snapshot field that holds the value of an element. Fields and methods
+   * may have the same name, so fields named after methods get a {@code $} suffix.
+   */
+  private static String snapshotField(Element element) {
+    if (element instanceof ExecutableElement) {
+      return element.getSimpleName() + "$";
+    } else {
+      return element.getSimpleName().toString();
+    }
+  }
+
+  /**
+   * Generates a check for whether an on-change value differs from the last value logged for it.
+   * Floating point values are compared by their bits, since {@code NaN != NaN} would otherwise
+   * log a NaN value on every cycle.
+   */
+  private static String changed(Element element, String last, String value) {
+    return switch (dataTypeOf(element).getKind()) {
+      case DOUBLE -> "Double.doubleToRawLongBits(" + last + ") != Double.doubleToRawLongBits(" + value + ")";
+      case FLOAT -> "Float.floatToRawIntBits(" + last + ") != Float.floatToRawIntBits(" + value + ")";
+      default -> last + " != " + value;
+    };
+  }
+
+  /**
+   * Checks if an element can be packed into a boolean bitfield. Only primitive booleans logged
+   * every cycle are packed, since boxed values may be null and sampled values aren't read on
+   * every cycle.
+   */
+  private boolean isPackable(Element element) {
+    var config = element.getAnnotation(Epilogue.class);
+    return handlerFor(element) instanceof PrimitiveHandler
+        && dataTypeOf(element).getKind() == TypeKind.BOOLEAN
+        && (config == null || config.everyNCycles() <= 1);
+  }
+
+  /**
+   * Checks if an element can be logged as part of a frame. Only fixed-width values read every
+   * cycle at full precision, with types the generated logger can refer to, are framed.
+   */
+  private boolean isFramed(Element element) {
+    var config = element.getAnnotation(Epilogue.class);
+    if ((config != null && config.everyNCycles() > 1) || hasReducedPrecision(element)) {
+      return false;
+    }
+
+    var handler = handlerFor(element);
+    if (!(handler instanceof PrimitiveHandler
+        || handler instanceof EnumHandler
+        || handler instanceof StructHandler)) {
+      return false;
+    }
+
+    var type = dataTypeOf(element);
+    if (!structGenerator.isPackable(type, true)) {
+      // Strings and chars
+      return false;
+    }
+
+    // Private types can't be used in the frame record
+    if (type instanceof DeclaredType declaredType) {
+      Element typeElement = declaredType.asElement();
+      while (typeElement instanceof TypeElement) {
+        if (typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+          return false;
+        }
+        typeElement = typeElement.getEnclosingElement();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if an element can be copied into a snapshot to be logged later. Only values that can be
+   * copied cheaply and can't change after being copied are snapshotted. Values logged at a reduced
+   * precision are logged directly.
+   */
+  private boolean isSnapshotted(Element element) {
+    if (hasReducedPrecision(element)) {
+      return false;
+    }
+
+    var handler = handlerFor(element);
+    return handler instanceof PrimitiveHandler
+        || handler instanceof EnumHandler
+        || handler instanceof StructHandler;
+  }
+
+  private ElementHandler handlerFor(Element element) {
+    return handlers.handlerFor(element);
+  }
+
+  private static TypeMirror dataTypeOf(Element element) {
+    return switch (element) {
+      case VariableElement field -> field.asType();
+      case ExecutableElement method -> method.getReturnType();
+      default -> throw new IllegalStateException("Unexpected" + element.getClass().getName());
+    };
+  }
+
+  /**
+   * Checks if the value of a field or method is a reference type, and therefore may be null.
+   */
+  private static boolean isReferenceType(Element element) {
+    return !dataTypeOf(element).getKind().isPrimitive();
+  }
+
+  /**
+   * Adds the entry a field or method is logged to to the manifest, if its type can be known at
+   * compile time. Nested objects are added with their class, so the manifest can list their
+   * entries under the element's name.
+   */
+  private void addManifestEntry(ElementHandler handler, Element element, String name, Epilogue.Importance importance) {
+    if (handler instanceof LoggableHandler
+        && dataTypeOf(element) instanceof DeclaredType declaredType
+        && declaredType.asElement() instanceof TypeElement nested) {
+      entries.add(new ManifestGenerator.Entry(name, null, importance, nested));
+      return;
+    }
+
+    var type = entryType(handler, element);
+    if (type != null) {
+      entries.add(new ManifestGenerator.Entry(name, type, importance, null));
+    }
+  }
+
+  /**
+   * Gets the data log type of the entry a field or method is logged to, matching the
+   * {@link dev.slfc.epilogue.logging.DataLogger DataLogger} method its log invocation calls.
+   *
+   * @return the type, or null if it isn't known at compile time (eg for structs, whose type
+   *         strings come from their serializers)
+   */
+  private String entryType(ElementHandler handler, Element element) {
+    var config = element.getAnnotation(Epilogue.class);
+    boolean floats = config != null && config.precision() == Epilogue.Precision.FLOAT;
+    boolean quantized = config != null && config.resolution() > 0;
+    var dataType = dataTypeOf(element);
+
+    return switch (handler) {
+      case EnumHandler h -> WPILogFormat.TYPE_STRING;
+      case MeasureHandler h -> WPILogFormat.TYPE_DOUBLE;
+      case PrimitiveHandler h -> switch (dataType.getKind()) {
+        case BOOLEAN -> WPILogFormat.TYPE_BOOLEAN;
+        case BYTE, CHAR, SHORT, INT, LONG -> WPILogFormat.TYPE_INT64;
+        case FLOAT -> quantized ? WPILogFormat.TYPE_INT64 : WPILogFormat.TYPE_FLOAT;
+        case DOUBLE -> quantized ? WPILogFormat.TYPE_INT64 : floats ? WPILogFormat.TYPE_FLOAT : WPILogFormat.TYPE_DOUBLE;
+        default -> WPILogFormat.TYPE_STRING;
+      };
+      case ArrayHandler h -> {
+        var componentType = ((ArrayType) dataType).getComponentType();
+        if (processingEnv.getTypeUtils().isAssignable(componentType, javaLangString)) {
+          yield WPILogFormat.TYPE_STRING_ARRAY;
+        }
+        yield switch (componentType.getKind()) {
+          case BYTE -> WPILogFormat.TYPE_RAW;
+          case BOOLEAN -> WPILogFormat.TYPE_BOOLEAN_ARRAY;
+          case INT, LONG -> WPILogFormat.TYPE_INT64_ARRAY;
+          case FLOAT -> quantized ? WPILogFormat.TYPE_INT64_ARRAY : WPILogFormat.TYPE_FLOAT_ARRAY;
+          case DOUBLE -> quantized ? WPILogFormat.TYPE_INT64_ARRAY : floats ? WPILogFormat.TYPE_FLOAT_ARRAY : WPILogFormat.TYPE_DOUBLE_ARRAY;
+          default -> null;
+        };
+      }
+      case CollectionHandler h -> {
+        var componentType = ((DeclaredType) dataType).getTypeArguments().getFirst();
+        yield processingEnv.getTypeUtils().isAssignable(componentType, javaLangString) ? WPILogFormat.TYPE_STRING_ARRAY : null;
+      }
+      default -> null;
+    };
+  }
+
+  /**
+   * Checks if an element is an object with its own logger, as opposed to a plain data value.
+   */
+  private boolean isNestedObject(Element element) {
+    var handler = handlerFor(element);
+    return handler instanceof LoggableHandler
+        || handler instanceof ConfiguredLoggerHandler
+        || handler instanceof PolymorphicHandler;
+  }
+
   private boolean isLoggable(Element element) {
-    return handlers.stream().anyMatch(h -> h.isLoggable(element));
+    return handlers.isLoggable(element);
   }
 }
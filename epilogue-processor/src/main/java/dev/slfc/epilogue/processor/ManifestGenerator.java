@@ -0,0 +1,199 @@
+package dev.slfc.epilogue.processor;
+
+import dev.slfc.epilogue.Epilogue;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates the {@code EpilogueManifest} class, which lists the entries every generated logger
+ * logs to so data loggers can create them all at startup, and a resource file with the same
+ * listing for tools that read it without loading any classes.
+ *
+ * <p>Each logged class gets a method that lists the entries its logger logs to directly, and
+ * expands the entries of the nested objects that have loggers of their own. Entries whose names or
+ * types aren't known at compile time, like those logged by custom loggers, sendables, and the
+ * loggers of polymorphic fields, aren't listed.
+ */
+public class ManifestGenerator {
+  /**
+   * The path of the manifest resource file, relative to the {@code dev.slfc.epilogue} package.
+   */
+  public static final String RESOURCE_NAME = "epilogue-manifest.tsv";
+
+  /**
+   * An entry logged by a generated logger.
+   *
+   * @param identifier the identifier of the entry, relative to the path the logged object is
+   *                   logged under
+   * @param type the data log type of the entry, or null if the entry is a nested object
+   * @param importance the importance level of the element that logs the entry
+   * @param nested the class of the nested object logged under the identifier by its own logger,
+   *               or null if the entry holds data
+   */
+  public record Entry(String identifier, String type, Epilogue.Importance importance, TypeElement nested) {
+    /**
+     * Creates a copy of this entry that's only logged when another importance level is also logged.
+     */
+    Entry cappedAt(Epilogue.Importance cap) {
+      return importance.compareTo(cap) <= 0 ? this : new Entry(identifier, type, cap, nested);
+    }
+  }
+
+  private final ProcessingEnvironment processingEnv;
+
+  public ManifestGenerator(ProcessingEnvironment processingEnv) {
+    this.processingEnv = processingEnv;
+  }
+
+  /**
+   * Writes the manifest class and resource file.
+   *
+   * @param entriesByClass the entries logged by the logger of each logged class
+   */
+  public void writeManifest(Map<TypeElement, List<Entry>> entriesByClass) {
+    var originatingElements = entriesByClass.keySet().toArray(Element[]::new);
+
+    // Sorted by binary class name (the name returned by Class.getName()) for a consistent order
+    var elements = processingEnv.getElementUtils();
+    var entriesByName = new TreeMap<String, List<Entry>>();
+    entriesByClass.forEach((clazz, entries) -> entriesByName.put(elements.getBinaryName(clazz).toString(), entries));
+
+    try {
+      writeManifestClass(entriesByName, originatingElements);
+      writeManifestResource(entriesByName, originatingElements);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void writeManifestClass(Map<String, List<Entry>> entriesByName, Element[] originatingElements)
+      throws IOException {
+    var file = processingEnv.getFiler().createSourceFile("dev.slfc.epilogue.EpilogueManifest", originatingElements);
+
+    try (var out = new PrintWriter(file.openWriter())) {
+      out.print("""
+          package dev.slfc.epilogue;
+
+          import dev.slfc.epilogue.logging.ManifestEntry;
+          import java.util.ArrayList;
+          import java.util.HashSet;
+          import java.util.List;
+          import java.util.Set;
+
+          public final class EpilogueManifest {
+            private EpilogueManifest() {
+            }
+
+            /**
+             * Gets the entries logged for an object of a logged class, including the entries of the
+             * objects nested inside it, relative to the path the object is logged under. Pass them to
+             * {@link dev.slfc.epilogue.logging.DataLogger#preregister} to create every entry up front.
+             *
+             * @param type the logged class
+             * @param minimumImportance the minimum importance level of the entries to include
+             * @return the entries
+             */
+            public static List<ManifestEntry> entriesFor(Class<?> type, Epilogue.Importance minimumImportance) {
+              var collector = new Collector(minimumImportance);
+              collector.addNested(type.getName(), "", Epilogue.Importance.CRITICAL, Epilogue.Importance.CRITICAL);
+              return collector.entries;
+            }
+
+            private static final class Collector {
+              final Epilogue.Importance minimum;
+              final List<ManifestEntry> entries = new ArrayList<>();
+
+              // The classes being expanded, to stop at objects that contain themselves
+              final Set<String> path = new HashSet<>();
+
+              Collector(Epilogue.Importance minimum) {
+                this.minimum = minimum;
+              }
+
+              void add(String identifier, String type, Epilogue.Importance importance, Epilogue.Importance cap) {
+                var effective = importance.compareTo(cap) < 0 ? importance : cap;
+                if (effective.compareTo(minimum) >= 0) {
+                  entries.add(new ManifestEntry(identifier, type, effective));
+                }
+              }
+
+              void addNested(String className, String prefix, Epilogue.Importance importance, Epilogue.Importance cap) {
+                var effective = importance.compareTo(cap) < 0 ? importance : cap;
+                if (effective.compareTo(minimum) < 0 || !path.add(className)) {
+                  return;
+                }
+
+                switch (className) {
+          """);
+
+      for (String name : entriesByName.keySet()) {
+        out.println("        case \"" + name + "\" -> " + methodName(name) + "(prefix, effective, this);");
+      }
+
+      out.print("""
+                  default -> {
+                    // No generated logger
+                  }
+                }
+                path.remove(className);
+              }
+            }
+          """);
+
+      var elements = processingEnv.getElementUtils();
+      entriesByName.forEach((name, entries) -> {
+        out.println();
+        out.println("  private static void " + methodName(name) + "(String prefix, Epilogue.Importance cap, Collector collector) {");
+        for (var entry : entries) {
+          var importance = "Epilogue.Importance." + entry.importance().name();
+          if (entry.nested() != null) {
+            var nested = elements.getBinaryName(entry.nested()).toString();
+            out.println("    collector.addNested(\"" + nested + "\", prefix + \"" + entry.identifier() + "/\", " + importance + ", cap);");
+          } else {
+            out.println("    collector.add(prefix + \"" + entry.identifier() + "\", \"" + entry.type() + "\", " + importance + ", cap);");
+          }
+        }
+        out.println("  }");
+      });
+
+      out.println("}");
+    }
+  }
+
+  /**
+   * Writes the manifest as tab-separated values, with one line per entry: the logged class, the
+   * identifier, the type, and the importance level. Nested objects are listed with a
+   * {@code nested:} type naming their class, whose own entries are listed under that class.
+   */
+  private void writeManifestResource(Map<String, List<Entry>> entriesByName, Element[] originatingElements)
+      throws IOException {
+    var file = processingEnv.getFiler().createResource(
+        StandardLocation.CLASS_OUTPUT, "dev.slfc.epilogue", RESOURCE_NAME, originatingElements);
+
+    var elements = processingEnv.getElementUtils();
+    try (var out = new PrintWriter(file.openWriter())) {
+      out.println("# class\tidentifier\ttype\timportance");
+      entriesByName.forEach((name, entries) -> {
+        for (var entry : entries) {
+          var type = entry.nested() != null ? "nested:" + elements.getBinaryName(entry.nested()) : entry.type();
+          out.println(name + "\t" + entry.identifier() + "\t" + type + "\t" + entry.importance());
+        }
+      });
+    }
+  }
+
+  /**
+   * Gets the name of the manifest method that lists the entries of a class, eg
+   * {@code com_example_Arm$State} for {@code com.example.Arm$State}.
+   */
+  private static String methodName(String binaryName) {
+    return binaryName.replace('.', '_');
+  }
+}
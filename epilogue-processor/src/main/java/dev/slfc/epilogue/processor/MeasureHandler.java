@@ -19,8 +19,8 @@ public class MeasureHandler extends ElementHandler {
   }
 
   @Override
-  public String logInvocation(Element element) {
+  public String logInvocation(Element element, String access, String name) {
     // DataLogger has builtin support for logging measures
-    return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ")";
+    return "dataLogger.log(\"" + name + "\", " + access + ")";
   }
 }
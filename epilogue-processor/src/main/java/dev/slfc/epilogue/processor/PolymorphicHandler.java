@@ -0,0 +1,52 @@
+package dev.slfc.epilogue.processor;
+
+import java.util.Collection;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Handles logging for types that don't have a logger of their own, but are a superclass or
+ * interface of a type that does, like a field declared as {@code Subsystem} that holds an
+ * {@link dev.slfc.epilogue.Epilogue @Epilogue} subsystem. The logger to use is looked up from the
+ * runtime type of the logged object, which {@code Epiloguer} caches per class. {@code Object} is
+ * never logged this way, since every logged type would match it.
+ */
+public class PolymorphicHandler extends ElementHandler {
+  private final Collection<TypeMirror> loggedTypes;
+  private final TypeMirror objectType;
+
+  /**
+   * @param processingEnv the processing environment
+   * @param loggedTypes the types with generated or custom loggers
+   */
+  protected PolymorphicHandler(ProcessingEnvironment processingEnv, Collection<TypeMirror> loggedTypes) {
+    super(processingEnv);
+
+    var types = processingEnv.getTypeUtils();
+    this.loggedTypes = loggedTypes.stream().map(types::erasure).toList();
+    objectType = processingEnv.getElementUtils().getTypeElement("java.lang.Object").asType();
+  }
+
+  @Override
+  public boolean isLoggable(Element element) {
+    var dataType = dataType(element);
+    if (!(dataType instanceof DeclaredType)) {
+      return false;
+    }
+
+    var types = processingEnv.getTypeUtils();
+    var erasure = types.erasure(dataType);
+    if (types.isSameType(erasure, objectType)) {
+      return false;
+    }
+
+    return loggedTypes.stream().anyMatch(t -> types.isSubtype(t, erasure));
+  }
+
+  @Override
+  public String logInvocation(Element element, String access, String name) {
+    return "Epiloguer.tryUpdateByRuntimeType(dataLogger.getSubLogger(\"" + name + "\"), " + access + ")";
+  }
+}
@@ -27,7 +27,7 @@ public class SendableHandler extends ElementHandler {
   }
 
   @Override
-  public String logInvocation(Element element) {
+  public String logInvocation(Element element, String access, String name) {
     var dataType = dataType(element);
 
     if (processingEnv.getTypeUtils().isAssignable(dataType, commandType) ||
@@ -36,9 +36,9 @@ public class SendableHandler extends ElementHandler {
     }
 
     return "logSendable(dataLogger.getSubLogger(\""
-        + loggedName(element)
+        + name
         + "\"), "
-        + elementAccess(element)
+        + access
         + ")";
   }
 }
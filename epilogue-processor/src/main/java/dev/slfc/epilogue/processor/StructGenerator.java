@@ -0,0 +1,358 @@
+package dev.slfc.epilogue.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Generates {@code Struct} serializers for records annotated with
+ * {@link dev.slfc.epilogue.Epilogue#struct() @Epilogue(struct = true)}. Components are packed in
+ * declaration order, using the same layout as WPILib's own struct serializers. Also generates the
+ * serializers for the frames logged by classes annotated with
+ * {@link dev.slfc.epilogue.Epilogue#frame() @Epilogue(frame = true)}.
+ */
+public class StructGenerator {
+  private final ProcessingEnvironment processingEnv;
+  private final StructHandler structHandler;
+
+  public StructGenerator(ProcessingEnvironment processingEnv, StructHandler structHandler) {
+    this.processingEnv = processingEnv;
+    this.structHandler = structHandler;
+  }
+
+  /**
+   * Checks that a struct can be generated for a class, printing errors for any problems.
+   *
+   * @param clazz the class that requested a generated struct
+   * @return true if a struct can be generated, false if not
+   */
+  public boolean validate(TypeElement clazz) {
+    var messager = processingEnv.getMessager();
+
+    if (!StructHandler.hasGeneratedStruct(clazz)) {
+      messager.printError("[EPILOGUE] Structs can only be generated for records", clazz);
+      return false;
+    }
+
+    boolean valid = true;
+
+    if (!clazz.getTypeParameters().isEmpty()) {
+      messager.printError("[EPILOGUE] Structs cannot be generated for generic records", clazz);
+      valid = false;
+    }
+
+    if (clazz.getModifiers().contains(Modifier.PRIVATE)) {
+      messager.printError("[EPILOGUE] Structs cannot be generated for private records", clazz);
+      valid = false;
+    }
+
+    for (var component : clazz.getRecordComponents()) {
+      var type = component.asType();
+      if (!isPackable(type, false)) {
+        messager.printError(
+            "[EPILOGUE] Cannot generate a struct for this record, because component "
+                + component.getSimpleName() + " is a " + type + ", which is not a primitive or struct-serializable type",
+            clazz
+        );
+        valid = false;
+      }
+    }
+
+    return valid;
+  }
+
+  /**
+   * The struct layout of a primitive record component.
+   *
+   * @param schemaType the type of the component in the struct schema, eg "int32"
+   * @param size the name of the {@code Struct} constant for the size of the type
+   * @param put the method that writes the component to a byte buffer
+   * @param get the expression that reads the component from a byte buffer named {@code bb}
+   */
+  private record PrimitiveLayout(String schemaType, String size, String put, String get) {}
+
+  private static PrimitiveLayout primitiveLayout(TypeMirror type) {
+    return primitiveLayout(type.getKind());
+  }
+
+  private static PrimitiveLayout primitiveLayout(TypeKind kind) {
+    return switch (kind) {
+      case BOOLEAN -> new PrimitiveLayout("bool", "kSizeBool", "put", "bb.get() != 0");
+      case BYTE -> new PrimitiveLayout("int8", "kSizeInt8", "put", "bb.get()");
+      case SHORT -> new PrimitiveLayout("int16", "kSizeInt16", "putShort", "bb.getShort()");
+      case INT -> new PrimitiveLayout("int32", "kSizeInt32", "putInt", "bb.getInt()");
+      case LONG -> new PrimitiveLayout("int64", "kSizeInt64", "putLong", "bb.getLong()");
+      case FLOAT -> new PrimitiveLayout("float", "kSizeFloat", "putFloat", "bb.getFloat()");
+      case DOUBLE -> new PrimitiveLayout("double", "kSizeDouble", "putDouble", "bb.getDouble()");
+      default -> null;
+    };
+  }
+
+  /**
+   * Writes the struct serializer for a record. The record must have passed {@link #validate}.
+   *
+   * @param record the record to generate a struct for
+   */
+  public void writeStructFile(TypeElement record) throws IOException {
+    String structClassName = StructHandler.structClassName(record);
+    String structSimpleName = StringUtils.simpleName(structClassName);
+
+    List<Member> members = new ArrayList<>();
+    for (RecordComponentElement component : record.getRecordComponents()) {
+      members.add(new Member(component.getSimpleName().toString(), component.asType(), false));
+    }
+
+    var structFile = processingEnv.getFiler().createSourceFile(structClassName, record);
+
+    try (var out = new PrintWriter(structFile.openWriter())) {
+      int lastDot = structClassName.lastIndexOf('.');
+      if (lastDot > 0) {
+        out.println("package " + structClassName.substring(0, lastDot) + ";");
+        out.println();
+      }
+
+      out.println("import edu.wpi.first.util.struct.Struct;");
+      out.println("import java.nio.ByteBuffer;");
+      out.println();
+
+      writeStructClass(
+          out,
+          "",
+          "public final class " + structSimpleName,
+          record.getQualifiedName().toString(),
+          StructHandler.structTypeName(record),
+          members
+      );
+    }
+  }
+
+  /**
+   * A member of a generated struct, read from the record component of the same name.
+   *
+   * @param name the name of the member
+   * @param type the type of the member. Must be a primitive other than {@code char}, an enum, or
+   *             a struct-serializable type
+   * @param nullable whether the member may be null. Null enums are packed as an ordinal of -1,
+   *                 and null structs as zeroes
+   */
+  record Member(String name, TypeMirror type, boolean nullable) {}
+
+  /**
+   * Checks if a value of a type can be a member of a generated struct. Enums are only supported
+   * by structs written with {@link #writeStructClass}.
+   *
+   * @param type the type to check
+   * @param allowEnums whether enums are allowed
+   */
+  public boolean isPackable(TypeMirror type, boolean allowEnums) {
+    return primitiveLayout(type) != null
+        || (allowEnums && enumType(type) != null)
+        || structHandler.isLoggableType(type);
+  }
+
+  /**
+   * Gets the declaration of an enum type, or null if the type isn't an enum.
+   */
+  private static TypeElement enumType(TypeMirror type) {
+    if (type instanceof DeclaredType decl
+        && decl.asElement() instanceof TypeElement element
+        && element.getKind() == ElementKind.ENUM) {
+      return element;
+    }
+    return null;
+  }
+
+  /**
+   * Writes a {@code Struct} serializer class with a single shared {@code INSTANCE}. Members are
+   * packed in order, using the same layout as WPILib's own struct serializers. Enums are packed as
+   * their ordinals, with the names of the constants in the schema.
+   *
+   * @param out the writer to write the class to
+   * @param indent the indentation of the class declaration
+   * @param declaration the modifiers and name of the class, eg "public final class FooStruct"
+   * @param valueType the type of the serialized values. It must have accessors named after the
+   *                  members, and a constructor that takes the members in order
+   * @param typeName the name of the struct type in the schema
+   * @param members the members of the struct
+   */
+  public void writeStructClass(
+      PrintWriter out,
+      String indent,
+      String declaration,
+      String valueType,
+      String typeName,
+      List<Member> members) {
+    String simpleName = declaration.substring(declaration.lastIndexOf(' ') + 1);
+
+    List<String> sizes = new ArrayList<>();
+    List<String> packs = new ArrayList<>();
+    List<String> unpacks = new ArrayList<>();
+    Set<String> nestedStructs = new LinkedHashSet<>();
+
+    // The schema is a constant, except for the type names of nested structs that weren't generated,
+    // which are only known at runtime. Literal parts are merged together where possible
+    List<String> schemaParts = new ArrayList<>();
+    var schemaLiteral = new StringBuilder();
+
+    for (var member : members) {
+      var name = member.name();
+      var type = member.type();
+      var read = "value." + name + "()";
+
+      if (!schemaLiteral.isEmpty() || !schemaParts.isEmpty()) {
+        schemaLiteral.append(';');
+      }
+
+      var layout = primitiveLayout(type);
+      var enumType = enumType(type);
+      if (layout != null) {
+        sizes.add(layout.size());
+        schemaLiteral.append(layout.schemaType()).append(' ').append(name);
+        if (type.getKind() == TypeKind.BOOLEAN) {
+          packs.add("bb.put(" + read + " ? (byte) 1 : (byte) 0);");
+        } else {
+          packs.add("bb." + layout.put() + "(" + read + ");");
+        }
+        unpacks.add("var " + name + " = " + layout.get() + ";");
+      } else if (enumType != null) {
+        // Ordinals are packed into the smallest integer type that fits them. -1 is reserved for null
+        var constants = enumType.getEnclosedElements().stream()
+            .filter(e -> e.getKind() == ElementKind.ENUM_CONSTANT)
+            .map(e -> e.getSimpleName().toString())
+            .toList();
+        boolean small = constants.size() <= Byte.MAX_VALUE;
+        var enumLayout = small ? primitiveLayout(TypeKind.BYTE) : primitiveLayout(TypeKind.INT);
+
+        sizes.add(enumLayout.size());
+        schemaLiteral.append("enum {");
+        for (int i = 0; i < constants.size(); i++) {
+          schemaLiteral.append(i == 0 ? "" : ", ").append(constants.get(i)).append('=').append(i);
+        }
+        schemaLiteral.append("} ").append(enumLayout.schemaType()).append(' ').append(name);
+
+        var ordinal = read + ".ordinal()";
+        if (small) {
+          ordinal = "(byte) " + ordinal;
+        }
+        if (member.nullable()) {
+          ordinal = read + " == null ? " + (small ? "(byte) -1" : "-1") + " : " + ordinal;
+        }
+        packs.add("bb." + enumLayout.put() + "(" + ordinal + ");");
+
+        var enumName = processingEnv.getTypeUtils().erasure(type).toString();
+        unpacks.add("var " + name + "$ordinal = " + enumLayout.get() + ";");
+        unpacks.add("var " + name + " = " + name + "$ordinal < 0 ? null : " + enumName + ".values()[" + name + "$ordinal];");
+      } else {
+        var struct = structHandler.structAccess(type);
+        nestedStructs.add(struct);
+        sizes.add(struct + ".getSize()");
+
+        var nestedRecord = StructHandler.generatedStructRecord(type);
+        if (nestedRecord != null) {
+          // Generated structs have known type names
+          schemaLiteral.append(StructHandler.structTypeName(nestedRecord));
+        } else {
+          if (!schemaLiteral.isEmpty()) {
+            schemaParts.add("\"" + schemaLiteral + "\"");
+            schemaLiteral.setLength(0);
+          }
+          // Type strings are formatted like "struct:Rotation2d"
+          schemaParts.add(struct + ".getTypeString().substring(\"struct:\".length())");
+        }
+        schemaLiteral.append(' ').append(name);
+
+        if (member.nullable()) {
+          // Nothing to pack, so leave the member zeroed out
+          packs.add("if (" + read + " != null) {");
+          packs.add("  " + struct + ".pack(bb, " + read + ");");
+          packs.add("} else {");
+          packs.add("  bb.put(new byte[" + struct + ".getSize()]);");
+          packs.add("}");
+        } else {
+          packs.add(struct + ".pack(bb, " + read + ");");
+        }
+        unpacks.add("var " + name + " = " + struct + ".unpack(bb);");
+      }
+    }
+    if (!schemaLiteral.isEmpty() || schemaParts.isEmpty()) {
+      schemaParts.add("\"" + schemaLiteral + "\"");
+    }
+
+    var memberNames = members.stream().map(Member::name).toList();
+
+    // Written without indentation, then indented all at once
+    var code = new StringWriter();
+    var writer = new PrintWriter(code);
+
+    writer.println(declaration + " implements Struct<" + valueType + "> {");
+    writer.println("  public static final " + simpleName + " INSTANCE = new " + simpleName + "();");
+    writer.println();
+    writer.println("  private " + simpleName + "() {");
+    writer.println("  }");
+    writer.println();
+
+    writer.println("  @Override");
+    writer.println("  public Class<" + valueType + "> getTypeClass() {");
+    writer.println("    return " + valueType + ".class;");
+    writer.println("  }");
+    writer.println();
+
+    writer.println("  @Override");
+    writer.println("  public String getTypeString() {");
+    writer.println("    return \"struct:" + typeName + "\";");
+    writer.println("  }");
+    writer.println();
+
+    writer.println("  @Override");
+    writer.println("  public int getSize() {");
+    writer.println("    return " + (sizes.isEmpty() ? "0" : String.join(" + ", sizes)) + ";");
+    writer.println("  }");
+    writer.println();
+
+    writer.println("  @Override");
+    writer.println("  public String getSchema() {");
+    writer.println("    return " + String.join(" + ", schemaParts) + ";");
+    writer.println("  }");
+    writer.println();
+
+    if (!nestedStructs.isEmpty()) {
+      writer.println("  @Override");
+      writer.println("  public Struct<?>[] getNested() {");
+      writer.println("    return new Struct<?>[] {" + String.join(", ", nestedStructs) + "};");
+      writer.println("  }");
+      writer.println();
+    }
+
+    writer.println("  @Override");
+    writer.println("  public " + valueType + " unpack(ByteBuffer bb) {");
+    for (var unpack : unpacks) {
+      writer.println("    " + unpack);
+    }
+    writer.println("    return new " + valueType + "(" + String.join(", ", memberNames) + ");");
+    writer.println("  }");
+    writer.println();
+
+    writer.println("  @Override");
+    writer.println("  public void pack(ByteBuffer bb, " + valueType + " value) {");
+    for (var pack : packs) {
+      writer.println("    " + pack);
+    }
+    writer.println("  }");
+    writer.println("}");
+    writer.flush();
+
+    code.toString().lines().forEach(line -> out.println(line.isEmpty() ? line : indent + line));
+  }
+}
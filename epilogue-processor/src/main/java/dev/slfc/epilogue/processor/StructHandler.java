@@ -1,14 +1,29 @@
 package dev.slfc.epilogue.processor;
 
+import dev.slfc.epilogue.Epilogue;
+import java.util.HashMap;
+import java.util.Map;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 
+/**
+ * Handles logging for struct-serializable types, which have a static {@code struct} field, and for
+ * {@link Epilogue#struct() @Epilogue(struct = true)} records, which have a generated struct
+ * serializer.
+ */
 public class StructHandler extends ElementHandler {
   private final TypeMirror serializable;
   private final Types typeUtils;
 
+  // Struct checks are shared by the array and collection handlers, so remember the results
+  private final Map<TypeMirror, Boolean> structTypes = new HashMap<>();
+
   protected StructHandler(ProcessingEnvironment processingEnv) {
     super(processingEnv);
     serializable = processingEnv.getElementUtils().getTypeElement("edu.wpi.first.util.struct.StructSerializable").asType();
@@ -17,20 +32,91 @@ public class StructHandler extends ElementHandler {
 
   @Override
   public boolean isLoggable(Element element) {
-    return typeUtils.isAssignable(dataType(element), serializable);
+    return isLoggableType(dataType(element));
   }
 
   public boolean isLoggableType(TypeMirror type) {
-    return typeUtils.isAssignable(type, serializable);
+    return structTypes.computeIfAbsent(
+        type,
+        t -> typeUtils.isAssignable(t, serializable) || generatedStructRecord(t) != null
+    );
   }
 
   public String structAccess(TypeMirror serializableType) {
+    var record = generatedStructRecord(serializableType);
+    if (record != null) {
+      return structClassName(record) + ".INSTANCE";
+    }
+
     var className = typeUtils.erasure(serializableType).toString();
     return className + ".struct";
   }
 
+  /**
+   * Gets the record declaration of a type, if it's a record with a generated struct serializer.
+   *
+   * @param type the type to check
+   * @return the record declaration, or null if the type doesn't have a generated struct
+   */
+  public static TypeElement generatedStructRecord(TypeMirror type) {
+    if (type instanceof DeclaredType decl
+        && decl.asElement() instanceof TypeElement typeElement
+        && hasGeneratedStruct(typeElement)) {
+      return typeElement;
+    }
+    return null;
+  }
+
+  /**
+   * Checks if a class is a record that opted in to a generated struct serializer.
+   */
+  public static boolean hasGeneratedStruct(TypeElement type) {
+    var epilogue = type.getAnnotation(Epilogue.class);
+    return type.getKind() == ElementKind.RECORD && epilogue != null && epilogue.struct();
+  }
+
+  /**
+   * Gets the fully qualified name of the struct serializer generated for a record. Serializers are
+   * generated in the same package as the record, named after the record and any classes it's
+   * nested in; eg {@code com.example.Arm.State} gets a {@code com.example.ArmStateStruct}.
+   */
+  public static String structClassName(TypeElement record) {
+    var simpleName = new StringBuilder(record.getSimpleName());
+    Element enclosing = record.getEnclosingElement();
+    while (enclosing instanceof TypeElement enclosingType) {
+      simpleName.insert(0, enclosingType.getSimpleName());
+      enclosing = enclosingType.getEnclosingElement();
+    }
+
+    if (enclosing instanceof PackageElement pkg && !pkg.isUnnamed()) {
+      return pkg.getQualifiedName() + "." + simpleName + "Struct";
+    }
+    return simpleName + "Struct";
+  }
+
+  /**
+   * Gets the name of the struct type generated for a record, used in its type string and in the
+   * schemas of the structs that contain it. Struct type names are global to a log, so they're
+   * qualified the same way as {@link #structClassName}, with underscores instead of dots since
+   * schemas only allow letters, digits, and underscores in type names; eg {@code com.example.Arm.State}
+   * has the type {@code com_example_ArmState}.
+   */
+  public static String structTypeName(TypeElement record) {
+    return qualifiedTypeName(structClassName(record).replaceFirst("Struct$", ""));
+  }
+
+  /**
+   * Converts a fully qualified class name to a struct type name.
+   *
+   * @param qualifiedName the qualified name, eg "com.example.ArmState"
+   * @return the type name, eg "com_example_ArmState"
+   */
+  public static String qualifiedTypeName(String qualifiedName) {
+    return qualifiedName.replace('.', '_');
+  }
+
   @Override
-  public String logInvocation(Element element) {
-    return "dataLogger.log(\"" + loggedName(element) + "\", " + elementAccess(element) + ", " + structAccess(dataType(element)) + ")";
+  public String logInvocation(Element element, String access, String name) {
+    return "dataLogger.log(\"" + name + "\", " + access + ", " + structAccess(dataType(element)) + ")";
   }
 }
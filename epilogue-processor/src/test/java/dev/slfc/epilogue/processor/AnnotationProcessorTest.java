@@ -4,13 +4,22 @@ import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.spi.ToolProvider;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import org.junit.jupiter.api.Test;
@@ -179,7 +188,12 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            logSendable(dataLogger.getSubLogger("chooser"), (edu.wpi.first.wpilibj.smartdashboard.SendableChooser<java.lang.String>) $chooser.get(object));
+            {
+              var value = (edu.wpi.first.wpilibj.smartdashboard.SendableChooser<java.lang.String>) $chooser.get(object);
+              if (value != null) {
+                logSendable(dataLogger.getSubLogger("chooser"), value);
+              }
+            }
           }
         }
       }
@@ -264,7 +278,12 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            dataLogger.log("enumValue", object.enumValue);
+            {
+              var value = object.enumValue;
+              if (value != null) {
+                dataLogger.log("enumValue", value);
+              }
+            }
           }
         }
       }
@@ -307,9 +326,19 @@ class AnnotationProcessorTest {
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
             dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
             dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -438,9 +467,19 @@ class AnnotationProcessorTest {
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
             dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
             dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -483,9 +522,19 @@ class AnnotationProcessorTest {
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
             dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
             dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -528,9 +577,19 @@ class AnnotationProcessorTest {
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
             dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
             dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -576,9 +635,19 @@ class AnnotationProcessorTest {
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
             dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
             dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -623,9 +692,19 @@ class AnnotationProcessorTest {
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
             dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
             dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -670,11 +749,36 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            dataLogger.log("x", object.x);
-            dataLogger.log("arr1", object.arr1);
-            dataLogger.log("list", object.list);
-            dataLogger.log("getX", object.getX());
-            dataLogger.log("getArr1", object.getArr1());
+            {
+              var value = object.x;
+              if (value != null) {
+                dataLogger.log("x", value);
+              }
+            }
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value);
+              }
+            }
+            {
+              var value = object.list;
+              if (value != null) {
+                dataLogger.log("list", value);
+              }
+            }
+            {
+              var value = object.getX();
+              if (value != null) {
+                dataLogger.log("getX", value);
+              }
+            }
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value);
+              }
+            }
           }
         }
       }
@@ -727,11 +831,36 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            dataLogger.log("x", object.x, dev.slfc.epilogue.HelloWorld.Structable.struct);
-            dataLogger.log("arr1", object.arr1, dev.slfc.epilogue.HelloWorld.Structable.struct);
-            dataLogger.log("list", object.list, dev.slfc.epilogue.HelloWorld.Structable.struct);
-            dataLogger.log("getX", object.getX(), dev.slfc.epilogue.HelloWorld.Structable.struct);
-            dataLogger.log("getArr1", object.getArr1(), dev.slfc.epilogue.HelloWorld.Structable.struct);
+            {
+              var value = object.x;
+              if (value != null) {
+                dataLogger.log("x", value, dev.slfc.epilogue.HelloWorld.Structable.struct);
+              }
+            }
+            {
+              var value = object.arr1;
+              if (value != null) {
+                dataLogger.log("arr1", value, dev.slfc.epilogue.HelloWorld.Structable.struct);
+              }
+            }
+            {
+              var value = object.list;
+              if (value != null) {
+                dataLogger.log("list", value, dev.slfc.epilogue.HelloWorld.Structable.struct);
+              }
+            }
+            {
+              var value = object.getX();
+              if (value != null) {
+                dataLogger.log("getX", value, dev.slfc.epilogue.HelloWorld.Structable.struct);
+              }
+            }
+            {
+              var value = object.getArr1();
+              if (value != null) {
+                dataLogger.log("getArr1", value, dev.slfc.epilogue.HelloWorld.Structable.struct);
+              }
+            }
           }
         }
       }
@@ -776,10 +905,30 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            dataLogger.log("list", object.list);
-            dataLogger.log("set", object.set);
-            dataLogger.log("queue", object.queue);
-            dataLogger.log("stack", object.stack);
+            {
+              var value = object.list;
+              if (value != null) {
+                dataLogger.log("list", value);
+              }
+            }
+            {
+              var value = object.set;
+              if (value != null) {
+                dataLogger.log("set", value);
+              }
+            }
+            {
+              var value = object.queue;
+              if (value != null) {
+                dataLogger.log("queue", value);
+              }
+            }
+            {
+              var value = object.stack;
+              if (value != null) {
+                dataLogger.log("stack", value);
+              }
+            }
           }
         }
       }
@@ -920,8 +1069,18 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            dataLogger.log("value", object.value);
-            dataLogger.log("upcast", object.upcast());
+            {
+              var value = object.value;
+              if (value != null) {
+                dataLogger.log("value", value);
+              }
+            }
+            {
+              var value = object.upcast();
+              if (value != null) {
+                dataLogger.log("upcast", value);
+              }
+            }
           }
         }
       }
@@ -970,8 +1129,18 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            Epiloguer.childLogger.tryUpdate(dataLogger.getSubLogger("child"), object.child, Epiloguer.getConfig().errorHandler);
-            Epiloguer.ioLogger.tryUpdate(dataLogger.getSubLogger("io"), object.io, Epiloguer.getConfig().errorHandler);
+            {
+              var value = object.child;
+              if (value != null) {
+                Epiloguer.childLogger().tryUpdateNested(dataLogger.getSubLogger("child"), value, Epiloguer.getConfig().errorHandler);
+              }
+            }
+            {
+              var value = object.io;
+              if (value != null) {
+                Epiloguer.ioLogger().tryUpdateNested(dataLogger.getSubLogger("io"), value, Epiloguer.getConfig().errorHandler);
+              }
+            }
           }
         }
       }
@@ -985,12 +1154,10 @@ class AnnotationProcessorTest {
     assertThat(compilation).succeeded();
     var generatedFiles = compilation.generatedSourceFiles();
 
-    // 3 loggers + Epiloguer
-    assertEquals(4, generatedFiles.size());
+    // 3 loggers + Epiloguer + EpilogueManifest
+    assertEquals(5, generatedFiles.size());
 
-    // first is Epiloguer
-    // second is the class-specific logger
-    var generatedFile = generatedFiles.get(3);
+    var generatedFile = compilation.generatedSourceFile("dev.slfc.epilogue.HelloWorldLogger").orElseThrow();
     try {
       var content = generatedFile.getCharContent(false);
       assertEquals(expectedRooLogger, content);
@@ -1042,7 +1209,12 @@ class AnnotationProcessorTest {
         @Override
         public void update(DataLogger dataLogger, HelloWorld object) {
           if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
-            Epiloguer.customPointLogger.tryUpdate(dataLogger.getSubLogger("point"), object.point, Epiloguer.getConfig().errorHandler);
+            {
+              var value = object.point;
+              if (value != null) {
+                Epiloguer.customPointLogger().tryUpdate(dataLogger.getSubLogger("point"), value, Epiloguer.getConfig().errorHandler);
+              }
+            }
           }
         }
       }
@@ -1052,35 +1224,1897 @@ class AnnotationProcessorTest {
   }
 
   @Test
-  void warnsAboutNonLoggableFields() {
+  void polymorphicFields() {
     String source = """
         package dev.slfc.epilogue;
-        
+
+        import dev.slfc.epilogue.logging.*;
+
+        interface Mechanism {}
+
+        abstract class Node {}
+
+        record Arm(double angle) implements Mechanism {}
+
+        @CustomLoggerFor(Arm.class)
+        class CustomArmLogger extends ClassSpecificLogger<Arm> {
+          public CustomArmLogger() {
+            super(Arm.class);
+          }
+
+          @Override
+          public void update(DataLogger dataLogger, Arm arm) {
+            // Implementation is irrelevant
+          }
+        }
+
         @Epilogue
-        class HelloWorld {
-          Throwable t;
+        class HelloWorld extends Node {
+          Mechanism mechanism; // Logged with CustomArmLogger when it's an Arm
+          Node next; // Logged with HelloWorldLogger when it's a HelloWorld
+          Object untyped; // Not logged, since every type is an Object
         }
         """;
 
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.mechanism;
+              if (value != null) {
+                Epiloguer.tryUpdateByRuntimeType(dataLogger.getSubLogger("mechanism"), value);
+              }
+            }
+            {
+              var value = object.next;
+              if (value != null) {
+                Epiloguer.tryUpdateByRuntimeType(dataLogger.getSubLogger("next"), value);
+              }
+            }
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void parallel() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class Arm {
+        double angle;
+      }
+
+      @Epilogue
+      class Elevator {
+        double height;
+      }
+
+      @Epilogue(parallel = true)
+      class HelloWorld {
+        double x;
+        Arm arm;
+        @Epilogue(importance = Epilogue.Importance.CRITICAL)
+        public Elevator getElevator() { return null; }
+      }
+      """;
+
+    String expectedRootLogger = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import java.util.ArrayList;
+      import java.util.List;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          List<Runnable> parallelUpdates = new ArrayList<>();
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("x", object.x);
+            parallelUpdates.add(() -> {
+              var value = object.arm;
+              if (value != null) {
+                Epiloguer.armLogger().tryUpdateNested(dataLogger.getSubLogger("arm"), value, Epiloguer.getConfig().errorHandler);
+              }
+            });
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.CRITICAL)) {
+            parallelUpdates.add(() -> {
+              var value = object.getElevator();
+              if (value != null) {
+                Epiloguer.elevatorLogger().tryUpdateNested(dataLogger.getSubLogger("getElevator"), value, Epiloguer.getConfig().errorHandler);
+              }
+            });
+          }
+          updateInParallel(parallelUpdates, Epiloguer.getConfig().parallelExecutor);
+        }
+      }
+      """;
+
     Compilation compilation =
         javac()
             .withProcessors(new AnnotationProcessor())
             .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
 
     assertThat(compilation).succeeded();
-    assertEquals(1, compilation.warnings().size());
-    var warning = compilation.warnings().getFirst();
-    var message = warning.getMessage(Locale.getDefault());
-    assertEquals("[EPILOGUE] Excluded from logs because java.lang.Throwable is not a loggable data type", message);
+    assertGeneratedSource(compilation, "dev.slfc.epilogue.HelloWorldLogger", expectedRootLogger);
   }
 
-  private void assertCompilationError(String message, long lineNumber, long col, Diagnostic<? extends JavaFileObject> diagnostic) {
-    assertAll(
-        () -> assertEquals(Diagnostic.Kind.ERROR, diagnostic.getKind(), "not an error"),
-        () -> assertEquals(message, diagnostic.getMessage(Locale.getDefault()), "error message mismatch"),
-        () -> assertEquals(lineNumber, diagnostic.getLineNumber(), "line number mismatch"),
-        () -> assertEquals(col, diagnostic.getColumnNumber(), "column number mismatch")
-    );
+  @Test
+  void parallelWithoutNestedObjects() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue(parallel = true)
+      class HelloWorld {
+        double x;
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("x", object.x);
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void everyNCycles() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        double x;
+        @Epilogue(everyNCycles = 5)
+        double y;
+        @Epilogue(everyNCycles = 1)
+        public double getZ() { return 0; }
+        @Epilogue(everyNCycles = 10, importance = Epilogue.Importance.CRITICAL)
+        public double getW() { return 0; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("x", object.x);
+            if (Epiloguer.getCycle() % 5 == 0) {
+              dataLogger.log("y", object.y);
+            }
+            dataLogger.log("getZ", object.getZ());
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.CRITICAL)) {
+            if (Epiloguer.getCycle() % 10 == 0) {
+              dataLogger.log("getW", object.getW());
+            }
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void nullValues() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        enum E { a, b }
+
+        String name;
+        E state;
+        double x;
+        @Epilogue(everyNCycles = 5)
+        public String getDescription() { return null; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.name;
+              if (value != null) {
+                dataLogger.log("name", value);
+              }
+            }
+            {
+              var value = object.state;
+              if (value != null) {
+                dataLogger.log("state", value);
+              }
+            }
+            dataLogger.log("x", object.x);
+            if (Epiloguer.getCycle() % 5 == 0) {
+              var value = object.getDescription();
+              if (value != null) {
+                dataLogger.log("getDescription", value);
+              }
+            }
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void snapshot() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      import edu.wpi.first.util.struct.Struct;
+      import edu.wpi.first.util.struct.StructSerializable;
+
+      @Epilogue(snapshot = true)
+      class HelloWorld {
+        enum E { a, b }
+
+        static class Structable implements StructSerializable {
+          public static final Struct<Structable> struct = null; // value doesn't matter
+        }
+
+        double x;
+        private String name;
+        E state;
+        Structable pose;
+        double[] arr; // Not snapshotted
+
+        @Epilogue(everyNCycles = 5, importance = Epilogue.Importance.CRITICAL)
+        public double x() { return x; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import dev.slfc.epilogue.logging.LogSnapshot;
+      import java.lang.invoke.MethodHandles;
+      import java.lang.invoke.VarHandle;
+      import java.nio.ByteBuffer;
+      import java.nio.ByteOrder;
+      import java.util.Arrays;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        /**
+         * A copy of the logged values of a {@code HelloWorld}, written to the data logger on a
+         * background thread.
+         */
+        static final class Snapshot implements LogSnapshot {
+          final boolean[] $present = new boolean[5];
+          double x;
+          java.lang.String name;
+          dev.slfc.epilogue.HelloWorld.E state;
+          final ByteBuffer pose = ByteBuffer.allocate(dev.slfc.epilogue.HelloWorld.Structable.struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+          double x$;
+
+          @Override
+          public void writeTo(DataLogger dataLogger) {
+            if ($present[0]) {
+              dataLogger.log("x", this.x);
+            }
+            if ($present[1]) {
+              dataLogger.log("name", this.name);
+            }
+            if ($present[2]) {
+              dataLogger.log("state", this.state);
+            }
+            if ($present[3]) {
+              dataLogger.logPacked("pose", this.pose.rewind(), dev.slfc.epilogue.HelloWorld.Structable.struct);
+            }
+            if ($present[4]) {
+              dataLogger.log("x", this.x$);
+            }
+          }
+        }
+
+        private static final VarHandle $name;
+
+        static {
+          try {
+            var lookup = MethodHandles.privateLookupIn(HelloWorld.class, MethodHandles.lookup());
+            $name = lookup.findVarHandle(HelloWorld.class, "name", java.lang.String.class);
+          } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("[EPILOGUE] Could not load private fields for logging!", e);
+          }
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          var snapshots = getSnapshotBuffer(dataLogger, Snapshot::new);
+          var snapshot = snapshots.getFillSnapshot();
+          Arrays.fill(snapshot.$present, false);
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            snapshot.x = object.x;
+            snapshot.$present[0] = true;
+            {
+              var value = (java.lang.String) $name.get(object);
+              if (value != null) {
+                snapshot.name = value;
+                snapshot.$present[1] = true;
+              }
+            }
+            {
+              var value = object.state;
+              if (value != null) {
+                snapshot.state = value;
+                snapshot.$present[2] = true;
+              }
+            }
+            {
+              var value = object.pose;
+              if (value != null) {
+                dev.slfc.epilogue.HelloWorld.Structable.struct.pack(snapshot.pose.clear(), value);
+                snapshot.$present[3] = true;
+              }
+            }
+            {
+              var value = object.arr;
+              if (value != null) {
+                dataLogger.log("arr", value);
+              }
+            }
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.CRITICAL)) {
+            if (Epiloguer.getCycle() % 5 == 0) {
+              snapshot.x$ = object.x();
+              snapshot.$present[4] = true;
+            }
+          }
+          publishSnapshot(snapshots, Epiloguer.getConfig().snapshotExecutor, Epiloguer.getConfig().errorHandler);
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void inlineNestedObjects() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        Child child;
+        Node node;
+        Secretive secretive;
+        Flags flags;
+        Framed framed;
+      }
+
+      @Epilogue
+      class Child {
+        double x;
+        String name;
+        @Epilogue(importance = Epilogue.Importance.CRITICAL)
+        Grandchild grandchild;
+      }
+
+      @Epilogue
+      class Grandchild {
+        int y;
+        Grandchild grandchild; // Deeper than the inline depth
+      }
+
+      @Epilogue
+      class Node {
+        int value;
+        Node next; // Cycle, can't be inlined
+      }
+
+      @Epilogue
+      class Secretive {
+        private double hidden; // Needs a VarHandle, can't be inlined
+      }
+
+      @Epilogue(packBooleans = true)
+      class Flags {
+        boolean enabled; // Packed into a bitfield by its own logger, can't be inlined
+      }
+
+      @Epilogue(frame = true)
+      class Framed {
+        double x; // Logged in a frame struct by its own logger, can't be inlined
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.child;
+              if (value != null) {
+                dataLogger.log("child/x", value.x);
+                {
+                  var value1 = value.name;
+                  if (value1 != null) {
+                    dataLogger.log("child/name", value1);
+                  }
+                }
+                {
+                  var value1 = value.grandchild;
+                  if (value1 != null) {
+                    if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+                      dataLogger.log("child/grandchild/y", value1.y);
+                      {
+                        var value2 = value1.grandchild;
+                        if (value2 != null) {
+                          Epiloguer.grandchildLogger().tryUpdateNested(dataLogger.getSubLogger("child/grandchild/grandchild"), value2, Epiloguer.getConfig().errorHandler);
+                        }
+                      }
+                    }
+                  }
+                }
+              }
+            }
+            {
+              var value = object.node;
+              if (value != null) {
+                dataLogger.log("node/value", value.value);
+                {
+                  var value1 = value.next;
+                  if (value1 != null) {
+                    Epiloguer.nodeLogger().tryUpdateNested(dataLogger.getSubLogger("node/next"), value1, Epiloguer.getConfig().errorHandler);
+                  }
+                }
+              }
+            }
+            {
+              var value = object.secretive;
+              if (value != null) {
+                Epiloguer.secretiveLogger().tryUpdateNested(dataLogger.getSubLogger("secretive"), value, Epiloguer.getConfig().errorHandler);
+              }
+            }
+            {
+              var value = object.flags;
+              if (value != null) {
+                Epiloguer.flagsLogger().tryUpdateNested(dataLogger.getSubLogger("flags"), value, Epiloguer.getConfig().errorHandler);
+              }
+            }
+            {
+              var value = object.framed;
+              if (value != null) {
+                Epiloguer.framedLogger().tryUpdateNested(dataLogger.getSubLogger("framed"), value, Epiloguer.getConfig().errorHandler);
+              }
+            }
+          }
+        }
+      }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .withOptions("-Aepilogue.inlineDepth=2")
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).succeeded();
+    assertGeneratedSource(compilation, "dev.slfc.epilogue.HelloWorldLogger", expectedGeneratedSource);
+  }
+
+  @Test
+  void packBooleans() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue(packBooleans = true)
+      class HelloWorld {
+        boolean enabled;
+        private boolean homed;
+        double position;
+        @Epilogue(everyNCycles = 5)
+        boolean sampled;
+        @Epilogue(name = "At Goal", importance = Epilogue.Importance.CRITICAL)
+        public boolean isAtGoal() { return false; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import java.lang.invoke.MethodHandles;
+      import java.lang.invoke.VarHandle;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        private static final VarHandle $homed;
+
+        static {
+          try {
+            var lookup = MethodHandles.privateLookupIn(HelloWorld.class, MethodHandles.lookup());
+            $homed = lookup.findVarHandle(HelloWorld.class, "homed", boolean.class);
+          } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("[EPILOGUE] Could not load private fields for logging!", e);
+          }
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (isFirstUpdate(dataLogger)) {
+            logOnce(dataLogger, object);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("position", object.position);
+            if (Epiloguer.getCycle() % 5 == 0) {
+              dataLogger.log("sampled", object.sampled);
+            }
+            long packedDebug = 0;
+            packedDebug |= object.enabled ? 1L << 0 : 0;
+            packedDebug |= (boolean) $homed.get(object) ? 1L << 1 : 0;
+            dataLogger.log("packedBooleans/debug", packedDebug);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.CRITICAL)) {
+            long packedCritical = 0;
+            packedCritical |= object.isAtGoal() ? 1L << 0 : 0;
+            dataLogger.log("packedBooleans/critical", packedCritical);
+          }
+        }
+
+        private void logOnce(DataLogger dataLogger, HelloWorld object) {
+          dataLogger.log("packedBooleans/debug.names", "enabled,homed");
+          dataLogger.log("packedBooleans/critical.names", "At Goal");
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void frame() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      import edu.wpi.first.util.struct.Struct;
+      import edu.wpi.first.util.struct.StructSerializable;
+
+      @Epilogue(frame = true)
+      class HelloWorld {
+        static class Rotation implements StructSerializable {
+          public static final Struct<Rotation> struct = null; // value doesn't matter
+        }
+
+        enum Mode { IDLE, RUNNING }
+
+        double position;
+        private int count;
+        boolean homed;
+        Mode mode;
+        Rotation rotation;
+        String name;
+        @Epilogue(everyNCycles = 5)
+        double sampled;
+        @Epilogue(importance = Epilogue.Importance.CRITICAL)
+        public double position() { return position; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import edu.wpi.first.util.struct.Struct;
+      import java.lang.invoke.MethodHandles;
+      import java.lang.invoke.VarHandle;
+      import java.nio.ByteBuffer;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        /**
+         * The fixed-width debug values of a {@code HelloWorld}, logged as a single struct.
+         */
+        record DebugFrame(double position, int count, boolean homed, dev.slfc.epilogue.HelloWorld.Mode mode, dev.slfc.epilogue.HelloWorld.Rotation rotation) {
+        }
+
+        static final class DebugFrameStruct implements Struct<DebugFrame> {
+          public static final DebugFrameStruct INSTANCE = new DebugFrameStruct();
+
+          private DebugFrameStruct() {
+          }
+
+          @Override
+          public Class<DebugFrame> getTypeClass() {
+            return DebugFrame.class;
+          }
+
+          @Override
+          public String getTypeString() {
+            return "struct:dev_slfc_epilogue_HelloWorldDebugFrame";
+          }
+
+          @Override
+          public int getSize() {
+            return kSizeDouble + kSizeInt32 + kSizeBool + kSizeInt8 + dev.slfc.epilogue.HelloWorld.Rotation.struct.getSize();
+          }
+
+          @Override
+          public String getSchema() {
+            return "double position;int32 count;bool homed;enum {IDLE=0, RUNNING=1} int8 mode;" + dev.slfc.epilogue.HelloWorld.Rotation.struct.getTypeString().substring("struct:".length()) + " rotation";
+          }
+
+          @Override
+          public Struct<?>[] getNested() {
+            return new Struct<?>[] {dev.slfc.epilogue.HelloWorld.Rotation.struct};
+          }
+
+          @Override
+          public DebugFrame unpack(ByteBuffer bb) {
+            var position = bb.getDouble();
+            var count = bb.getInt();
+            var homed = bb.get() != 0;
+            var mode$ordinal = bb.get();
+            var mode = mode$ordinal < 0 ? null : dev.slfc.epilogue.HelloWorld.Mode.values()[mode$ordinal];
+            var rotation = dev.slfc.epilogue.HelloWorld.Rotation.struct.unpack(bb);
+            return new DebugFrame(position, count, homed, mode, rotation);
+          }
+
+          @Override
+          public void pack(ByteBuffer bb, DebugFrame value) {
+            bb.putDouble(value.position());
+            bb.putInt(value.count());
+            bb.put(value.homed() ? (byte) 1 : (byte) 0);
+            bb.put(value.mode() == null ? (byte) -1 : (byte) value.mode().ordinal());
+            if (value.rotation() != null) {
+              dev.slfc.epilogue.HelloWorld.Rotation.struct.pack(bb, value.rotation());
+            } else {
+              bb.put(new byte[dev.slfc.epilogue.HelloWorld.Rotation.struct.getSize()]);
+            }
+          }
+        }
+
+        /**
+         * The fixed-width critical values of a {@code HelloWorld}, logged as a single struct.
+         */
+        record CriticalFrame(double position) {
+        }
+
+        static final class CriticalFrameStruct implements Struct<CriticalFrame> {
+          public static final CriticalFrameStruct INSTANCE = new CriticalFrameStruct();
+
+          private CriticalFrameStruct() {
+          }
+
+          @Override
+          public Class<CriticalFrame> getTypeClass() {
+            return CriticalFrame.class;
+          }
+
+          @Override
+          public String getTypeString() {
+            return "struct:dev_slfc_epilogue_HelloWorldCriticalFrame";
+          }
+
+          @Override
+          public int getSize() {
+            return kSizeDouble;
+          }
+
+          @Override
+          public String getSchema() {
+            return "double position";
+          }
+
+          @Override
+          public CriticalFrame unpack(ByteBuffer bb) {
+            var position = bb.getDouble();
+            return new CriticalFrame(position);
+          }
+
+          @Override
+          public void pack(ByteBuffer bb, CriticalFrame value) {
+            bb.putDouble(value.position());
+          }
+        }
+
+        private static final VarHandle $count;
+
+        static {
+          try {
+            var lookup = MethodHandles.privateLookupIn(HelloWorld.class, MethodHandles.lookup());
+            $count = lookup.findVarHandle(HelloWorld.class, "count", int.class);
+          } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("[EPILOGUE] Could not load private fields for logging!", e);
+          }
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.name;
+              if (value != null) {
+                dataLogger.log("name", value);
+              }
+            }
+            if (Epiloguer.getCycle() % 5 == 0) {
+              dataLogger.log("sampled", object.sampled);
+            }
+            var debugFrame = new DebugFrame(
+                object.position,
+                (int) $count.get(object),
+                object.homed,
+                object.mode,
+                object.rotation
+            );
+            dataLogger.log("frame/debug", debugFrame, DebugFrameStruct.INSTANCE);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.CRITICAL)) {
+            var criticalFrame = new CriticalFrame(
+                object.position()
+            );
+            dataLogger.log("frame/critical", criticalFrame, CriticalFrameStruct.INSTANCE);
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void framesOfClassesWithTheSameSimpleName() {
+    String arm = """
+      package dev.slfc.epilogue;
+
+      @Epilogue(frame = true)
+      class Arm {
+        double angle;
+      }
+      """;
+
+    String otherArm = """
+      package dev.slfc.other;
+
+      import dev.slfc.epilogue.Epilogue;
+
+      @Epilogue(frame = true)
+      class Arm {
+        int position;
+      }
+      """;
+
+    // Compiled separately, like two libraries whose classes end up logged together
+    Compilation armCompilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.Arm", arm));
+    Compilation otherArmCompilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.other.Arm", otherArm));
+
+    assertThat(armCompilation).succeeded();
+    assertThat(otherArmCompilation).succeeded();
+
+    // The frames have different layouts, so they can't share a struct type name
+    assertGeneratedSourceContains(armCompilation, "dev.slfc.epilogue.ArmLogger", "return \"struct:dev_slfc_epilogue_ArmDebugFrame\";");
+    assertGeneratedSourceContains(otherArmCompilation, "dev.slfc.other.ArmLogger", "return \"struct:dev_slfc_other_ArmDebugFrame\";");
+  }
+
+  @Test
+  void reducedPrecision() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        @Epilogue(precision = Epilogue.Precision.FLOAT)
+        double current;
+        @Epilogue(precision = Epilogue.Precision.FLOAT)
+        double[] currents;
+        @Epilogue(resolution = 0.1)
+        private double temperature;
+        @Epilogue(resolution = 0.5)
+        float[] temperatures;
+        @Epilogue(name = "Voltage", resolution = 0.01)
+        public double getVoltage() { return 12; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import java.lang.invoke.MethodHandles;
+      import java.lang.invoke.VarHandle;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        private static final VarHandle $temperature;
+
+        static {
+          try {
+            var lookup = MethodHandles.privateLookupIn(HelloWorld.class, MethodHandles.lookup());
+            $temperature = lookup.findVarHandle(HelloWorld.class, "temperature", double.class);
+          } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("[EPILOGUE] Could not load private fields for logging!", e);
+          }
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (isFirstUpdate(dataLogger)) {
+            logOnce(dataLogger, object);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("current", (float) object.current);
+            {
+              var value = object.currents;
+              if (value != null) {
+                dataLogger.log("currents", toFloats(value));
+              }
+            }
+            dataLogger.log("temperature", Math.round((double) $temperature.get(object) / 0.1));
+            {
+              var value = object.temperatures;
+              if (value != null) {
+                dataLogger.log("temperatures", quantize(value, 0.5));
+              }
+            }
+            dataLogger.log("Voltage", Math.round(object.getVoltage() / 0.01));
+          }
+        }
+
+        private void logOnce(DataLogger dataLogger, HelloWorld object) {
+          dataLogger.log("temperature.resolution", 0.1);
+          dataLogger.log("temperatures.resolution", 0.5);
+          dataLogger.log("Voltage.resolution", 0.01);
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void invalidPrecision() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        @Epilogue(precision = Epilogue.Precision.FLOAT)
+        int count;
+        @Epilogue(resolution = -1)
+        double position;
+        @Epilogue(resolution = 0.1)
+        String name;
+        @Epilogue(resolution = 0.1, precision = Epilogue.Precision.FLOAT)
+        double current;
+      }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorCount(4);
+
+    var errors = compilation.errors();
+    assertCompilationError("[EPILOGUE] Only double and double[] values can be logged as floats", 6, 7, errors.get(0));
+    assertCompilationError("[EPILOGUE] Resolutions must be positive and finite", 8, 10, errors.get(1));
+    assertCompilationError("[EPILOGUE] Only floating point values can be logged with a resolution", 10, 10, errors.get(2));
+    assertCompilationError("[EPILOGUE] Elements logged with a resolution cannot also set a precision", 12, 10, errors.get(3));
+  }
+
+  @Test
+  void onChange() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        enum Mode { IDLE, RUNNING }
+
+        @Epilogue(onChange = true)
+        int count;
+        @Epilogue(onChange = true)
+        Mode mode;
+        @Epilogue(onChange = true)
+        String name;
+        double position;
+        @Epilogue(onChange = true)
+        double setpoint;
+        @Epilogue(onChange = true)
+        float gain;
+        @Epilogue(onChange = true, everyNCycles = 5)
+        public boolean isHomed() { return false; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        /**
+         * The last values logged for a {@code HelloWorld}, used to skip logging data that hasn't
+         * changed.
+         */
+        static final class LastValues {
+          int count;
+          boolean count$logged;
+          dev.slfc.epilogue.HelloWorld.Mode mode;
+          boolean mode$logged;
+          double setpoint;
+          boolean setpoint$logged;
+          float gain;
+          boolean gain$logged;
+          boolean isHomed$;
+          boolean isHomed$$logged;
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          var lastValues = getLastValues(dataLogger, LastValues::new);
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.count;
+              if (!lastValues.count$logged || lastValues.count != value) {
+                lastValues.count = value;
+                lastValues.count$logged = true;
+                dataLogger.log("count", value);
+              }
+            }
+            {
+              var value = object.mode;
+              if (value != null) {
+                if (!lastValues.mode$logged || lastValues.mode != value) {
+                  lastValues.mode = value;
+                  lastValues.mode$logged = true;
+                  dataLogger.log("mode", value);
+                }
+              }
+            }
+            {
+              var value = object.name;
+              if (value != null) {
+                dataLogger.log("name", value);
+              }
+            }
+            dataLogger.log("position", object.position);
+            {
+              var value = object.setpoint;
+              if (!lastValues.setpoint$logged || Double.doubleToRawLongBits(lastValues.setpoint) != Double.doubleToRawLongBits(value)) {
+                lastValues.setpoint = value;
+                lastValues.setpoint$logged = true;
+                dataLogger.log("setpoint", value);
+              }
+            }
+            {
+              var value = object.gain;
+              if (!lastValues.gain$logged || Float.floatToRawIntBits(lastValues.gain) != Float.floatToRawIntBits(value)) {
+                lastValues.gain = value;
+                lastValues.gain$logged = true;
+                dataLogger.log("gain", value);
+              }
+            }
+            if (Epiloguer.getCycle() % 5 == 0) {
+              var value = object.isHomed();
+              if (!lastValues.isHomed$$logged || lastValues.isHomed$ != value) {
+                lastValues.isHomed$ = value;
+                lastValues.isHomed$$logged = true;
+                dataLogger.log("isHomed", value);
+              }
+            }
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void once() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        @Epilogue
+        static final int CAN_ID = 5;
+        @Epilogue
+        private static final double GEAR_RATIO = 12.75;
+        static final double UNANNOTATED = 1;
+        @Epilogue(once = true, importance = Epilogue.Importance.DEBUG)
+        double[] gains;
+        double position;
+        @Epilogue(once = true, everyNCycles = 5)
+        public String getName() { return "arm"; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import java.lang.invoke.MethodHandles;
+      import java.lang.invoke.VarHandle;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        private static final VarHandle $GEAR_RATIO;
+
+        static {
+          try {
+            var lookup = MethodHandles.privateLookupIn(HelloWorld.class, MethodHandles.lookup());
+            $GEAR_RATIO = lookup.findStaticVarHandle(HelloWorld.class, "GEAR_RATIO", double.class);
+          } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("[EPILOGUE] Could not load private fields for logging!", e);
+          }
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (isFirstUpdate(dataLogger)) {
+            logOnce(dataLogger, object);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("position", object.position);
+          }
+        }
+
+        private void logOnce(DataLogger dataLogger, HelloWorld object) {
+          dataLogger.log("CAN_ID", dev.slfc.epilogue.HelloWorld.CAN_ID);
+          dataLogger.log("GEAR_RATIO", (double) $GEAR_RATIO.get());
+          {
+            var value = object.gains;
+            if (value != null) {
+              dataLogger.log("gains", value);
+            }
+          }
+          {
+            var value = object.getName();
+            if (value != null) {
+              dataLogger.log("getName", value);
+            }
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void mutableStaticsAreLoggedEveryCycle() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        @Epilogue
+        static final int CAN_ID = 5;
+        @Epilogue
+        static int instances;
+        static int unannotated;
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (isFirstUpdate(dataLogger)) {
+            logOnce(dataLogger, object);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("instances", dev.slfc.epilogue.HelloWorld.instances);
+          }
+        }
+
+        private void logOnce(DataLogger dataLogger, HelloWorld object) {
+          dataLogger.log("CAN_ID", dev.slfc.epilogue.HelloWorld.CAN_ID);
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void versioned() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld implements Versioned {
+        private long version = 0;
+        double[] trajectory;
+        @Epilogue(once = true)
+        String name;
+
+        @Override
+        public long logVersion() { return version; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+      import java.lang.invoke.MethodHandles;
+      import java.lang.invoke.VarHandle;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        /**
+         * The last values logged for a {@code HelloWorld}, used to skip logging data that hasn't
+         * changed.
+         */
+        static final class LastValues {
+          HelloWorld $object;
+          long $version;
+        }
+
+        private static final VarHandle $version;
+
+        static {
+          try {
+            var lookup = MethodHandles.privateLookupIn(HelloWorld.class, MethodHandles.lookup());
+            $version = lookup.findVarHandle(HelloWorld.class, "version", long.class);
+          } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("[EPILOGUE] Could not load private fields for logging!", e);
+          }
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          var lastValues = getLastValues(dataLogger, LastValues::new);
+          long version = object.logVersion();
+          boolean firstUpdate = isFirstUpdate(dataLogger);
+          if (firstUpdate) {
+            logOnce(dataLogger, object);
+          }
+          if (!firstUpdate && lastValues.$object == object && lastValues.$version == version) {
+            // Nothing has changed since the last update
+            return;
+          }
+          lastValues.$object = object;
+          lastValues.$version = version;
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            dataLogger.log("version", (long) $version.get(object));
+            {
+              var value = object.trajectory;
+              if (value != null) {
+                dataLogger.log("trajectory", value);
+              }
+            }
+            dataLogger.log("logVersion", object.logVersion());
+          }
+        }
+
+        private void logOnce(DataLogger dataLogger, HelloWorld object) {
+          {
+            var value = object.name;
+            if (value != null) {
+              dataLogger.log("name", value);
+            }
+          }
+        }
+      }
+      """;
+
+    assertLoggerGenerates(source, expectedGeneratedSource);
+  }
+
+  @Test
+  void nestedVersionedObjects() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        Vision vision;
+        @Epilogue(once = true)
+        String name;
+      }
+
+      @Epilogue
+      class Vision implements Versioned {
+        double[] targets;
+
+        @Override
+        public long logVersion() { return 0; }
+      }
+    """;
+
+    String expectedGeneratedSource = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        /**
+         * The last values logged for a {@code HelloWorld}, used to skip logging data that hasn't
+         * changed.
+         */
+        static final class LastValues {
+          Object vision$object;
+          long vision$version;
+        }
+
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          var lastValues = getLastValues(dataLogger, LastValues::new);
+          boolean firstUpdate = isFirstUpdate(dataLogger);
+          if (firstUpdate) {
+            logOnce(dataLogger, object);
+          }
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.vision;
+              if (value != null) {
+                long value$version = value.logVersion();
+                if (firstUpdate || lastValues.vision$object != value || lastValues.vision$version != value$version) {
+                  if (Epiloguer.visionLogger().tryUpdateNested(dataLogger.getSubLogger("vision"), value, Epiloguer.getConfig().errorHandler)) {
+                    lastValues.vision$object = value;
+                    lastValues.vision$version = value$version;
+                  }
+                }
+              }
+            }
+          }
+        }
+
+        private void logOnce(DataLogger dataLogger, HelloWorld object) {
+          {
+            var value = object.name;
+            if (value != null) {
+              dataLogger.log("name", value);
+            }
+          }
+        }
+      }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).succeeded();
+    assertGeneratedSource(compilation, "dev.slfc.epilogue.HelloWorldLogger", expectedGeneratedSource);
+
+    // The last values and first update flag can be used from parallel updates too
+    Compilation parallel =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString(
+                "dev.slfc.epilogue.HelloWorld",
+                source.replace("@Epilogue\n  class HelloWorld", "@Epilogue(parallel = true)\n  class HelloWorld")));
+    assertThat(parallel).succeeded();
+    assertGeneratedSourceContains(parallel, "dev.slfc.epilogue.HelloWorldLogger", "parallelUpdates.add(() -> {");
+  }
+
+  @Test
+  void registeredAsIncrementalProcessor() throws IOException {
+    // Gradle reads this file to allow incremental compilation of projects using the processor
+    try (var registration = getClass().getResourceAsStream("/META-INF/gradle/incremental.annotation.processors")) {
+      assertNotNull(registration, "Processor is not registered as incremental");
+      assertEquals(
+          AnnotationProcessor.class.getName() + ",aggregating",
+          new String(registration.readAllBytes(), StandardCharsets.UTF_8).strip()
+      );
+    }
+  }
+
+  @Test
+  void generatedRecordStructs() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      import edu.wpi.first.util.struct.Struct;
+      import edu.wpi.first.util.struct.StructSerializable;
+      import java.util.List;
+
+      @Epilogue
+      class HelloWorld {
+        static class Rotation implements StructSerializable {
+          public static final Struct<Rotation> struct = null; // value doesn't matter
+        }
+
+        @Epilogue(struct = true)
+        record Point(double x, double y, boolean valid) {}
+
+        @Epilogue(struct = true)
+        record Pose(int id, Point point, Rotation rotation) {}
+
+        Pose pose;
+        Point[] points;
+        List<Point> pointList;
+      }
+      """;
+
+    String expectedLogger = """
+      package dev.slfc.epilogue;
+
+      import dev.slfc.epilogue.Epilogue;
+      import dev.slfc.epilogue.Epiloguer;
+      import dev.slfc.epilogue.logging.ClassSpecificLogger;
+      import dev.slfc.epilogue.logging.DataLogger;
+
+      public class HelloWorldLogger extends ClassSpecificLogger<HelloWorld> {
+        public HelloWorldLogger() {
+          super(HelloWorld.class);
+        }
+
+        @Override
+        public void update(DataLogger dataLogger, HelloWorld object) {
+          if (Epiloguer.shouldLog(Epilogue.Importance.DEBUG)) {
+            {
+              var value = object.pose;
+              if (value != null) {
+                dataLogger.log("pose", value, dev.slfc.epilogue.HelloWorldPoseStruct.INSTANCE);
+              }
+            }
+            {
+              var value = object.points;
+              if (value != null) {
+                dataLogger.log("points", value, dev.slfc.epilogue.HelloWorldPointStruct.INSTANCE);
+              }
+            }
+            {
+              var value = object.pointList;
+              if (value != null) {
+                dataLogger.log("pointList", value, dev.slfc.epilogue.HelloWorldPointStruct.INSTANCE);
+              }
+            }
+          }
+        }
+      }
+      """;
+
+    String expectedPointStruct = """
+      package dev.slfc.epilogue;
+
+      import edu.wpi.first.util.struct.Struct;
+      import java.nio.ByteBuffer;
+
+      public final class HelloWorldPointStruct implements Struct<dev.slfc.epilogue.HelloWorld.Point> {
+        public static final HelloWorldPointStruct INSTANCE = new HelloWorldPointStruct();
+
+        private HelloWorldPointStruct() {
+        }
+
+        @Override
+        public Class<dev.slfc.epilogue.HelloWorld.Point> getTypeClass() {
+          return dev.slfc.epilogue.HelloWorld.Point.class;
+        }
+
+        @Override
+        public String getTypeString() {
+          return "struct:dev_slfc_epilogue_HelloWorldPoint";
+        }
+
+        @Override
+        public int getSize() {
+          return kSizeDouble + kSizeDouble + kSizeBool;
+        }
+
+        @Override
+        public String getSchema() {
+          return "double x;double y;bool valid";
+        }
+
+        @Override
+        public dev.slfc.epilogue.HelloWorld.Point unpack(ByteBuffer bb) {
+          var x = bb.getDouble();
+          var y = bb.getDouble();
+          var valid = bb.get() != 0;
+          return new dev.slfc.epilogue.HelloWorld.Point(x, y, valid);
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, dev.slfc.epilogue.HelloWorld.Point value) {
+          bb.putDouble(value.x());
+          bb.putDouble(value.y());
+          bb.put(value.valid() ? (byte) 1 : (byte) 0);
+        }
+      }
+      """;
+
+    String expectedPoseStruct = """
+      package dev.slfc.epilogue;
+
+      import edu.wpi.first.util.struct.Struct;
+      import java.nio.ByteBuffer;
+
+      public final class HelloWorldPoseStruct implements Struct<dev.slfc.epilogue.HelloWorld.Pose> {
+        public static final HelloWorldPoseStruct INSTANCE = new HelloWorldPoseStruct();
+
+        private HelloWorldPoseStruct() {
+        }
+
+        @Override
+        public Class<dev.slfc.epilogue.HelloWorld.Pose> getTypeClass() {
+          return dev.slfc.epilogue.HelloWorld.Pose.class;
+        }
+
+        @Override
+        public String getTypeString() {
+          return "struct:dev_slfc_epilogue_HelloWorldPose";
+        }
+
+        @Override
+        public int getSize() {
+          return kSizeInt32 + dev.slfc.epilogue.HelloWorldPointStruct.INSTANCE.getSize() + dev.slfc.epilogue.HelloWorld.Rotation.struct.getSize();
+        }
+
+        @Override
+        public String getSchema() {
+          return "int32 id;dev_slfc_epilogue_HelloWorldPoint point;" + dev.slfc.epilogue.HelloWorld.Rotation.struct.getTypeString().substring("struct:".length()) + " rotation";
+        }
+
+        @Override
+        public Struct<?>[] getNested() {
+          return new Struct<?>[] {dev.slfc.epilogue.HelloWorldPointStruct.INSTANCE, dev.slfc.epilogue.HelloWorld.Rotation.struct};
+        }
+
+        @Override
+        public dev.slfc.epilogue.HelloWorld.Pose unpack(ByteBuffer bb) {
+          var id = bb.getInt();
+          var point = dev.slfc.epilogue.HelloWorldPointStruct.INSTANCE.unpack(bb);
+          var rotation = dev.slfc.epilogue.HelloWorld.Rotation.struct.unpack(bb);
+          return new dev.slfc.epilogue.HelloWorld.Pose(id, point, rotation);
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, dev.slfc.epilogue.HelloWorld.Pose value) {
+          bb.putInt(value.id());
+          dev.slfc.epilogue.HelloWorldPointStruct.INSTANCE.pack(bb, value.point());
+          dev.slfc.epilogue.HelloWorld.Rotation.struct.pack(bb, value.rotation());
+        }
+      }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).succeeded();
+    assertGeneratedSource(compilation, "dev.slfc.epilogue.HelloWorldLogger", expectedLogger);
+    assertGeneratedSource(compilation, "dev.slfc.epilogue.HelloWorldPointStruct", expectedPointStruct);
+    assertGeneratedSource(compilation, "dev.slfc.epilogue.HelloWorldPoseStruct", expectedPoseStruct);
+  }
+
+  @Test
+  void generatedStructsWithTheSameSimpleName() {
+    String arm = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class Arm {
+        @Epilogue(struct = true)
+        record Inputs(double angle) {}
+
+        Inputs inputs;
+      }
+      """;
+
+    String elevator = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class Elevator {
+        @Epilogue(struct = true)
+        record Inputs(double height) {}
+
+        @Epilogue(struct = true)
+        record State(Inputs inputs, boolean homed) {}
+
+        State state;
+      }
+      """;
+
+    String otherPackage = """
+      package dev.slfc.other;
+
+      import dev.slfc.epilogue.Epilogue;
+
+      @Epilogue(struct = true)
+      public record Config(int id) {}
+      """;
+
+    String samePackage = """
+      package dev.slfc.epilogue;
+
+      @Epilogue(struct = true)
+      record Config(double gain) {}
+      """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(
+                JavaFileObjects.forSourceString("dev.slfc.epilogue.Arm", arm),
+                JavaFileObjects.forSourceString("dev.slfc.epilogue.Elevator", elevator),
+                JavaFileObjects.forSourceString("dev.slfc.other.Config", otherPackage),
+                JavaFileObjects.forSourceString("dev.slfc.epilogue.Config", samePackage)
+            );
+
+    assertThat(compilation).succeeded();
+
+    // Struct type names are global to a log, so records with the same simple name get different
+    // types, and nested structs refer to the right one
+    assertGeneratedSourceContains(compilation, "dev.slfc.epilogue.ArmInputsStruct", "return \"struct:dev_slfc_epilogue_ArmInputs\";");
+    assertGeneratedSourceContains(compilation, "dev.slfc.epilogue.ElevatorInputsStruct", "return \"struct:dev_slfc_epilogue_ElevatorInputs\";");
+    assertGeneratedSourceContains(compilation, "dev.slfc.epilogue.ElevatorStateStruct", "return \"dev_slfc_epilogue_ElevatorInputs inputs;bool homed\";");
+    assertGeneratedSourceContains(compilation, "dev.slfc.other.ConfigStruct", "return \"struct:dev_slfc_other_Config\";");
+    assertGeneratedSourceContains(compilation, "dev.slfc.epilogue.ConfigStruct", "return \"struct:dev_slfc_epilogue_Config\";");
+  }
+
+  @Test
+  void generatedStructsRequirePrimitiveOrStructComponents() {
+    String source = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        @Epilogue(struct = true)
+        record Named(String name, double value) {}
+
+        @Epilogue(struct = true)
+        static class NotARecord {}
+      }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorCount(2);
+
+    var errors = compilation.errors();
+    assertCompilationError(
+        "[EPILOGUE] Cannot generate a struct for this record, because component name is a java.lang.String, which is not a primitive or struct-serializable type",
+        6, 3, errors.get(0)
+    );
+    assertCompilationError("[EPILOGUE] Structs can only be generated for records", 9, 10, errors.get(1));
+  }
+
+  @Test
+  void splitsHugeUpdateMethods() throws IOException {
+    var source = new StringBuilder("""
+        package dev.slfc.epilogue;
+
+        @Epilogue
+        class HelloWorld {
+        """);
+    for (int i = 0; i < 1000; i++) {
+      source.append(switch (i % 4) {
+        case 0 -> "  double field" + i + ";\n";
+        case 1 -> "  private int field" + i + ";\n";
+        case 2 -> "  String field" + i + ";\n";
+        default -> "  @Epilogue(importance = Epilogue.Importance.CRITICAL) long field" + i + ";\n";
+      });
+    }
+    source.append("}\n");
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source.toString()));
+
+    assertThat(compilation).succeeded();
+    var generated =
+        compilation.generatedSourceFile("dev.slfc.epilogue.HelloWorldLogger").orElseThrow().getCharContent(false).toString();
+    assertTrue(generated.contains("      updateDebug0(dataLogger, object);"));
+    assertTrue(generated.contains("      updateCritical0(dataLogger, object);"));
+
+    // Every element is still logged, exactly once
+    for (int i = 0; i < 1000; i++) {
+      var logCall = "dataLogger.log(\"field" + i + "\", ";
+      assertTrue(generated.contains(logCall), "field" + i + " is not logged");
+      assertEquals(generated.indexOf(logCall), generated.lastIndexOf(logCall), "field" + i + " is logged more than once");
+    }
+
+    var codeSizes = methodCodeSizes(compilation, "dev.slfc.epilogue.HelloWorldLogger");
+    assertTrue(codeSizes.keySet().stream().filter(m -> m.startsWith("update")).count() > 2, codeSizes.toString());
+    codeSizes.forEach((method, size) -> {
+      assertTrue(size < LoggerGenerator.HUGE_METHOD_LIMIT, method + " is too large to compile: " + size + " bytes");
+      if (method.matches("update(Debug|Info|Critical)\\d+")) {
+        assertTrue(size <= LoggerGenerator.INLINE_LIMIT, method + " is too large to inline: " + size + " bytes");
+      }
+    });
+  }
+
+  @Test
+  void profile() {
+    String source = """
+        package dev.slfc.epilogue;
+
+        @Epilogue
+        class HelloWorld {
+          double x;
+          double y;
+          double z;
+        }
+        """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .withOptions("-Aepilogue.profile")
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).succeeded();
+    var notes =
+        compilation.notes().stream()
+            .map(note -> note.getMessage(Locale.getDefault()))
+            .filter(message -> message.startsWith("[EPILOGUE] Processing took"))
+            .toList();
+    assertEquals(1, notes.size(), notes.toString());
+    assertTrue(notes.getFirst().contains("validation"), notes.getFirst());
+    assertTrue(notes.getFirst().contains("logger generation"), notes.getFirst());
+    assertTrue(notes.getFirst().contains("Epiloguer generation"), notes.getFirst());
+
+    // All three fields share the same type, which only needs to be resolved once
+    assertTrue(notes.getFirst().contains("Resolved handlers for 1 types"), notes.getFirst());
+  }
+
+  @Test
+  void warnsAboutNonLoggableFields() {
+    String source = """
+        package dev.slfc.epilogue;
+        
+        @Epilogue
+        class HelloWorld {
+          Throwable t;
+        }
+        """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", source));
+
+    assertThat(compilation).succeeded();
+    assertEquals(1, compilation.warnings().size());
+    var warning = compilation.warnings().getFirst();
+    var message = warning.getMessage(Locale.getDefault());
+    assertEquals("[EPILOGUE] Excluded from logs because java.lang.Throwable is not a loggable data type", message);
+  }
+
+  /**
+   * Gets the size of the bytecode of every method in a compiled class, by method name. Static
+   * initializers are named {@code <clinit>}, and overloads (including bridge methods) are reported
+   * by the size of the largest one.
+   */
+  private Map<String, Integer> methodCodeSizes(Compilation compilation, String className) throws IOException {
+    var classFile =
+        compilation.generatedFiles().stream()
+            .filter(f -> f.getKind() == JavaFileObject.Kind.CLASS)
+            .filter(f -> f.toUri().getPath().endsWith("/" + className.replace('.', '/') + ".class"))
+            .findFirst()
+            .orElseThrow();
+
+    var path = Files.createTempFile(StringUtils.simpleName(className), ".class");
+    try {
+      try (var in = classFile.openInputStream()) {
+        Files.write(path, in.readAllBytes());
+      }
+
+      var javap = ToolProvider.findFirst("javap").orElseThrow();
+      var output = new StringWriter();
+      javap.run(new PrintWriter(output), new PrintWriter(System.err), "-c", "-p", path.toString());
+
+      // Methods are listed by signature, followed by their instructions and offsets:
+      //   private void updateDebug0(dev.slfc.epilogue.logging.DataLogger, dev.slfc.epilogue.HelloWorld);
+      //     Code:
+      //        0: aload_1
+      //        ...
+      //      123: return
+      // Static initializers are listed as "static {};". Every method ends with a one-byte return
+      // or throw instruction
+      var methodPattern = Pattern.compile("^  \\S.*;$");
+      var namePattern = Pattern.compile("(\\w+)\\(");
+      var instructionPattern = Pattern.compile("^\\s+(\\d+): \\w+");
+      Map<String, Integer> sizes = new LinkedHashMap<>();
+      String method = null;
+      for (var line : output.toString().lines().toList()) {
+        var methodMatch = methodPattern.matcher(line);
+        var instructionMatch = instructionPattern.matcher(line);
+        if (methodMatch.matches()) {
+          var nameMatch = namePattern.matcher(line);
+          method = nameMatch.find() ? nameMatch.group(1) : "<clinit>";
+        } else if (method != null && instructionMatch.find()) {
+          sizes.merge(method, Integer.parseInt(instructionMatch.group(1)) + 1, Math::max);
+        }
+      }
+      return sizes;
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  private void assertCompilationError(String message, long lineNumber, long col, Diagnostic<? extends JavaFileObject> diagnostic) {
+    assertAll(
+        () -> assertEquals(Diagnostic.Kind.ERROR, diagnostic.getKind(), "not an error"),
+        () -> assertEquals(message, diagnostic.getMessage(Locale.getDefault()), "error message mismatch"),
+        () -> assertEquals(lineNumber, diagnostic.getLineNumber(), "line number mismatch"),
+        () -> assertEquals(col, diagnostic.getColumnNumber(), "column number mismatch")
+    );
+  }
+
+  private void assertGeneratedSource(Compilation compilation, String className, String expectedContent) {
+    var generatedFile = compilation.generatedSourceFile(className);
+    assertTrue(generatedFile.isPresent(), className + " was not generated");
+    try {
+      assertEquals(expectedContent, generatedFile.get().getCharContent(false));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void assertGeneratedSourceContains(Compilation compilation, String className, String expectedContent) {
+    var generatedFile = compilation.generatedSourceFile(className);
+    assertTrue(generatedFile.isPresent(), className + " was not generated");
+    try {
+      var content = generatedFile.get().getCharContent(false).toString();
+      assertTrue(content.contains(expectedContent), content);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   private void assertLoggerGenerates(String loggedClassContent, String loggerClassContent) {
@@ -1091,10 +3125,9 @@ class AnnotationProcessorTest {
 
     assertThat(compilation).succeeded();
     var generatedFiles = compilation.generatedSourceFiles();
-    assertEquals(2, generatedFiles.size());
-    // first is Epiloguer
-    // second is the class-specific logger
-    var generatedFile = generatedFiles.getLast();
+    // Epiloguer, EpilogueManifest, and the class-specific logger
+    assertEquals(3, generatedFiles.size());
+    var generatedFile = compilation.generatedSourceFile("dev.slfc.epilogue.HelloWorldLogger").orElseThrow();
     try {
       var content = generatedFile.getCharContent(false);
       assertEquals(loggerClassContent, content);
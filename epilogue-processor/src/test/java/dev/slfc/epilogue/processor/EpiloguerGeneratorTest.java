@@ -3,11 +3,16 @@ package dev.slfc.epilogue.processor;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
+import dev.slfc.epilogue.logging.ClassSpecificLogger;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import org.junit.jupiter.api.Test;
 
 class EpiloguerGeneratorTest {
@@ -28,8 +33,89 @@ class EpiloguerGeneratorTest {
 
         public final class Epiloguer {
           private static final EpilogueConfiguration config = new EpilogueConfiguration();
+          private static long cycle = 0;
 
-          public static final HelloWorldLogger helloWorldLogger = new HelloWorldLogger();
+          private static final class HelloWorldLoggerHolder {
+            static final HelloWorldLogger instance = new HelloWorldLogger();
+          }
+
+          public static HelloWorldLogger helloWorldLogger() {
+            return HelloWorldLoggerHolder.instance;
+          }
+
+          private static final ClassValue<dev.slfc.epilogue.logging.ClassSpecificLogger<?>> loggersByType = new ClassValue<>() {
+            @Override
+            protected dev.slfc.epilogue.logging.ClassSpecificLogger<?> computeValue(Class<?> type) {
+              return findLogger(type);
+            }
+          };
+
+          /**
+           * Gets the logger for objects of a class. Classes without a logger of their own use the
+           * logger of their closest logged superclass, or of a logged interface they implement.
+           * Lookups are cached per class.
+           *
+           * @param type the class of the objects to log
+           * @return the logger, or null if no logger can log the class
+           */
+          @SuppressWarnings("unchecked")
+          public static <T> dev.slfc.epilogue.logging.ClassSpecificLogger<? super T> loggerFor(Class<T> type) {
+            return (dev.slfc.epilogue.logging.ClassSpecificLogger<? super T>) loggersByType.get(type);
+          }
+
+          /**
+           * Updates an object in a data log with the logger for its runtime type. Used to log fields
+           * and methods declared as a superclass or interface of a logged class. Objects without a
+           * logger are ignored.
+           */
+          @SuppressWarnings({"unchecked", "rawtypes"})
+          public static void tryUpdateByRuntimeType(dev.slfc.epilogue.logging.DataLogger dataLogger, Object object) {
+            dev.slfc.epilogue.logging.ClassSpecificLogger logger = loggersByType.get(object.getClass());
+            if (logger != null) {
+              logger.tryUpdateNested(dataLogger, object, config.errorHandler);
+            }
+          }
+
+          private static dev.slfc.epilogue.logging.ClassSpecificLogger<?> findLogger(Class<?> type) {
+            // Loggers are cast through Object so the bytecode verifier doesn't load every logger
+            // class to check its type when Epiloguer is loaded
+            dev.slfc.epilogue.logging.ClassSpecificLogger<?> logger = switch (type.getName()) {
+              case "dev.slfc.epilogue.HelloWorld" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) helloWorldLogger();
+              default -> null;
+            };
+            if (logger == null && type.getSuperclass() != null) {
+              logger = loggersByType.get(type.getSuperclass());
+            }
+            for (Class<?> iface : type.getInterfaces()) {
+              if (logger != null) {
+                break;
+              }
+              logger = loggersByType.get(iface);
+            }
+            return logger;
+          }
+
+          /**
+           * Creates every logger that hasn't been used yet. Loggers are otherwise created the first
+           * time they're used, which can make the first logging update slow.
+           */
+          public static void prewarm() {
+            helloWorldLogger();
+          }
+
+          /**
+           * Creates every logger on a background daemon thread, so they're ready by the time the
+           * first logging update runs without slowing down robot startup. Loggers that are used
+           * before the background thread gets to them are created by the thread that uses them.
+           *
+           * @return the started thread
+           */
+          public static Thread prewarmInBackground() {
+            var thread = new Thread(Epiloguer::prewarm, "Epilogue prewarm");
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+          }
 
           public static void configure(java.util.function.Consumer<EpilogueConfiguration> configurator) {
             configurator.accept(config);
@@ -45,6 +131,23 @@ class EpiloguerGeneratorTest {
           public static boolean shouldLog(Epilogue.Importance importance) {
             return importance.compareTo(config.minimumImportance) >= 0;
           }
+
+          /**
+           * Gets the current logging cycle. Elements configured to be logged every N cycles are only
+           * logged on cycles that are a multiple of N.
+           */
+          public static long getCycle() {
+            return cycle;
+          }
+
+          /**
+           * Advances to the next logging cycle. This is called automatically after every update when
+           * using {@code bind()}; programs that update loggers manually should call this once after
+           * each update.
+           */
+          public static void advanceCycle() {
+            cycle++;
+          }
         }
         """;
 
@@ -68,8 +171,91 @@ class EpiloguerGeneratorTest {
 
         public final class Epiloguer {
           private static final EpilogueConfiguration config = new EpilogueConfiguration();
+          private static long cycle = 0;
+          private static Class<?> boundRobotClass = null;
+          private static dev.slfc.epilogue.logging.DataLogger preregistered = null;
+
+          private static final class HelloWorldLoggerHolder {
+            static final HelloWorldLogger instance = new HelloWorldLogger();
+          }
+
+          public static HelloWorldLogger helloWorldLogger() {
+            return HelloWorldLoggerHolder.instance;
+          }
+
+          private static final ClassValue<dev.slfc.epilogue.logging.ClassSpecificLogger<?>> loggersByType = new ClassValue<>() {
+            @Override
+            protected dev.slfc.epilogue.logging.ClassSpecificLogger<?> computeValue(Class<?> type) {
+              return findLogger(type);
+            }
+          };
+
+          /**
+           * Gets the logger for objects of a class. Classes without a logger of their own use the
+           * logger of their closest logged superclass, or of a logged interface they implement.
+           * Lookups are cached per class.
+           *
+           * @param type the class of the objects to log
+           * @return the logger, or null if no logger can log the class
+           */
+          @SuppressWarnings("unchecked")
+          public static <T> dev.slfc.epilogue.logging.ClassSpecificLogger<? super T> loggerFor(Class<T> type) {
+            return (dev.slfc.epilogue.logging.ClassSpecificLogger<? super T>) loggersByType.get(type);
+          }
 
-          public static final HelloWorldLogger helloWorldLogger = new HelloWorldLogger();
+          /**
+           * Updates an object in a data log with the logger for its runtime type. Used to log fields
+           * and methods declared as a superclass or interface of a logged class. Objects without a
+           * logger are ignored.
+           */
+          @SuppressWarnings({"unchecked", "rawtypes"})
+          public static void tryUpdateByRuntimeType(dev.slfc.epilogue.logging.DataLogger dataLogger, Object object) {
+            dev.slfc.epilogue.logging.ClassSpecificLogger logger = loggersByType.get(object.getClass());
+            if (logger != null) {
+              logger.tryUpdateNested(dataLogger, object, config.errorHandler);
+            }
+          }
+
+          private static dev.slfc.epilogue.logging.ClassSpecificLogger<?> findLogger(Class<?> type) {
+            // Loggers are cast through Object so the bytecode verifier doesn't load every logger
+            // class to check its type when Epiloguer is loaded
+            dev.slfc.epilogue.logging.ClassSpecificLogger<?> logger = switch (type.getName()) {
+              case "dev.slfc.epilogue.HelloWorld" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) helloWorldLogger();
+              default -> null;
+            };
+            if (logger == null && type.getSuperclass() != null) {
+              logger = loggersByType.get(type.getSuperclass());
+            }
+            for (Class<?> iface : type.getInterfaces()) {
+              if (logger != null) {
+                break;
+              }
+              logger = loggersByType.get(iface);
+            }
+            return logger;
+          }
+
+          /**
+           * Creates every logger that hasn't been used yet. Loggers are otherwise created the first
+           * time they're used, which can make the first logging update slow.
+           */
+          public static void prewarm() {
+            helloWorldLogger();
+          }
+
+          /**
+           * Creates every logger on a background daemon thread, so they're ready by the time the
+           * first logging update runs without slowing down robot startup. Loggers that are used
+           * before the background thread gets to them are created by the thread that uses them.
+           *
+           * @return the started thread
+           */
+          public static Thread prewarmInBackground() {
+            var thread = new Thread(Epiloguer::prewarm, "Epilogue prewarm");
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+          }
 
           public static void configure(java.util.function.Consumer<EpilogueConfiguration> configurator) {
             configurator.accept(config);
@@ -86,6 +272,41 @@ class EpiloguerGeneratorTest {
             return importance.compareTo(config.minimumImportance) >= 0;
           }
 
+          /**
+           * Gets the current logging cycle. Elements configured to be logged every N cycles are only
+           * logged on cycles that are a multiple of N.
+           */
+          public static long getCycle() {
+            return cycle;
+          }
+
+          /**
+           * Advances to the next logging cycle. This is called automatically after every update when
+           * using {@code bind()}; programs that update loggers manually should call this once after
+           * each update.
+           */
+          public static void advanceCycle() {
+            cycle++;
+          }
+
+          /**
+           * Creates every entry listed in the {@link EpilogueManifest} for the bound robot in the
+           * configured data logger, so the first update doesn't have to create them. {@code bind()}
+           * calls this automatically, and the next update calls it again if the data logger has
+           * been changed since. Programs that configure the data logger or minimum importance level
+           * after binding should call this from {@code robotInit()} once they're done, so the
+           * entries aren't created during the first update. Does nothing if no robot is bound.
+           */
+          public static void preregister() {
+            if (boundRobotClass == null) {
+              return;
+            }
+
+            var dataLogger = config.dataLogger.getSubLogger(config.root);
+            dataLogger.preregister(EpilogueManifest.entriesFor(boundRobotClass, config.minimumImportance));
+            preregistered = dataLogger;
+          }
+
           /**
            * Binds Epilogue updates to a timed robot's update period. Log calls will be made at the
            * same update rate as the robot's loop function, but will be offset by a full phase
@@ -93,12 +314,31 @@ class EpiloguerGeneratorTest {
            * help avoid high CPU loads. However, this does mean that any logged data that reads
            * directly from sensors will be slightly different from data used in the main robot
            * loop.
+           *
+           * <p>Loggers are prewarmed in the background, so they're ready before the first update.
+           * Every entry listed in the {@link EpilogueManifest} for the robot is created up front
+           * too; see {@link #preregister()}.
            */
           public static void bind(dev.slfc.epilogue.HelloWorld robot) {
+            prewarmInBackground();
+            boundRobotClass = dev.slfc.epilogue.HelloWorld.class;
+            preregister();
+            var stats = new dev.slfc.epilogue.logging.NTDataLogger(edu.wpi.first.networktables.NetworkTableInstance.getDefault()).getSubLogger("Epilogue/Stats");
             robot.addPeriodic(() -> {
               long start = System.nanoTime();
-              helloWorldLogger.tryUpdate(config.dataLogger.getSubLogger(config.root), robot, config.errorHandler);
-              edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry("Epilogue/Stats/Last Run").setDouble((System.nanoTime() - start) / 1e6);
+              var dataLogger = config.dataLogger.getSubLogger(config.root);
+              if (dataLogger != preregistered) {
+                // The data logger was changed after binding
+                preregister();
+              }
+              helloWorldLogger().tryUpdate(dataLogger, robot, config.errorHandler);
+              config.errorHandler.periodic(stats);
+              advanceCycle();
+              long elapsed = System.nanoTime() - start;
+              edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry("Epilogue/Stats/Last Run").setDouble(elapsed / 1e6);
+              if (config.adaptiveImportance != null) {
+                config.adaptiveImportance.update(config, elapsed);
+              }
             }, robot.getPeriod(), robot.getPeriod() / 2);
           }
         }
@@ -127,9 +367,101 @@ class EpiloguerGeneratorTest {
 
         public final class Epiloguer {
           private static final EpilogueConfiguration config = new EpilogueConfiguration();
+          private static long cycle = 0;
+          private static Class<?> boundRobotClass = null;
+          private static dev.slfc.epilogue.logging.DataLogger preregistered = null;
 
-          public static final AlphaBotLogger alphaBotLogger = new AlphaBotLogger();
-          public static final BetaBotLogger betaBotLogger = new BetaBotLogger();
+          private static final class AlphaBotLoggerHolder {
+            static final AlphaBotLogger instance = new AlphaBotLogger();
+          }
+
+          public static AlphaBotLogger alphaBotLogger() {
+            return AlphaBotLoggerHolder.instance;
+          }
+
+          private static final class BetaBotLoggerHolder {
+            static final BetaBotLogger instance = new BetaBotLogger();
+          }
+
+          public static BetaBotLogger betaBotLogger() {
+            return BetaBotLoggerHolder.instance;
+          }
+
+          private static final ClassValue<dev.slfc.epilogue.logging.ClassSpecificLogger<?>> loggersByType = new ClassValue<>() {
+            @Override
+            protected dev.slfc.epilogue.logging.ClassSpecificLogger<?> computeValue(Class<?> type) {
+              return findLogger(type);
+            }
+          };
+
+          /**
+           * Gets the logger for objects of a class. Classes without a logger of their own use the
+           * logger of their closest logged superclass, or of a logged interface they implement.
+           * Lookups are cached per class.
+           *
+           * @param type the class of the objects to log
+           * @return the logger, or null if no logger can log the class
+           */
+          @SuppressWarnings("unchecked")
+          public static <T> dev.slfc.epilogue.logging.ClassSpecificLogger<? super T> loggerFor(Class<T> type) {
+            return (dev.slfc.epilogue.logging.ClassSpecificLogger<? super T>) loggersByType.get(type);
+          }
+
+          /**
+           * Updates an object in a data log with the logger for its runtime type. Used to log fields
+           * and methods declared as a superclass or interface of a logged class. Objects without a
+           * logger are ignored.
+           */
+          @SuppressWarnings({"unchecked", "rawtypes"})
+          public static void tryUpdateByRuntimeType(dev.slfc.epilogue.logging.DataLogger dataLogger, Object object) {
+            dev.slfc.epilogue.logging.ClassSpecificLogger logger = loggersByType.get(object.getClass());
+            if (logger != null) {
+              logger.tryUpdateNested(dataLogger, object, config.errorHandler);
+            }
+          }
+
+          private static dev.slfc.epilogue.logging.ClassSpecificLogger<?> findLogger(Class<?> type) {
+            // Loggers are cast through Object so the bytecode verifier doesn't load every logger
+            // class to check its type when Epiloguer is loaded
+            dev.slfc.epilogue.logging.ClassSpecificLogger<?> logger = switch (type.getName()) {
+              case "dev.slfc.epilogue.AlphaBot" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) alphaBotLogger();
+              case "dev.slfc.epilogue.BetaBot" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) betaBotLogger();
+              default -> null;
+            };
+            if (logger == null && type.getSuperclass() != null) {
+              logger = loggersByType.get(type.getSuperclass());
+            }
+            for (Class<?> iface : type.getInterfaces()) {
+              if (logger != null) {
+                break;
+              }
+              logger = loggersByType.get(iface);
+            }
+            return logger;
+          }
+
+          /**
+           * Creates every logger that hasn't been used yet. Loggers are otherwise created the first
+           * time they're used, which can make the first logging update slow.
+           */
+          public static void prewarm() {
+            alphaBotLogger();
+            betaBotLogger();
+          }
+
+          /**
+           * Creates every logger on a background daemon thread, so they're ready by the time the
+           * first logging update runs without slowing down robot startup. Loggers that are used
+           * before the background thread gets to them are created by the thread that uses them.
+           *
+           * @return the started thread
+           */
+          public static Thread prewarmInBackground() {
+            var thread = new Thread(Epiloguer::prewarm, "Epilogue prewarm");
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+          }
 
           public static void configure(java.util.function.Consumer<EpilogueConfiguration> configurator) {
             configurator.accept(config);
@@ -146,6 +478,41 @@ class EpiloguerGeneratorTest {
             return importance.compareTo(config.minimumImportance) >= 0;
           }
 
+          /**
+           * Gets the current logging cycle. Elements configured to be logged every N cycles are only
+           * logged on cycles that are a multiple of N.
+           */
+          public static long getCycle() {
+            return cycle;
+          }
+
+          /**
+           * Advances to the next logging cycle. This is called automatically after every update when
+           * using {@code bind()}; programs that update loggers manually should call this once after
+           * each update.
+           */
+          public static void advanceCycle() {
+            cycle++;
+          }
+
+          /**
+           * Creates every entry listed in the {@link EpilogueManifest} for the bound robot in the
+           * configured data logger, so the first update doesn't have to create them. {@code bind()}
+           * calls this automatically, and the next update calls it again if the data logger has
+           * been changed since. Programs that configure the data logger or minimum importance level
+           * after binding should call this from {@code robotInit()} once they're done, so the
+           * entries aren't created during the first update. Does nothing if no robot is bound.
+           */
+          public static void preregister() {
+            if (boundRobotClass == null) {
+              return;
+            }
+
+            var dataLogger = config.dataLogger.getSubLogger(config.root);
+            dataLogger.preregister(EpilogueManifest.entriesFor(boundRobotClass, config.minimumImportance));
+            preregistered = dataLogger;
+          }
+
           /**
            * Binds Epilogue updates to a timed robot's update period. Log calls will be made at the
            * same update rate as the robot's loop function, but will be offset by a full phase
@@ -153,12 +520,31 @@ class EpiloguerGeneratorTest {
            * help avoid high CPU loads. However, this does mean that any logged data that reads
            * directly from sensors will be slightly different from data used in the main robot
            * loop.
+           *
+           * <p>Loggers are prewarmed in the background, so they're ready before the first update.
+           * Every entry listed in the {@link EpilogueManifest} for the robot is created up front
+           * too; see {@link #preregister()}.
            */
           public static void bind(dev.slfc.epilogue.AlphaBot robot) {
+            prewarmInBackground();
+            boundRobotClass = dev.slfc.epilogue.AlphaBot.class;
+            preregister();
+            var stats = new dev.slfc.epilogue.logging.NTDataLogger(edu.wpi.first.networktables.NetworkTableInstance.getDefault()).getSubLogger("Epilogue/Stats");
             robot.addPeriodic(() -> {
               long start = System.nanoTime();
-              alphaBotLogger.tryUpdate(config.dataLogger.getSubLogger(config.root), robot, config.errorHandler);
-              edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry("Epilogue/Stats/Last Run").setDouble((System.nanoTime() - start) / 1e6);
+              var dataLogger = config.dataLogger.getSubLogger(config.root);
+              if (dataLogger != preregistered) {
+                // The data logger was changed after binding
+                preregister();
+              }
+              alphaBotLogger().tryUpdate(dataLogger, robot, config.errorHandler);
+              config.errorHandler.periodic(stats);
+              advanceCycle();
+              long elapsed = System.nanoTime() - start;
+              edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry("Epilogue/Stats/Last Run").setDouble(elapsed / 1e6);
+              if (config.adaptiveImportance != null) {
+                config.adaptiveImportance.update(config, elapsed);
+              }
             }, robot.getPeriod(), robot.getPeriod() / 2);
           }
 
@@ -169,12 +555,31 @@ class EpiloguerGeneratorTest {
            * help avoid high CPU loads. However, this does mean that any logged data that reads
            * directly from sensors will be slightly different from data used in the main robot
            * loop.
+           *
+           * <p>Loggers are prewarmed in the background, so they're ready before the first update.
+           * Every entry listed in the {@link EpilogueManifest} for the robot is created up front
+           * too; see {@link #preregister()}.
            */
           public static void bind(dev.slfc.epilogue.BetaBot robot) {
+            prewarmInBackground();
+            boundRobotClass = dev.slfc.epilogue.BetaBot.class;
+            preregister();
+            var stats = new dev.slfc.epilogue.logging.NTDataLogger(edu.wpi.first.networktables.NetworkTableInstance.getDefault()).getSubLogger("Epilogue/Stats");
             robot.addPeriodic(() -> {
               long start = System.nanoTime();
-              betaBotLogger.tryUpdate(config.dataLogger.getSubLogger(config.root), robot, config.errorHandler);
-              edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry("Epilogue/Stats/Last Run").setDouble((System.nanoTime() - start) / 1e6);
+              var dataLogger = config.dataLogger.getSubLogger(config.root);
+              if (dataLogger != preregistered) {
+                // The data logger was changed after binding
+                preregister();
+              }
+              betaBotLogger().tryUpdate(dataLogger, robot, config.errorHandler);
+              config.errorHandler.periodic(stats);
+              advanceCycle();
+              long elapsed = System.nanoTime() - start;
+              edu.wpi.first.networktables.NetworkTableInstance.getDefault().getEntry("Epilogue/Stats/Last Run").setDouble(elapsed / 1e6);
+              if (config.adaptiveImportance != null) {
+                config.adaptiveImportance.update(config, elapsed);
+              }
             }, robot.getPeriod(), robot.getPeriod() / 2);
           }
         }
@@ -218,9 +623,101 @@ class EpiloguerGeneratorTest {
 
         public final class Epiloguer {
           private static final EpilogueConfiguration config = new EpilogueConfiguration();
+          private static long cycle = 0;
+
+          private static final class HelloWorldLoggerHolder {
+            static final HelloWorldLogger instance = new HelloWorldLogger();
+          }
 
-          public static final HelloWorldLogger helloWorldLogger = new HelloWorldLogger();
-          public static final CustomLogger customLogger = new CustomLogger();
+          public static HelloWorldLogger helloWorldLogger() {
+            return HelloWorldLoggerHolder.instance;
+          }
+
+          private static final class CustomLoggerHolder {
+            static final CustomLogger instance = new CustomLogger();
+          }
+
+          public static CustomLogger customLogger() {
+            return CustomLoggerHolder.instance;
+          }
+
+          private static final ClassValue<dev.slfc.epilogue.logging.ClassSpecificLogger<?>> loggersByType = new ClassValue<>() {
+            @Override
+            protected dev.slfc.epilogue.logging.ClassSpecificLogger<?> computeValue(Class<?> type) {
+              return findLogger(type);
+            }
+          };
+
+          /**
+           * Gets the logger for objects of a class. Classes without a logger of their own use the
+           * logger of their closest logged superclass, or of a logged interface they implement.
+           * Lookups are cached per class.
+           *
+           * @param type the class of the objects to log
+           * @return the logger, or null if no logger can log the class
+           */
+          @SuppressWarnings("unchecked")
+          public static <T> dev.slfc.epilogue.logging.ClassSpecificLogger<? super T> loggerFor(Class<T> type) {
+            return (dev.slfc.epilogue.logging.ClassSpecificLogger<? super T>) loggersByType.get(type);
+          }
+
+          /**
+           * Updates an object in a data log with the logger for its runtime type. Used to log fields
+           * and methods declared as a superclass or interface of a logged class. Objects without a
+           * logger are ignored.
+           */
+          @SuppressWarnings({"unchecked", "rawtypes"})
+          public static void tryUpdateByRuntimeType(dev.slfc.epilogue.logging.DataLogger dataLogger, Object object) {
+            dev.slfc.epilogue.logging.ClassSpecificLogger logger = loggersByType.get(object.getClass());
+            if (logger != null) {
+              logger.tryUpdateNested(dataLogger, object, config.errorHandler);
+            }
+          }
+
+          private static dev.slfc.epilogue.logging.ClassSpecificLogger<?> findLogger(Class<?> type) {
+            // Loggers are cast through Object so the bytecode verifier doesn't load every logger
+            // class to check its type when Epiloguer is loaded
+            dev.slfc.epilogue.logging.ClassSpecificLogger<?> logger = switch (type.getName()) {
+              case "dev.slfc.epilogue.A" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) customLogger();
+              case "dev.slfc.epilogue.B" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) customLogger();
+              case "dev.slfc.epilogue.C" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) customLogger();
+              case "dev.slfc.epilogue.HelloWorld" -> (dev.slfc.epilogue.logging.ClassSpecificLogger<?>) (Object) helloWorldLogger();
+              default -> null;
+            };
+            if (logger == null && type.getSuperclass() != null) {
+              logger = loggersByType.get(type.getSuperclass());
+            }
+            for (Class<?> iface : type.getInterfaces()) {
+              if (logger != null) {
+                break;
+              }
+              logger = loggersByType.get(iface);
+            }
+            return logger;
+          }
+
+          /**
+           * Creates every logger that hasn't been used yet. Loggers are otherwise created the first
+           * time they're used, which can make the first logging update slow.
+           */
+          public static void prewarm() {
+            helloWorldLogger();
+            customLogger();
+          }
+
+          /**
+           * Creates every logger on a background daemon thread, so they're ready by the time the
+           * first logging update runs without slowing down robot startup. Loggers that are used
+           * before the background thread gets to them are created by the thread that uses them.
+           *
+           * @return the started thread
+           */
+          public static Thread prewarmInBackground() {
+            var thread = new Thread(Epiloguer::prewarm, "Epilogue prewarm");
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+          }
 
           public static void configure(java.util.function.Consumer<EpilogueConfiguration> configurator) {
             configurator.accept(config);
@@ -236,12 +733,66 @@ class EpiloguerGeneratorTest {
           public static boolean shouldLog(Epilogue.Importance importance) {
             return importance.compareTo(config.minimumImportance) >= 0;
           }
+
+          /**
+           * Gets the current logging cycle. Elements configured to be logged every N cycles are only
+           * logged on cycles that are a multiple of N.
+           */
+          public static long getCycle() {
+            return cycle;
+          }
+
+          /**
+           * Advances to the next logging cycle. This is called automatically after every update when
+           * using {@code bind()}; programs that update loggers manually should call this once after
+           * each update.
+           */
+          public static void advanceCycle() {
+            cycle++;
+          }
         }
         """;
 
     assertLoggerGenerates(source, expected);
   }
 
+  @Test
+  void loggerForRuntimeType() throws Throwable {
+    String source = """
+        package dev.slfc.epilogue;
+
+        @Epilogue
+        public class Arm {
+          double angle;
+        }
+
+        class TelescopingArm extends Arm {
+          double extension;
+        }
+        """;
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.Arm", source));
+    assertThat(compilation).succeeded();
+
+    var loader = new LoggerStartupTest.CompiledClassLoader(compilation);
+    var loggerFor = MethodHandles.publicLookup().findStatic(
+        loader.loadClass("dev.slfc.epilogue.Epiloguer"),
+        "loggerFor",
+        MethodType.methodType(ClassSpecificLogger.class, Class.class)
+    );
+
+    var armLogger = (ClassSpecificLogger<?>) loggerFor.invoke(loader.loadClass("dev.slfc.epilogue.Arm"));
+    assertEquals("dev.slfc.epilogue.ArmLogger", armLogger.getClass().getName());
+
+    // Unannotated subclasses are logged with the logger for the closest logged superclass
+    assertSame(armLogger, loggerFor.invoke(loader.loadClass("dev.slfc.epilogue.TelescopingArm")));
+
+    assertNull(loggerFor.invoke(String.class));
+  }
+
   private void assertLoggerGenerates(String loggedClassContent, String loggerClassContent) {
     Compilation compilation =
         javac()
@@ -251,9 +802,7 @@ class EpiloguerGeneratorTest {
     assertThat(compilation).succeededWithoutWarnings();
     var generatedFiles = compilation.generatedSourceFiles();
     assertTrue(generatedFiles.size() > 1);
-    // first is Epiloguer
-    // everything after are class-specific loggers
-    var generatedFile = generatedFiles.getFirst();
+    var generatedFile = compilation.generatedSourceFile("dev.slfc.epilogue.Epiloguer").orElseThrow();
     try {
       var content = generatedFile.getCharContent(false);
       assertEquals(loggerClassContent, content);
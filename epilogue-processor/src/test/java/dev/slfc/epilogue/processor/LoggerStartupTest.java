@@ -0,0 +1,164 @@
+package dev.slfc.epilogue.processor;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import dev.slfc.epilogue.EpilogueConfiguration;
+import dev.slfc.epilogue.logging.ClassSpecificLogger;
+import dev.slfc.epilogue.logging.NullLogger;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import javax.tools.JavaFileObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a program with hundreds of generated loggers only creates them when they're first
+ * used, and that prewarming them makes the first update faster.
+ */
+class LoggerStartupTest {
+  private static final int kDeviceCount = 300;
+
+  /**
+   * Loads the classes generated by a compilation.
+   */
+  static class CompiledClassLoader extends ClassLoader {
+    private final Map<String, byte[]> classes = new HashMap<>();
+
+    CompiledClassLoader(Compilation compilation) throws IOException {
+      super(LoggerStartupTest.class.getClassLoader());
+
+      for (JavaFileObject file : compilation.generatedFiles()) {
+        if (file.getKind() != JavaFileObject.Kind.CLASS) {
+          continue;
+        }
+
+        // eg "/CLASS_OUTPUT/dev/slfc/epilogue/Epiloguer.class"
+        var path = file.toUri().getPath();
+        var name = path.substring(path.indexOf('/', 1) + 1, path.length() - ".class".length());
+        try (var in = file.openInputStream()) {
+          classes.put(name.replace('/', '.'), in.readAllBytes());
+        }
+      }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      var bytes = classes.get(name);
+      if (bytes == null) {
+        throw new ClassNotFoundException(name);
+      }
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    boolean isLoaded(String name) {
+      return findLoadedClass(name) != null;
+    }
+  }
+
+  @Test
+  void prewarmedLoggersAreReadyBeforeTheFirstUpdate() throws Throwable {
+    var compilation = compileProject();
+
+    // Loggers are only created when they're first used
+    var cold = new CompiledClassLoader(compilation);
+    configure(cold);
+    assertEquals(0, loadedLoggerCount(cold));
+    updateRobot(cold);
+    assertEquals(kDeviceCount + 1, loadedLoggerCount(cold));
+
+    // Prewarmed loggers are ready before the first update
+    var prewarmed = new CompiledClassLoader(compilation);
+    configure(prewarmed);
+    ((Thread) invoke(prewarmed, "prewarmInBackground", Thread.class)).join();
+    assertEquals(kDeviceCount + 1, loadedLoggerCount(prewarmed));
+
+    // So the first update doesn't have to create any
+    updateRobot(prewarmed);
+    assertEquals(kDeviceCount + 1, loadedLoggerCount(prewarmed));
+  }
+
+  private static Compilation compileProject() {
+    List<JavaFileObject> sources = new ArrayList<>();
+
+    IntStream.range(0, kDeviceCount).forEach(i -> {
+      sources.add(JavaFileObjects.forSourceString("dev.slfc.epilogue.Device" + i, """
+          package dev.slfc.epilogue;
+
+          @Epilogue
+          public class Device%d {
+            // Private fields are read with VarHandles, which are looked up when the logger is created
+            private double position = %d;
+            private double velocity = 0;
+            public boolean connected = true;
+          }
+          """.formatted(i, i)));
+    });
+
+    var robot = new StringBuilder("""
+        package dev.slfc.epilogue;
+
+        @Epilogue
+        public class Robot {
+        """);
+    IntStream.range(0, kDeviceCount).forEach(i -> {
+      robot.append("  public Device").append(i).append(" device").append(i)
+          .append(" = new Device").append(i).append("();\n");
+    });
+    robot.append("}\n");
+    sources.add(JavaFileObjects.forSourceString("dev.slfc.epilogue.Robot", robot.toString()));
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(sources.toArray(JavaFileObject[]::new));
+
+    assertThat(compilation).succeeded();
+    return compilation;
+  }
+
+  /**
+   * Calls a static method on the generated Epiloguer class. Method handles are used instead of
+   * reflection, which would load every logger class in the signatures of Epiloguer's methods.
+   */
+  private static Object invoke(ClassLoader loader, String method, Class<?> returnType) throws Throwable {
+    var epiloguer = loader.loadClass("dev.slfc.epilogue.Epiloguer");
+    return MethodHandles.publicLookup()
+        .findStatic(epiloguer, method, MethodType.methodType(returnType))
+        .invoke();
+  }
+
+  private static void configure(ClassLoader loader) throws Throwable {
+    var config = (EpilogueConfiguration) invoke(loader, "getConfig", EpilogueConfiguration.class);
+    config.dataLogger = new NullLogger();
+    config.errorHandler = (error, logger) -> {
+      throw new AssertionError("Logger " + logger + " failed", error);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void updateRobot(ClassLoader loader) throws Throwable {
+    var config = (EpilogueConfiguration) invoke(loader, "getConfig", EpilogueConfiguration.class);
+    var logger = (ClassSpecificLogger<Object>) invoke(loader, "robotLogger", loader.loadClass("dev.slfc.epilogue.RobotLogger"));
+    var robot = loader.loadClass("dev.slfc.epilogue.Robot").getConstructor().newInstance();
+
+    logger.tryUpdate(config.dataLogger, robot, config.errorHandler);
+    assertFalse(logger.isDisabled());
+  }
+
+  private static long loadedLoggerCount(CompiledClassLoader loader) {
+    return IntStream.range(0, kDeviceCount)
+        .filter(i -> loader.isLoaded("dev.slfc.epilogue.Device" + i + "Logger"))
+        .count()
+        + (loader.isLoaded("dev.slfc.epilogue.RobotLogger") ? 1 : 0);
+  }
+}
@@ -0,0 +1,196 @@
+package dev.slfc.epilogue.processor;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import dev.slfc.epilogue.Epilogue;
+import dev.slfc.epilogue.logging.ManifestEntry;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.Test;
+
+class ManifestGeneratorTest {
+  private static final String SOURCE = """
+      package dev.slfc.epilogue;
+
+      @Epilogue
+      class HelloWorld {
+        enum Mode { A, B }
+
+        double x;
+        Mode mode;
+        @Epilogue(importance = Epilogue.Importance.CRITICAL) String[] names;
+        @Epilogue(importance = Epilogue.Importance.INFO) Arm arm;
+      }
+
+      @Epilogue
+      class Arm {
+        @Epilogue(importance = Epilogue.Importance.CRITICAL) double angle;
+        Arm next;
+      }
+      """;
+
+  @Test
+  void manifestClass() {
+    String expected = """
+        package dev.slfc.epilogue;
+
+        import dev.slfc.epilogue.logging.ManifestEntry;
+        import java.util.ArrayList;
+        import java.util.HashSet;
+        import java.util.List;
+        import java.util.Set;
+
+        public final class EpilogueManifest {
+          private EpilogueManifest() {
+          }
+
+          /**
+           * Gets the entries logged for an object of a logged class, including the entries of the
+           * objects nested inside it, relative to the path the object is logged under. Pass them to
+           * {@link dev.slfc.epilogue.logging.DataLogger#preregister} to create every entry up front.
+           *
+           * @param type the logged class
+           * @param minimumImportance the minimum importance level of the entries to include
+           * @return the entries
+           */
+          public static List<ManifestEntry> entriesFor(Class<?> type, Epilogue.Importance minimumImportance) {
+            var collector = new Collector(minimumImportance);
+            collector.addNested(type.getName(), "", Epilogue.Importance.CRITICAL, Epilogue.Importance.CRITICAL);
+            return collector.entries;
+          }
+
+          private static final class Collector {
+            final Epilogue.Importance minimum;
+            final List<ManifestEntry> entries = new ArrayList<>();
+
+            // The classes being expanded, to stop at objects that contain themselves
+            final Set<String> path = new HashSet<>();
+
+            Collector(Epilogue.Importance minimum) {
+              this.minimum = minimum;
+            }
+
+            void add(String identifier, String type, Epilogue.Importance importance, Epilogue.Importance cap) {
+              var effective = importance.compareTo(cap) < 0 ? importance : cap;
+              if (effective.compareTo(minimum) >= 0) {
+                entries.add(new ManifestEntry(identifier, type, effective));
+              }
+            }
+
+            void addNested(String className, String prefix, Epilogue.Importance importance, Epilogue.Importance cap) {
+              var effective = importance.compareTo(cap) < 0 ? importance : cap;
+              if (effective.compareTo(minimum) < 0 || !path.add(className)) {
+                return;
+              }
+
+              switch (className) {
+                case "dev.slfc.epilogue.Arm" -> dev_slfc_epilogue_Arm(prefix, effective, this);
+                case "dev.slfc.epilogue.HelloWorld" -> dev_slfc_epilogue_HelloWorld(prefix, effective, this);
+                default -> {
+                  // No generated logger
+                }
+              }
+              path.remove(className);
+            }
+          }
+
+          private static void dev_slfc_epilogue_Arm(String prefix, Epilogue.Importance cap, Collector collector) {
+            collector.addNested("dev.slfc.epilogue.Arm", prefix + "next/", Epilogue.Importance.DEBUG, cap);
+            collector.add(prefix + "angle", "double", Epilogue.Importance.CRITICAL, cap);
+          }
+
+          private static void dev_slfc_epilogue_HelloWorld(String prefix, Epilogue.Importance cap, Collector collector) {
+            collector.add(prefix + "x", "double", Epilogue.Importance.DEBUG, cap);
+            collector.add(prefix + "mode", "string", Epilogue.Importance.DEBUG, cap);
+            collector.addNested("dev.slfc.epilogue.Arm", prefix + "arm/", Epilogue.Importance.INFO, cap);
+            collector.add(prefix + "names", "string[]", Epilogue.Importance.CRITICAL, cap);
+          }
+        }
+        """;
+
+    var compilation = compile();
+    var generatedFile = compilation.generatedSourceFile("dev.slfc.epilogue.EpilogueManifest").orElseThrow();
+    try {
+      assertEquals(expected, generatedFile.getCharContent(false));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  void manifestResource() {
+    String expected = """
+        # class\tidentifier\ttype\timportance
+        dev.slfc.epilogue.Arm\tnext\tnested:dev.slfc.epilogue.Arm\tDEBUG
+        dev.slfc.epilogue.Arm\tangle\tdouble\tCRITICAL
+        dev.slfc.epilogue.HelloWorld\tx\tdouble\tDEBUG
+        dev.slfc.epilogue.HelloWorld\tmode\tstring\tDEBUG
+        dev.slfc.epilogue.HelloWorld\tarm\tnested:dev.slfc.epilogue.Arm\tINFO
+        dev.slfc.epilogue.HelloWorld\tnames\tstring[]\tCRITICAL
+        """;
+
+    var compilation = compile();
+    var generatedFile = compilation.generatedFile(
+        StandardLocation.CLASS_OUTPUT, "dev.slfc.epilogue", ManifestGenerator.RESOURCE_NAME).orElseThrow();
+    try {
+      assertEquals(expected, generatedFile.getCharContent(false));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  void entriesFor() throws Throwable {
+    var compilation = compile();
+    var loader = new LoggerStartupTest.CompiledClassLoader(compilation);
+    var entriesFor = MethodHandles.publicLookup().findStatic(
+        loader.loadClass("dev.slfc.epilogue.EpilogueManifest"),
+        "entriesFor",
+        MethodType.methodType(List.class, Class.class, Epilogue.Importance.class)
+    );
+    var helloWorld = loader.loadClass("dev.slfc.epilogue.HelloWorld");
+
+    // Arm contains itself, so its entries are only expanded once
+    assertEquals(
+        List.of(
+            new ManifestEntry("x", "double", Epilogue.Importance.DEBUG),
+            new ManifestEntry("mode", "string", Epilogue.Importance.DEBUG),
+            new ManifestEntry("arm/angle", "double", Epilogue.Importance.INFO),
+            new ManifestEntry("names", "string[]", Epilogue.Importance.CRITICAL)
+        ),
+        entriesFor.invoke(helloWorld, Epilogue.Importance.DEBUG)
+    );
+
+    // Nested entries are only as important as the object they're nested in
+    assertEquals(
+        List.of(
+            new ManifestEntry("arm/angle", "double", Epilogue.Importance.INFO),
+            new ManifestEntry("names", "string[]", Epilogue.Importance.CRITICAL)
+        ),
+        entriesFor.invoke(helloWorld, Epilogue.Importance.INFO)
+    );
+    assertEquals(
+        List.of(new ManifestEntry("names", "string[]", Epilogue.Importance.CRITICAL)),
+        entriesFor.invoke(helloWorld, Epilogue.Importance.CRITICAL)
+    );
+
+    assertEquals(List.of(), entriesFor.invoke(String.class, Epilogue.Importance.DEBUG));
+  }
+
+  private Compilation compile() {
+    Compilation compilation =
+        javac()
+            .withProcessors(new AnnotationProcessor())
+            .compile(JavaFileObjects.forSourceString("dev.slfc.epilogue.HelloWorld", SOURCE));
+
+    assertThat(compilation).succeeded();
+    return compilation;
+  }
+}
@@ -0,0 +1,162 @@
+package dev.slfc.epilogue;
+
+import java.io.PrintStream;
+
+/**
+ * Automatically raises the minimum importance of logged data when logging takes too long, and
+ * restores it once logging is fast again. Set {@link EpilogueConfiguration#adaptiveImportance} to
+ * an instance of this class to enable it; {@code Epiloguer.bind()} will then report the duration of
+ * every logging update to it.
+ *
+ * <p>Update durations are smoothed with an exponential moving average. When the average exceeds
+ * the time budget, the minimum importance is raised by one level (for example, from
+ * {@link Epilogue.Importance#DEBUG DEBUG} to {@link Epilogue.Importance#INFO INFO}). When the
+ * average drops below a fraction of the budget, the minimum importance is lowered by one level, but
+ * never below the level it was originally configured with. After every change, the controller
+ * waits a number of cycles for the average to settle before changing levels again, which keeps
+ * the level from flapping back and forth under a borderline load.
+ *
+ * <p>Every level change is printed to {@link System#err} and logged to the
+ * {@code "Epilogue/Minimum Importance"} entry of the configured data logger.
+ */
+public class AdaptiveImportance {
+  /**
+   * The default weight of the latest update duration in the moving average.
+   */
+  public static final double kDefaultSmoothing = 0.1;
+
+  /**
+   * The default fraction of the budget the average must drop below to restore a lower level.
+   */
+  public static final double kDefaultRestoreFraction = 0.5;
+
+  /**
+   * The default number of cycles to wait after a level change before changing levels again.
+   */
+  public static final int kDefaultSettleCycles = 25;
+
+  private final double budgetNanos;
+  private final double smoothing;
+  private final double restoreFraction;
+  private final int settleCycles;
+  private final PrintStream out;
+
+  private double averageNanos = Double.NaN;
+  private int cyclesSinceChange = Integer.MAX_VALUE;
+
+  // The minimum importance configured by the user, which is never restored past
+  private Epilogue.Importance baseline;
+
+  // The minimum importance most recently set by this controller
+  private Epilogue.Importance current;
+
+  /**
+   * Creates a new controller with the default smoothing, restore fraction, and settling period.
+   *
+   * @param budgetSeconds the maximum average time a logging update may take, in seconds
+   */
+  public AdaptiveImportance(double budgetSeconds) {
+    this(budgetSeconds, kDefaultSmoothing, kDefaultRestoreFraction, kDefaultSettleCycles);
+  }
+
+  /**
+   * Creates a new controller.
+   *
+   * @param budgetSeconds the maximum average time a logging update may take, in seconds
+   * @param smoothing the weight of the latest update duration in the moving average, in (0, 1].
+   *                  Higher values react to load changes faster
+   * @param restoreFraction the fraction of the budget the average must drop below before a lower
+   *                        importance level is restored, in (0, 1]
+   * @param settleCycles the number of cycles to wait after a level change before changing levels
+   *                     again
+   */
+  public AdaptiveImportance(
+      double budgetSeconds, double smoothing, double restoreFraction, int settleCycles) {
+    this(budgetSeconds, smoothing, restoreFraction, settleCycles, System.err);
+  }
+
+  AdaptiveImportance(
+      double budgetSeconds,
+      double smoothing,
+      double restoreFraction,
+      int settleCycles,
+      PrintStream out) {
+    if (budgetSeconds <= 0) {
+      throw new IllegalArgumentException("Budget must be positive, but was " + budgetSeconds);
+    }
+    if (smoothing <= 0 || smoothing > 1) {
+      throw new IllegalArgumentException("Smoothing must be in (0, 1], but was " + smoothing);
+    }
+    if (restoreFraction <= 0 || restoreFraction > 1) {
+      throw new IllegalArgumentException(
+          "Restore fraction must be in (0, 1], but was " + restoreFraction
+      );
+    }
+
+    this.budgetNanos = budgetSeconds * 1e9;
+    this.smoothing = smoothing;
+    this.restoreFraction = restoreFraction;
+    this.settleCycles = settleCycles;
+    this.out = out;
+  }
+
+  /**
+   * Reports the duration of a logging update, and adjusts the minimum importance of the
+   * configuration if needed.
+   *
+   * @param config the configuration to adjust
+   * @param elapsedNanos how long the update took, in nanoseconds
+   */
+  public void update(EpilogueConfiguration config, long elapsedNanos) {
+    if (Double.isNaN(averageNanos)) {
+      averageNanos = elapsedNanos;
+    } else {
+      averageNanos += smoothing * (elapsedNanos - averageNanos);
+    }
+
+    if (config.minimumImportance != current) {
+      // Either the first update, or the level was changed by someone else. Either way, that's
+      // the level to restore to
+      baseline = config.minimumImportance;
+      current = config.minimumImportance;
+    }
+
+    if (cyclesSinceChange < settleCycles) {
+      cyclesSinceChange++;
+      return;
+    }
+
+    var levels = Epilogue.Importance.values();
+    if (averageNanos > budgetNanos && current.ordinal() < levels.length - 1) {
+      setLevel(config, levels[current.ordinal() + 1]);
+    } else if (averageNanos < budgetNanos * restoreFraction && current.compareTo(baseline) > 0) {
+      setLevel(config, levels[current.ordinal() - 1]);
+    }
+  }
+
+  private void setLevel(EpilogueConfiguration config, Epilogue.Importance level) {
+    out.println(
+        "[EPILOGUE] Logging is taking "
+            + Math.round(averageNanos / 1e3) / 1e3
+            + " ms on average (budget: "
+            + Math.round(budgetNanos / 1e3) / 1e3
+            + " ms), changing the minimum importance from "
+            + current
+            + " to "
+            + level
+    );
+
+    current = level;
+    config.minimumImportance = level;
+    config.dataLogger.log("Epilogue/Minimum Importance", level.name());
+    cyclesSinceChange = 0;
+  }
+
+  /**
+   * Gets the moving average of update durations, in seconds. Returns 0 if no updates have been
+   * reported yet.
+   */
+  public double getAverageSeconds() {
+    return Double.isNaN(averageNanos) ? 0 : averageNanos / 1e9;
+  }
+}
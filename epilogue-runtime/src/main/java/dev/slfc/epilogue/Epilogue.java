@@ -73,4 +73,126 @@ public @interface Epilogue {
    * annotation.
    */
   Importance importance() default Importance.DEBUG;
+
+  /**
+   * Updates the loggers of objects nested in the annotated class (such as subsystems in a robot
+   * class) in parallel, instead of one after another. This can cut down on the time it takes to
+   * log when the nested objects have accessors that block on sensor reads, since the reads can
+   * overlap instead of adding up. All the nested updates are complete by the time the annotated
+   * class's logger finishes. The executor to use is set by
+   * {@link EpilogueConfiguration#parallelExecutor}, and the configured data logger must be safe to
+   * use from multiple threads. Only has an effect on class-level annotations.
+   */
+  boolean parallel() default false;
+
+  /**
+   * Moves the cost of writing logged data off of the thread that updates the logger. Plain values
+   * (primitives, strings, enums, and struct-serializable objects) are copied into a snapshot of
+   * the object, and all the data logger calls for the snapshot are made later on a background
+   * thread set by {@link EpilogueConfiguration#snapshotExecutor}. The thread doing the logging
+   * only pays for reading the values and copying them. Values of other types, like arrays and
+   * nested objects, are still logged right away. The configured data logger must be safe to use
+   * from multiple threads. Only has an effect on class-level annotations.
+   */
+  boolean snapshot() default false;
+
+  /**
+   * Generates a {@link edu.wpi.first.util.struct.Struct Struct} serializer for the annotated
+   * record, named after the record with a {@code Struct} suffix (for example,
+   * {@code ArmStateStruct} for an {@code ArmState} record), with a single shared
+   * {@code INSTANCE}. Fields and methods of the record's type are then logged as a single struct
+   * entry instead of one entry per component, and arrays and collections of the record become
+   * loggable too. Every component of the record must be a {@code boolean}, {@code byte},
+   * {@code short}, {@code int}, {@code long}, {@code float}, or {@code double}, a
+   * struct-serializable type, or another record with a generated struct. Only has an effect on
+   * record declarations.
+   */
+  boolean struct() default false;
+
+  /**
+   * Packs the {@code boolean} fields and methods of the annotated class into {@code long}
+   * bitfields, so a class with dozens of flags costs one log entry per cycle instead of dozens.
+   * Each importance level gets its own bitfield entry, named {@code "packedBooleans/debug"},
+   * {@code "packedBooleans/info"}, and so on, with up to 64 flags per entry (further flags go to
+   * {@code "packedBooleans/debug1"} and so on). Bit 0 holds the first flag in declaration order.
+   * The names of the flags in each bitfield are logged once, as a comma-separated string entry
+   * with a {@code .names} suffix. Boxed {@code Boolean} values and elements with a sampling period
+   * are still logged on their own. Only has an effect on class-level annotations.
+   */
+  boolean packBooleans() default false;
+
+  /**
+   * Logs the fixed-width values of the annotated class (primitives other than {@code char}, enums,
+   * and struct-serializable objects) as a single struct entry per importance level, named
+   * {@code "frame/debug"}, {@code "frame/info"}, and {@code "frame/critical"}, instead of one entry
+   * per field or method. The struct schema is generated at compile time, with one member per
+   * element. Enums are logged as their ordinals (or -1 if null), and null structs are logged as
+   * zeroes. Strings, arrays, collections, nested objects, elements with a sampling period, and
+   * booleans packed with {@link #packBooleans()} are still logged separately. Only has an effect
+   * on class-level annotations.
+   */
+  boolean frame() default false;
+
+  /**
+   * Logs the annotated field or method only once, the first time its object is logged, instead of
+   * every cycle. Useful for configuration that never changes, like gear ratios, PID constants,
+   * and CAN IDs. One-time data is logged regardless of the minimum importance level, and is logged
+   * again after a call to {@link dev.slfc.epilogue.logging.ClassSpecificLogger#relogOnce()}.
+   * Static final fields annotated with {@code @Epilogue} are always logged once; other static
+   * fields annotated with {@code @Epilogue} are logged every cycle. Does nothing on
+   * class-level annotations.
+   */
+  boolean once() default false;
+
+  /**
+   * Only logs the annotated field or method when its value changes. The last logged value is kept
+   * in a field of the generated logger and compared directly, which is much cheaper than the
+   * change detection done by {@link dev.slfc.epilogue.logging.LazyLogger LazyLogger}. Only has an
+   * effect on primitive and enum elements. If placed on a class, every primitive and enum element
+   * in the class is only logged when it changes. Classes with elements that are logged on change
+   * are never inlined into the loggers of other classes.
+   */
+  boolean onChange() default false;
+
+  enum Precision {
+    /**
+     * Log values at their full precision. This is the default behavior.
+     */
+    FULL,
+
+    /**
+     * Log {@code double} and {@code double[]} values as 32-bit {@code float} and {@code float[]}
+     * values, halving their size in the log. Floats have about 7 significant digits, which is
+     * plenty for most sensor readings.
+     */
+    FLOAT
+  }
+
+  /**
+   * The precision to log the annotated field or method at. Only has an effect on {@code double}
+   * and {@code double[]} elements. Does nothing on class-level annotations.
+   */
+  Precision precision() default Precision.FULL;
+
+  /**
+   * Logs the annotated {@code double}, {@code float}, {@code double[]}, or {@code float[]} element
+   * as fixed-point integers with the given resolution, instead of as floating point values. For
+   * example, {@code resolution = 0.1} on a motor temperature of 41.26 logs the integer 413; the
+   * original value is the logged integer multiplied by the resolution, which is logged once under
+   * the element's name with a {@code .resolution} suffix. Small integers are encoded compactly by
+   * NetworkTables, but data log files store every integer in 8 bytes, the same as a
+   * {@code double}, so use {@link Precision#FLOAT} to shrink log files instead. Quantized values
+   * also change less often, which helps the data loggers that only log values when they change.
+   * Values of 0 (the default) disable quantization. Does nothing on class-level annotations.
+   */
+  double resolution() default 0;
+
+  /**
+   * How often the annotated field or method should be logged, in logging cycles. For example,
+   * {@code everyNCycles = 5} on a robot running a 20 ms loop will log the element at 10 Hz. Elements
+   * are not read at all on the cycles they are skipped, which makes this useful for expensive
+   * accessors that don't need to be sampled every loop. Values less than 2 will log the element on
+   * every cycle. Does nothing on class-level annotations.
+   */
+  int everyNCycles() default 1;
 }
@@ -5,6 +5,9 @@ import dev.slfc.epilogue.logging.FileLogger;
 import dev.slfc.epilogue.logging.NullLogger;
 import dev.slfc.epilogue.logging.errors.ErrorHandler;
 import dev.slfc.epilogue.logging.errors.ErrorPrinter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 public class EpilogueConfiguration {
   /**
@@ -30,4 +33,30 @@ public class EpilogueConfiguration {
    * any string.
    */
   public String root = "Robot";
+
+  /**
+   * The executor used to run the nested updates of classes annotated with
+   * {@code @Epilogue(parallel = true)}. Defaults to the common fork-join pool. If the nested
+   * objects spend most of their time blocked on sensor reads, an executor with more threads (or
+   * virtual threads) may give better results.
+   */
+  public Executor parallelExecutor = ForkJoinPool.commonPool();
+
+  /**
+   * The executor used to write the snapshots of classes annotated with
+   * {@code @Epilogue(snapshot = true)} to the data logger. Defaults to a single background daemon
+   * thread, which is started the first time a snapshot is written.
+   */
+  public Executor snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    var thread = new Thread(runnable, "Epilogue snapshot writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Automatically raises the minimum importance level when logging takes too long, and restores
+   * it when logging is fast again. Only used when logging with {@code Epiloguer.bind()}. Defaults
+   * to null, which keeps the minimum importance level fixed.
+   */
+  public AdaptiveImportance adaptiveImportance = null;
 }
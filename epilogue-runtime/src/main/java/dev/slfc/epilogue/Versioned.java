@@ -0,0 +1,23 @@
+package dev.slfc.epilogue;
+
+/**
+ * An object that tracks changes to its logged data with a version number. Loggers generated for
+ * {@link Epilogue @Epilogue} classes that implement this interface skip logging an object entirely
+ * (including every object nested inside it) if its version is the same as the last time it was
+ * logged, so an unchanged object costs a single comparison per cycle instead of a walk through
+ * everything it holds. Useful for large objects that rarely change, like mechanism
+ * configurations, trajectories, and cached vision results.
+ *
+ * <p>Epilogue can only see changes that bump the version. Any change to the object's logged data
+ * (or to the data of the objects nested inside it) must change the version, or it won't show up
+ * in the logs until something else does.
+ */
+public interface Versioned {
+  /**
+   * Gets the current version of this object's logged data. The version must change whenever any
+   * of the logged data changes, such as by incrementing a counter in every setter.
+   *
+   * @return the current version
+   */
+  long logVersion();
+}
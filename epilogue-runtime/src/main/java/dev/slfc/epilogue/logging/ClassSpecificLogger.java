@@ -3,8 +3,19 @@ package dev.slfc.epilogue.logging;
 import dev.slfc.epilogue.logging.errors.ErrorHandler;
 import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.util.sendable.SendableBuilder;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * Base class for class-specific generated loggers. Loggers are generated at compile time by
@@ -19,10 +30,89 @@ public abstract class ClassSpecificLogger<T> {
   private final Class<T> clazz;
   // TODO: This will hold onto Sendables that are otherwise no longer referenced by a robot program.
   //       Determine if that's a concern
-  // Linked hashmap to maintain insert order
-  private final Map<Sendable, SendableBuilder> sendables = new LinkedHashMap<>();
+  private final Map<Sendable, SendableBuilder> sendables = new ConcurrentHashMap<>();
 
-  private boolean disabled = false;
+  // Volatile so loggers disabled by an error handler on one thread stop logging on all of them
+  private volatile boolean disabled = false;
+
+  // When this logger is temporarily disabled until, or null if it isn't. The clock is only read in
+  // tryUpdate when this is set, so loggers that are never disabled don't pay for a clock read every
+  // update
+  private final AtomicReference<Deadline> disabledUntil = new AtomicReference<>();
+
+  /**
+   * A point in time, as measured by a clock.
+   *
+   * @param time the timestamp
+   * @param clock the clock the timestamp was read from
+   */
+  private record Deadline(long time, LongSupplier clock) {}
+
+  // Incremented whenever a logger is updated outside of another logger's update, ie whenever a
+  // root object like the robot is logged. Shared objects are deduplicated within a root update
+  private static final AtomicLong rootUpdates = new AtomicLong(0);
+
+  // How many logger updates the current thread is nested inside of. Parallel updates carry the
+  // depth over to the threads they run on
+  private static final ThreadLocal<int[]> updateDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+  // The objects logged so far in the current root update, mapped to the paths they were logged
+  // under, and the same for the previous root update. Guarded by dedupLock, since nested loggers
+  // may be updated in parallel
+  private Map<Object, String> loggedThisUpdate = new IdentityHashMap<>();
+  private Map<Object, String> loggedLastUpdate = new IdentityHashMap<>();
+  private final Object dedupLock = new Object();
+  private long currentRootUpdate = -1;
+
+  // Objects aliased to the path they were logged under last update, which hasn't reached them yet
+  // this update, mapped to the references that were aliased. If that path doesn't reach them by
+  // the end of the root update, they're logged in full under the first of those references
+  // instead. Guarded by dedupLock
+  private final Map<T, List<AliasedReference>> unconfirmedAliases = new IdentityHashMap<>();
+
+  /**
+   * A reference to an object that was aliased to another path.
+   *
+   * @param dataLogger the logger for the path of the reference
+   * @param errorHandler the handler to use if logging the object raises an exception
+   */
+  private record AliasedReference(SubLogger dataLogger, ErrorHandler errorHandler) {}
+
+  // Loggers with unconfirmed aliases, checked when the root update finishes
+  private static final Set<ClassSpecificLogger<?>> loggersWithUnconfirmedAliases =
+      ConcurrentHashMap.newKeySet();
+
+  // The most recent alias logged at each path, to avoid rewriting aliases that haven't changed
+  private final Map<String, String> aliases = new ConcurrentHashMap<>();
+
+  // Snapshot buffers for loggers of classes annotated with @Epilogue(snapshot = true), one per
+  // data logger the logger writes to
+  private final Map<DataLogger, SnapshotBuffer<?>> snapshotBuffers = new ConcurrentHashMap<>();
+
+  // The state kept for each data logger this logger writes to, like the last logged values of
+  // elements that are only logged when they change and whether one-time data has been logged to
+  // it. Sub loggers are cached, so this is one state per path. The state is also cached in the sub
+  // logger for its path, so classes logged at many paths (like swerve modules) find it with a
+  // field read instead of a map lookup
+  private final Map<DataLogger, PathState> pathStates = new ConcurrentHashMap<>();
+
+  /**
+   * The state a logger keeps for one of the data loggers it writes to.
+   */
+  static final class PathState {
+    final ClassSpecificLogger<?> owner;
+    volatile Object lastValues;
+
+    // The generation of one-time data last logged to the path, or -1 if it hasn't been logged yet
+    volatile long onceLoggedGeneration = -1;
+
+    PathState(ClassSpecificLogger<?> owner) {
+      this.owner = owner;
+    }
+  }
+
+  // Incremented by relogOnce() to make every logger log its one-time data again
+  private static final AtomicLong onceGeneration = new AtomicLong(0);
 
   /**
    * @param clazz the Java class of objects that can be logged
@@ -39,23 +129,188 @@ public abstract class ClassSpecificLogger<T> {
    */
   protected abstract void update(DataLogger dataLogger, T object);
 
+  /**
+   * Updates an object's fields in a data log. Errors raised while logging are passed to the error
+   * handler instead of being thrown.
+   *
+   * @param dataLogger the logger to update
+   * @param object the object to update in the log
+   * @param errorHandler the handler to use if logging raises an exception
+   */
   public final void tryUpdate(DataLogger dataLogger, T object, ErrorHandler errorHandler) {
-    if (disabled) {
+    if (disabled || isTemporarilyDisabled()) {
       return;
     }
 
+    runUpdate(dataLogger, object, errorHandler);
+  }
+
+  /**
+   * Runs an update, passing any errors to the error handler.
+   *
+   * @return true if the update completed without errors
+   */
+  private boolean runUpdate(DataLogger dataLogger, T object, ErrorHandler errorHandler) {
+    var depth = updateDepth.get();
+    if (depth[0] == 0) {
+      // Not nested inside another update, so this starts a new root update
+      rootUpdates.incrementAndGet();
+    }
+
+    depth[0]++;
     try {
       update(dataLogger, object);
+      return true;
     } catch (Exception e) {
       errorHandler.handle(e, this);
+      return false;
+    } finally {
+      if (depth[0] == 1 && !loggersWithUnconfirmedAliases.isEmpty()) {
+        // Still inside the root update, so objects logged here are part of it
+        logUnconfirmedAliases();
+      }
+      depth[0]--;
+    }
+  }
+
+  /**
+   * Logs objects in full whose aliased path didn't reach them during the root update that's
+   * finishing, so they aren't missing from it.
+   */
+  private static void logUnconfirmedAliases() {
+    // Logging an object can leave aliases of objects nested in it unconfirmed
+    while (!loggersWithUnconfirmedAliases.isEmpty()) {
+      for (var logger : loggersWithUnconfirmedAliases) {
+        loggersWithUnconfirmedAliases.remove(logger);
+        logger.logUnconfirmedObjects();
+      }
+    }
+  }
+
+  private void logUnconfirmedObjects() {
+    Map<T, List<AliasedReference>> unconfirmed = new IdentityHashMap<>();
+    synchronized (dedupLock) {
+      unconfirmedAliases.forEach((object, references) -> {
+        if (!loggedThisUpdate.containsKey(object)) {
+          // The first reference takes over the object, and keeps it in later updates
+          loggedThisUpdate.put(object, references.get(0).dataLogger().getPath());
+          unconfirmed.put(object, references);
+        }
+      });
+      unconfirmedAliases.clear();
+    }
+
+    unconfirmed.forEach((object, references) -> {
+      var first = references.get(0);
+      if (aliases.remove(first.dataLogger().getPath()) != null) {
+        first.dataLogger().log(".alias", "");
+      }
+      runUpdate(first.dataLogger(), object, first.errorHandler());
+
+      for (var reference : references.subList(1, references.size())) {
+        aliases.put(reference.dataLogger().getPath(), first.dataLogger().getPath());
+        reference.dataLogger().log(".alias", first.dataLogger().getPath());
+      }
+    });
+  }
+
+  /**
+   * Updates an object nested inside another logged object, unless the same object has already
+   * been logged by this logger during the current root update (the update of the outermost
+   * object, such as the robot). This keeps objects that are referenced from several places, like a
+   * gyro shared by multiple subsystems, from being read and logged more than once per update.
+   * Instead of logging the object again, an {@code ".alias"} entry is logged with the path the
+   * object was already logged under.
+   *
+   * <p>An object keeps the path it's logged under from one update to the next for as long as that
+   * path still references it, so aliases don't change when nested objects are updated in
+   * parallel and reach a shared object in a different order. If the path an object was logged
+   * under no longer references it, the object is logged in full at the end of the root update
+   * under the first path that reached it instead, and keeps that path from then on. A path that
+   * stops being an alias logs an empty {@code ".alias"} entry.
+   *
+   * @param dataLogger the logger to update
+   * @param object the object to update in the log
+   * @param errorHandler the handler to use if logging raises an exception
+   * @return true if the object was logged or aliased, or false if this logger is disabled or
+   *         logging the object raised an exception
+   */
+  public final boolean tryUpdateNested(DataLogger dataLogger, T object, ErrorHandler errorHandler) {
+    if (disabled || isTemporarilyDisabled()) {
+      return false;
+    }
+
+    if (object == null || !(dataLogger instanceof SubLogger subLogger)) {
+      // Nothing to deduplicate, or no path to alias to
+      return runUpdate(dataLogger, object, errorHandler);
+    }
+
+    String path = subLogger.getPath();
+    String canonicalPath;
+    synchronized (dedupLock) {
+      long rootUpdate = rootUpdates.get();
+      if (rootUpdate != currentRootUpdate) {
+        // Only objects that were logged in full last update keep their paths
+        var previous = loggedLastUpdate;
+        loggedLastUpdate = loggedThisUpdate;
+        loggedThisUpdate = previous;
+        loggedThisUpdate.clear();
+        unconfirmedAliases.clear();
+        currentRootUpdate = rootUpdate;
+      }
+
+      canonicalPath = loggedThisUpdate.get(object);
+      if (canonicalPath == null) {
+        canonicalPath = loggedLastUpdate.get(object);
+        if (canonicalPath == null || canonicalPath.equals(path)) {
+          // First time seeing the object, or this is the path it's always logged under
+          loggedThisUpdate.put(object, path);
+          canonicalPath = null;
+        } else {
+          // Alias to the path it was logged under last update, unless that path doesn't reach it
+          // by the end of this one
+          unconfirmedAliases.computeIfAbsent(object, o -> new ArrayList<>())
+              .add(new AliasedReference(subLogger, errorHandler));
+          loggersWithUnconfirmedAliases.add(this);
+        }
+      }
+    }
+
+    if (canonicalPath == null) {
+      if (!aliases.isEmpty() && aliases.remove(path) != null) {
+        // No longer an alias
+        dataLogger.log(".alias", "");
+      }
+      return runUpdate(dataLogger, object, errorHandler);
+    } else if (!canonicalPath.equals(path) && !canonicalPath.equals(aliases.get(path))) {
+      // Logged somewhere else, and this reference isn't already aliased to it
+      aliases.put(path, canonicalPath);
+      dataLogger.log(".alias", canonicalPath);
     }
+    return true;
+  }
+
+  private boolean isTemporarilyDisabled() {
+    var until = disabledUntil.get();
+    if (until == null) {
+      return false;
+    }
+
+    if (until.clock().getAsLong() - until.time() < 0) {
+      return true;
+    }
+
+    // Time's up. Clear the timestamp so later updates can skip the clock read, unless the logger
+    // was disabled again in the meantime
+    disabledUntil.compareAndSet(until, null);
+    return false;
   }
 
   /**
-   * Checks if this logger has been disabled.
+   * Checks if this logger has been disabled, either permanently or temporarily.
    */
   public final boolean isDisabled() {
-    return disabled;
+    return disabled || isTemporarilyDisabled();
   }
 
   /**
@@ -65,11 +320,34 @@ public abstract class ClassSpecificLogger<T> {
     disabled = true;
   }
 
+  /**
+   * Disables this logger until a point in time. Any log calls made before then will be ignored,
+   * and the logger will automatically be reenabled afterward.
+   *
+   * @param nanoTime the time to reenable the logger at, as a {@link System#nanoTime()} timestamp
+   */
+  public final void disableUntil(long nanoTime) {
+    disableUntil(nanoTime, System::nanoTime);
+  }
+
+  /**
+   * Disables this logger until a point in time, measured by a clock other than
+   * {@link System#nanoTime()}. Any log calls made before then will be ignored, and the logger will
+   * automatically be reenabled afterward.
+   *
+   * @param time the time to reenable the logger at
+   * @param clock the clock to compare the time against
+   */
+  public final void disableUntil(long time, LongSupplier clock) {
+    disabledUntil.set(new Deadline(time, clock));
+  }
+
   /**
    * Reenables this logger after being disabled. Has no effect if the logger is already enabled.
    */
   public final void reenable() {
     disabled = false;
+    disabledUntil.set(null);
   }
 
   /**
@@ -79,6 +357,207 @@ public abstract class ClassSpecificLogger<T> {
     return clazz;
   }
 
+  /**
+   * Runs a set of updates in parallel and waits for all of them to complete. Used by loggers for
+   * classes annotated with {@code @Epilogue(parallel = true)} to update nested objects
+   * concurrently. The first update is run on the calling thread.
+   *
+   * @param updates the updates to run
+   * @param executor the executor to run the updates on
+   */
+  protected static void updateInParallel(List<Runnable> updates, Executor executor) {
+    if (updates.isEmpty()) {
+      return;
+    }
+
+    // The updates are still part of the calling thread's update, so carry its depth over to the
+    // threads they run on. Otherwise each one would start a new root update
+    int depth = updateDepth.get()[0];
+    var futures = new CompletableFuture<?>[updates.size() - 1];
+    for (int i = 1; i < updates.size(); i++) {
+      var update = updates.get(i);
+      futures[i - 1] = CompletableFuture.runAsync(() -> {
+        var threadDepth = updateDepth.get();
+        threadDepth[0] += depth;
+        try {
+          update.run();
+        } finally {
+          threadDepth[0] -= depth;
+        }
+      }, executor);
+    }
+
+    try {
+      updates.get(0).run();
+    } finally {
+      // Always wait for every update to finish, even if one failed, so no updates are still
+      // running when the next logging cycle starts
+      try {
+        CompletableFuture.allOf(futures).join();
+      } catch (CompletionException e) {
+        // Rethrow the original exception, eg from an error handler that crashes on errors
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        } else if (e.getCause() instanceof Error cause) {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Gets the snapshot buffer for the objects logged to a data logger, creating it if necessary.
+   * Used by loggers for classes annotated with {@code @Epilogue(snapshot = true)}.
+   *
+   * @param dataLogger the data logger the snapshots will be written to
+   * @param factory creates empty snapshots for the buffer
+   * @param <S> the type of snapshots in the buffer
+   * @return the snapshot buffer
+   */
+  @SuppressWarnings("unchecked")
+  protected final <S extends LogSnapshot> SnapshotBuffer<S> getSnapshotBuffer(
+      DataLogger dataLogger, Supplier<S> factory) {
+    return (SnapshotBuffer<S>)
+        snapshotBuffers.computeIfAbsent(dataLogger, k -> new SnapshotBuffer<>(k, factory));
+  }
+
+  /**
+   * Publishes the filled-in snapshot of a snapshot buffer, to be written on a background thread.
+   * Errors raised while writing the snapshot are reported to the error handler from that thread.
+   *
+   * @param buffer the snapshot buffer to publish
+   * @param executor the executor to write the snapshot on
+   * @param errorHandler the handler to use if writing the snapshot raises an exception
+   */
+  protected final void publishSnapshot(
+      SnapshotBuffer<?> buffer, Executor executor, ErrorHandler errorHandler) {
+    buffer.publish(executor, e -> errorHandler.handle(e, this));
+  }
+
+  /**
+   * Gets the last logged values for the objects logged to a data logger, creating them if
+   * necessary. Used by loggers for classes with elements annotated with
+   * {@code @Epilogue(onChange = true)}.
+   *
+   * @param dataLogger the data logger the values were logged to
+   * @param factory creates an empty set of last values
+   * @param <V> the type holding the last values
+   * @return the last values
+   */
+  @SuppressWarnings("unchecked")
+  protected final <V> V getLastValues(DataLogger dataLogger, Supplier<V> factory) {
+    var state = getPathState(dataLogger);
+    var values = state.lastValues;
+    if (values == null) {
+      synchronized (state) {
+        values = state.lastValues;
+        if (values == null) {
+          values = factory.get();
+          state.lastValues = values;
+        }
+      }
+    }
+    return (V) values;
+  }
+
+  /**
+   * Gets the state this logger keeps for a data logger, creating it if necessary.
+   */
+  private PathState getPathState(DataLogger dataLogger) {
+    if (dataLogger instanceof SubLogger subLogger) {
+      var cached = subLogger.pathState;
+      if (cached != null && cached.owner == this) {
+        return cached;
+      }
+    }
+
+    var state = pathStates.computeIfAbsent(dataLogger, k -> new PathState(this));
+    if (dataLogger instanceof SubLogger subLogger && subLogger.pathState == null) {
+      // Usually only one class is logged at a path. If more are (eg a polymorphic field), the first
+      // one keeps its state cached in the sub logger and the others look theirs up in their maps
+      subLogger.pathState = state;
+    }
+    return state;
+  }
+
+  /**
+   * Checks if this is the first time this logger is writing to a data logger, or the first time
+   * since {@link #relogOnce()} was called. Used to log data that doesn't change, like
+   * {@code @Epilogue(once = true)} elements and the names of the flags in a packed boolean
+   * bitfield, once instead of every cycle.
+   *
+   * @param dataLogger the data logger being written to
+   * @return true if this logger's one-time data needs to be logged to the data logger
+   */
+  protected final boolean isFirstUpdate(DataLogger dataLogger) {
+    long generation = onceGeneration.get();
+    var state = getPathState(dataLogger);
+    if (state.onceLoggedGeneration == generation) {
+      return false;
+    }
+
+    state.onceLoggedGeneration = generation;
+    return true;
+  }
+
+  /**
+   * Makes every logger log its one-time data again on its next update, such as elements annotated
+   * with {@code @Epilogue(once = true)} and static fields. Call this after a data logger starts a
+   * new log without being replaced, so the new log has a copy. A new data logger instance doesn't
+   * need this, and {@link NTDataLogger} calls it automatically when a new connection is made.
+   */
+  public static void relogOnce() {
+    onceGeneration.incrementAndGet();
+  }
+
+  /**
+   * Converts an array of doubles to floats, for elements logged with
+   * {@code @Epilogue(precision = FLOAT)}.
+   *
+   * @param values the values to convert
+   * @return the converted values
+   */
+  protected static float[] toFloats(double[] values) {
+    var floats = new float[values.length];
+    for (int i = 0; i < values.length; i++) {
+      floats[i] = (float) values[i];
+    }
+    return floats;
+  }
+
+  /**
+   * Quantizes an array of doubles to multiples of a resolution, for elements logged with
+   * {@code @Epilogue(resolution = ...)}.
+   *
+   * @param values the values to quantize
+   * @param resolution the resolution to quantize to
+   * @return the number of steps of the given resolution in each value, rounded to the nearest step
+   */
+  protected static long[] quantize(double[] values, double resolution) {
+    var steps = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      steps[i] = Math.round(values[i] / resolution);
+    }
+    return steps;
+  }
+
+  /**
+   * Quantizes an array of floats to multiples of a resolution, for elements logged with
+   * {@code @Epilogue(resolution = ...)}.
+   *
+   * @param values the values to quantize
+   * @param resolution the resolution to quantize to
+   * @return the number of steps of the given resolution in each value, rounded to the nearest step
+   */
+  protected static long[] quantize(float[] values, double resolution) {
+    var steps = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      steps[i] = Math.round(values[i] / resolution);
+    }
+    return steps;
+  }
+
   protected void logSendable(DataLogger dataLogger, Sendable sendable) {
     if (sendable == null) {
       return;
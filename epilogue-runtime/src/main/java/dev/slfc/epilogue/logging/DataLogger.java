@@ -3,6 +3,8 @@ package dev.slfc.epilogue.logging;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.units.Unit;
 import edu.wpi.first.util.struct.Struct;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Collection;
 
 public interface DataLogger {
@@ -24,6 +26,19 @@ public interface DataLogger {
 
   DataLogger getSubLogger(String path);
 
+  /**
+   * Creates entries ahead of time for data that will be logged to this logger later, such as the
+   * entries listed in the generated {@code EpilogueManifest}. Entries are otherwise created the
+   * first time they're logged to, which can make the first logging cycle much slower than the
+   * rest. Loggers that don't need to create entries (or can't) ignore this. Struct entries are
+   * always created when they're first logged, once their schemas are known.
+   *
+   * @param entries the entries to create
+   */
+  default void preregister(Collection<ManifestEntry> entries) {
+    // Entries are created on demand
+  }
+
   void log(String identifier, int value);
 
   void log(String identifier, long value);
@@ -58,6 +73,21 @@ public interface DataLogger {
 
   <S> void log(String identifier, S[] value, Struct<S> struct);
 
+  /**
+   * Logs a struct value that has already been packed into a buffer, such as a value copied into a
+   * snapshot. Data loggers that write struct data as raw bytes write the packed bytes directly;
+   * the default implementation unpacks the value and logs it like any other struct.
+   *
+   * @param identifier the identifier of the data field
+   * @param packed the packed value, from the buffer's position to its limit. Implementations must
+   *               not change the buffer's position or limit
+   * @param struct the struct the value was packed with
+   * @param <S> the type of the packed value
+   */
+  default <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    log(identifier, struct.unpack(packed.duplicate().order(ByteOrder.LITTLE_ENDIAN)), struct);
+  }
+
   default <S> void log(String identifier, Collection<S> value, Struct<S> struct) {
     @SuppressWarnings("unchecked")
     S[] array = (S[]) value.toArray();
@@ -2,6 +2,7 @@ package dev.slfc.epilogue.logging;
 
 import static edu.wpi.first.util.ErrorMessages.requireNonNullParam;
 
+import dev.slfc.epilogue.logging.wpilog.WPILogFormat;
 import edu.wpi.first.util.datalog.BooleanArrayLogEntry;
 import edu.wpi.first.util.datalog.BooleanLogEntry;
 import edu.wpi.first.util.datalog.DataLog;
@@ -19,17 +20,20 @@ import edu.wpi.first.util.datalog.StructArrayLogEntry;
 import edu.wpi.first.util.datalog.StructLogEntry;
 import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.util.struct.StructSerializable;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 /**
  * A data logger implementation that saves information to a WPILib {@link DataLog} file on disk.
+ * This logger is thread safe.
  */
 public class FileLogger implements DataLogger {
   private final DataLog dataLog;
-  private final Map<String, DataLogEntry> entries = new HashMap<>();
-  private final Map<String, SubLogger> subLoggers = new HashMap<>();
+  private final Map<String, DataLogEntry> entries = new ConcurrentHashMap<>();
+  private final Map<String, SubLogger> subLoggers = new ConcurrentHashMap<>();
 
   /**
    * Creates a new file logger.
@@ -54,9 +58,32 @@ public class FileLogger implements DataLogger {
       return (E) entry;
     }
 
-    var entry = ctor.apply(dataLog, identifier);
-    entries.put(identifier, entry);
-    return entry;
+    // Only the first thread to log to a new entry creates it; any others wait for it to be created
+    return (E) entries.computeIfAbsent(identifier, k -> ctor.apply(dataLog, k));
+  }
+
+  @Override
+  public void preregister(Collection<ManifestEntry> entries) {
+    for (ManifestEntry entry : entries) {
+      BiFunction<DataLog, String, ? extends DataLogEntry> ctor = switch (entry.type()) {
+        case WPILogFormat.TYPE_BOOLEAN -> BooleanLogEntry::new;
+        case WPILogFormat.TYPE_INT64 -> IntegerLogEntry::new;
+        case WPILogFormat.TYPE_FLOAT -> FloatLogEntry::new;
+        case WPILogFormat.TYPE_DOUBLE -> DoubleLogEntry::new;
+        case WPILogFormat.TYPE_STRING -> StringLogEntry::new;
+        case WPILogFormat.TYPE_RAW -> RawLogEntry::new;
+        case WPILogFormat.TYPE_BOOLEAN_ARRAY -> BooleanArrayLogEntry::new;
+        case WPILogFormat.TYPE_INT64_ARRAY -> IntegerArrayLogEntry::new;
+        case WPILogFormat.TYPE_FLOAT_ARRAY -> FloatArrayLogEntry::new;
+        case WPILogFormat.TYPE_DOUBLE_ARRAY -> DoubleArrayLogEntry::new;
+        case WPILogFormat.TYPE_STRING_ARRAY -> StringArrayLogEntry::new;
+        default -> null; // Structs need their schemas, and are created when they're first logged
+      };
+
+      if (ctor != null) {
+        getEntry(entry.identifier(), ctor);
+      }
+    }
   }
 
   @Override
@@ -141,4 +168,11 @@ public class FileLogger implements DataLogger {
     dataLog.addSchema(struct);
     getEntry(identifier, (log, k) -> StructArrayLogEntry.create(log, k, struct)).append(value);
   }
+
+  @Override
+  public <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    dataLog.addSchema(struct);
+    getEntry(identifier, (log, k) -> new RawLogEntry(log, k, "", "struct:" + struct.getTypeString()))
+        .append(packed, packed.position(), packed.remaining());
+  }
 }
@@ -2,22 +2,30 @@ package dev.slfc.epilogue.logging;
 
 import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.util.struct.StructSerializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A data logger implementation that only logs data when it changes. Useful for keeping bandwidth
  * and file sizes down. However, because it still needs to check that data has changed, it cannot
  * avoid expensive sensor reads.
+ *
+ * <p>Lazy loggers are thread safe. Checking an unchanged value is lock-free; when a value does
+ * change, recording it and passing it along to the underlying logger happen atomically for that
+ * entry. Concurrent calls logging the same new value to the same entry only pass it along once,
+ * and the last value the underlying logger received for an entry is always the one recorded for
+ * it. Values logged to different entries don't block each other.
  */
 public class LazyLogger implements DataLogger {
   private final DataLogger logger;
 
   // Keep a record of the most recent value written to each entry
   // Note that this may duplicate a lot of data, and will box primitives.
-  private final Map<String, Object> previousValues = new HashMap<>();
-  private final Map<String, SubLogger> subLoggers = new HashMap<>();
+  private final Map<String, Object> previousValues = new ConcurrentHashMap<>();
+  private final Map<String, SubLogger> subLoggers = new ConcurrentHashMap<>();
 
   /**
    *
@@ -38,6 +46,11 @@ public class LazyLogger implements DataLogger {
     return subLoggers.computeIfAbsent(path, k -> new SubLogger(k, this));
   }
 
+  @Override
+  public void preregister(Collection<ManifestEntry> entries) {
+    logger.preregister(entries);
+  }
+
   @Override
   public void log(String identifier, int value) {
     var previous = previousValues.get(identifier);
@@ -47,8 +60,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof Integer oldValue && oldValue == value) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -60,8 +80,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof Long oldValue && oldValue == value) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -73,8 +100,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof Float oldValue && oldValue == value) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -86,8 +120,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof Double oldValue && oldValue == value) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -99,8 +140,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof Boolean oldValue && oldValue == value) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -112,8 +160,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof byte[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -125,8 +180,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof int[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -138,8 +200,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof long[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -151,8 +220,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof float[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -164,8 +240,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof double[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -177,8 +260,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof boolean[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -190,8 +280,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof String oldValue && oldValue.equals(value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -203,8 +300,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof String[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value);
+      return value;
+    });
   }
 
   @Override
@@ -216,8 +320,15 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value, struct);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old != null && old.equals(value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value, struct);
+      return value;
+    });
   }
 
   @Override
@@ -229,7 +340,38 @@ public class LazyLogger implements DataLogger {
       return;
     }
 
-    previousValues.put(identifier, value);
-    logger.log(identifier, value, struct);
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof Object[] oldValue && Arrays.equals(oldValue, value)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.log(identifier, value, struct);
+      return value;
+    });
+  }
+
+  @Override
+  public <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    var previous = previousValues.get(identifier);
+
+    if (previous instanceof ByteBuffer oldValue && oldValue.equals(packed)) {
+      // no change
+      return;
+    }
+
+    previousValues.compute(identifier, (k, old) -> {
+      if (old instanceof ByteBuffer oldValue && oldValue.equals(packed)) {
+        // another thread logged the same value first
+        return old;
+      }
+
+      logger.logPacked(identifier, packed, struct);
+
+      // Keep a copy, since the buffer will be reused for later values
+      var copy = ByteBuffer.allocate(packed.remaining());
+      copy.put(0, packed, packed.position(), packed.remaining());
+      return copy;
+    });
   }
 }
@@ -0,0 +1,19 @@
+package dev.slfc.epilogue.logging;
+
+/**
+ * A copy of the logged values of an object at a single point in time. Snapshots are generated
+ * for classes annotated with {@code @Epilogue(snapshot = true)}: reading the values into a
+ * snapshot happens on the thread that updates the logger, and writing the snapshot to a data
+ * logger happens later on a background thread.
+ *
+ * @see SnapshotBuffer
+ */
+@FunctionalInterface
+public interface LogSnapshot {
+  /**
+   * Logs the values in this snapshot.
+   *
+   * @param dataLogger the data logger to write to
+   */
+  void writeTo(DataLogger dataLogger);
+}
@@ -0,0 +1,25 @@
+package dev.slfc.epilogue.logging;
+
+import dev.slfc.epilogue.Epilogue;
+
+/**
+ * An entry that generated loggers log to, as listed in the manifest the annotation processor
+ * generates. Data loggers use these to create their entries at startup instead of during the
+ * first logging cycle; see {@link DataLogger#preregister(java.util.Collection)}.
+ *
+ * @param identifier the identifier of the entry, relative to the data logger it's registered with
+ * @param type the data log type of the entry, such as {@code "double"} or {@code "string[]"}. See
+ *             {@link dev.slfc.epilogue.logging.wpilog.WPILogFormat WPILogFormat} for the types
+ * @param importance the lowest importance level at which the entry is logged
+ */
+public record ManifestEntry(String identifier, String type, Epilogue.Importance importance) {
+  /**
+   * Creates a copy of this entry with a prefix added to its identifier.
+   *
+   * @param prefix the prefix to add, such as {@code "Robot/"}
+   * @return the prefixed entry
+   */
+  public ManifestEntry withPrefix(String prefix) {
+    return new ManifestEntry(prefix + identifier, type, importance);
+  }
+}
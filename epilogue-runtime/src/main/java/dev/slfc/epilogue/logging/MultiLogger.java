@@ -2,18 +2,19 @@ package dev.slfc.epilogue.logging;
 
 import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.util.struct.StructSerializable;
+import java.nio.ByteBuffer;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A data logger implementation that delegates to other loggers. Helpful for simultaneous logging
- * to multiple data stores at once.
+ * to multiple data stores at once. Multi loggers are as thread safe as the loggers they delegate to.
  */
 public class MultiLogger implements DataLogger {
   private final List<DataLogger> loggers;
-  private final Map<String, SubLogger> subLoggers = new HashMap<>();
+  private final Map<String, SubLogger> subLoggers = new ConcurrentHashMap<>();
 
   public MultiLogger(DataLogger... loggers) {
     this.loggers = List.of(loggers);
@@ -28,6 +29,13 @@ public class MultiLogger implements DataLogger {
     return subLoggers.computeIfAbsent(path, k -> new SubLogger(k, this));
   }
 
+  @Override
+  public void preregister(Collection<ManifestEntry> entries) {
+    for (DataLogger logger : loggers) {
+      logger.preregister(entries);
+    }
+  }
+
   @Override
   public void log(String identifier, int value) {
     for (DataLogger logger : loggers) {
@@ -132,4 +140,11 @@ public class MultiLogger implements DataLogger {
       logger.log(identifier, value, struct);
     }
   }
+
+  @Override
+  public <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    for (DataLogger logger : loggers) {
+      logger.logPacked(identifier, packed, struct);
+    }
+  }
 }
@@ -1,5 +1,6 @@
 package dev.slfc.epilogue.logging;
 
+import dev.slfc.epilogue.logging.wpilog.WPILogFormat;
 import edu.wpi.first.networktables.BooleanArrayPublisher;
 import edu.wpi.first.networktables.BooleanPublisher;
 import edu.wpi.first.networktables.DoubleArrayPublisher;
@@ -8,6 +9,7 @@ import edu.wpi.first.networktables.FloatArrayPublisher;
 import edu.wpi.first.networktables.FloatPublisher;
 import edu.wpi.first.networktables.IntegerArrayPublisher;
 import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTableEvent;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.Publisher;
 import edu.wpi.first.networktables.RawPublisher;
@@ -17,21 +19,33 @@ import edu.wpi.first.networktables.StructArrayPublisher;
 import edu.wpi.first.networktables.StructPublisher;
 import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.util.struct.StructSerializable;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * A data logger implementation that sends data over network tables. Be careful when using this,
- * since sending too much data may cause bandwidth or CPU starvation.
+ * since sending too much data may cause bandwidth or CPU starvation. This logger is thread safe.
+ *
+ * <p>Data that's only logged once, like {@code @Epilogue(once = true)} elements, is logged again
+ * whenever a new network tables connection is made, so clients that connect late still see it.
  */
 public class NTDataLogger implements DataLogger {
   private final NetworkTableInstance nt;
 
-  private final Map<String, Publisher> publishers = new HashMap<>();
-  private final Map<String, SubLogger> subLoggers = new HashMap<>();
+  private final Map<String, Publisher> publishers = new ConcurrentHashMap<>();
+  private final Map<String, SubLogger> subLoggers = new ConcurrentHashMap<>();
 
   public NTDataLogger(NetworkTableInstance nt) {
     this.nt = nt;
+
+    nt.addConnectionListener(false, event -> {
+      if (event.is(NetworkTableEvent.Kind.kConnected)) {
+        ClassSpecificLogger.relogOnce();
+      }
+    });
   }
 
   @Override
@@ -39,6 +53,30 @@ public class NTDataLogger implements DataLogger {
     return subLoggers.computeIfAbsent(path, k -> new SubLogger(k, this));
   }
 
+  @Override
+  public void preregister(Collection<ManifestEntry> entries) {
+    for (ManifestEntry entry : entries) {
+      Function<String, Publisher> publish = switch (entry.type()) {
+        case WPILogFormat.TYPE_BOOLEAN -> k -> nt.getBooleanTopic(k).publish();
+        case WPILogFormat.TYPE_INT64 -> k -> nt.getIntegerTopic(k).publish();
+        case WPILogFormat.TYPE_FLOAT -> k -> nt.getFloatTopic(k).publish();
+        case WPILogFormat.TYPE_DOUBLE -> k -> nt.getDoubleTopic(k).publish();
+        case WPILogFormat.TYPE_STRING -> k -> nt.getStringTopic(k).publish();
+        case WPILogFormat.TYPE_RAW -> k -> nt.getRawTopic(k).publish("raw");
+        case WPILogFormat.TYPE_BOOLEAN_ARRAY -> k -> nt.getBooleanArrayTopic(k).publish();
+        case WPILogFormat.TYPE_INT64_ARRAY -> k -> nt.getIntegerArrayTopic(k).publish();
+        case WPILogFormat.TYPE_FLOAT_ARRAY -> k -> nt.getFloatArrayTopic(k).publish();
+        case WPILogFormat.TYPE_DOUBLE_ARRAY -> k -> nt.getDoubleArrayTopic(k).publish();
+        case WPILogFormat.TYPE_STRING_ARRAY -> k -> nt.getStringArrayTopic(k).publish();
+        default -> null; // Structs need their schemas, and are published when they're first logged
+      };
+
+      if (publish != null) {
+        publishers.computeIfAbsent(entry.identifier(), publish);
+      }
+    }
+  }
+
   @Override
   public void log(String identifier, int value) {
     ((IntegerPublisher) publishers.computeIfAbsent(identifier, k -> nt.getIntegerTopic(k).publish()))
@@ -137,4 +175,11 @@ public class NTDataLogger implements DataLogger {
     ((StructArrayPublisher<S>) publishers.computeIfAbsent(identifier, k -> nt.getStructArrayTopic(k, struct).publish()))
         .set(value);
   }
+
+  @Override
+  public <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    nt.addSchema(struct);
+    ((RawPublisher) publishers.computeIfAbsent(identifier, k -> nt.getRawTopic(k).publish("struct:" + struct.getTypeString())))
+        .set(packed, packed.position(), packed.remaining());
+  }
 }
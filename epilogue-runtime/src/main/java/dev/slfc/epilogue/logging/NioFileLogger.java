@@ -0,0 +1,259 @@
+package dev.slfc.epilogue.logging;
+
+import static edu.wpi.first.util.ErrorMessages.requireNonNullParam;
+
+import dev.slfc.epilogue.logging.wpilog.WPILogFormat;
+import dev.slfc.epilogue.logging.wpilog.WPILogWriter;
+import edu.wpi.first.util.struct.Struct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A data logger implementation that writes a WPILib data log (.wpilog) file on disk without
+ * using the native {@link edu.wpi.first.util.datalog.DataLog DataLog}. Values are encoded in pure
+ * Java into a direct buffer and written to disk in batches, which avoids the cost of a JNI call
+ * for every logged value that {@link FileLogger} incurs. The files it writes can be opened in
+ * AdvantageScope and read with WPILib's {@code DataLogReader}.
+ *
+ * <p>Buffered data is written to disk whenever the buffer fills up and at most every
+ * {@link #kFlushPeriodMicros} microseconds. Call {@link #close()} when done logging to write any
+ * remaining data.
+ *
+ * <p>This logger is thread safe. Since every record is encoded into the same buffer, logging calls
+ * are serialized with a lock; the lock is only held for as long as it takes to copy a value into
+ * the buffer (or, rarely, to hand a full buffer off to the operating system).
+ */
+public class NioFileLogger implements DataLogger, AutoCloseable {
+  /**
+   * The maximum amount of time buffered data will be held in memory before being written to disk.
+   */
+  public static final long kFlushPeriodMicros = 250_000;
+
+  private record Entry(int id, String type) {}
+
+  private final WPILogWriter writer;
+  private final LongSupplier timestampMicros;
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final Set<String> schemas = new HashSet<>();
+  private final Map<String, SubLogger> subLoggers = new ConcurrentHashMap<>();
+  private long lastFlush;
+
+  /**
+   * Creates a new logger that writes to a file at the given path. Timestamps are measured in
+   * microseconds from the time the logger is created.
+   *
+   * @param path the path of the file to write to. Existing files will be overwritten
+   * @throws IOException if the file could not be opened
+   */
+  public NioFileLogger(Path path) throws IOException {
+    this(new WPILogWriter(path), relativeClock());
+  }
+
+  /**
+   * Creates a new logger.
+   *
+   * @param writer the writer to write log records with
+   * @param timestampMicros the source of timestamps for logged values, in microseconds
+   */
+  public NioFileLogger(WPILogWriter writer, LongSupplier timestampMicros) {
+    this.writer = requireNonNullParam(writer, "writer", "NioFileLogger");
+    this.timestampMicros =
+        requireNonNullParam(timestampMicros, "timestampMicros", "NioFileLogger");
+    this.lastFlush = timestampMicros.getAsLong();
+  }
+
+  private static LongSupplier relativeClock() {
+    long start = System.nanoTime();
+    return () -> (System.nanoTime() - start) / 1000;
+  }
+
+  @Override
+  public DataLogger getSubLogger(String path) {
+    return subLoggers.computeIfAbsent(path, k -> new SubLogger(k, this));
+  }
+
+  private int getEntry(String identifier, String type, long timestamp) {
+    var entry = entries.get(identifier);
+    if (entry == null) {
+      entry = new Entry(writer.start(identifier, type, "", timestamp), type);
+      entries.put(identifier, entry);
+    } else if (!entry.type().equals(type)) {
+      throw new IllegalStateException(
+          "Entry " + identifier + " has type " + entry.type() + ", cannot log a " + type + " to it"
+      );
+    }
+    return entry.id();
+  }
+
+  private void addSchema(Struct<?> struct, long timestamp) {
+    String type = "struct:" + struct.getTypeString();
+    if (!schemas.add(type)) {
+      // Already written
+      return;
+    }
+
+    for (Struct<?> nested : struct.getNested()) {
+      addSchema(nested, timestamp);
+    }
+
+    int entry = writer.start(
+        WPILogFormat.SCHEMA_ENTRY_PREFIX + type,
+        WPILogFormat.TYPE_STRUCT_SCHEMA,
+        "",
+        timestamp
+    );
+    writer.appendString(entry, struct.getSchema(), timestamp);
+  }
+
+  private long now() {
+    long timestamp = timestampMicros.getAsLong();
+    if (timestamp - lastFlush >= kFlushPeriodMicros) {
+      writer.flush();
+      lastFlush = timestamp;
+    }
+    return timestamp;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Every entry is started in one batch, with the same timestamp.
+   */
+  @Override
+  public synchronized void preregister(Collection<ManifestEntry> entries) {
+    long t = now();
+    for (ManifestEntry entry : entries) {
+      if (entry.type().startsWith("struct:")) {
+        // Needs its schema, which isn't known until it's logged
+        continue;
+      }
+      getEntry(entry.identifier(), entry.type(), t);
+    }
+  }
+
+  @Override
+  public synchronized void log(String identifier, int value) {
+    log(identifier, (long) value);
+  }
+
+  @Override
+  public synchronized void log(String identifier, long value) {
+    long t = now();
+    writer.appendInteger(getEntry(identifier, WPILogFormat.TYPE_INT64, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, float value) {
+    long t = now();
+    writer.appendFloat(getEntry(identifier, WPILogFormat.TYPE_FLOAT, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, double value) {
+    long t = now();
+    writer.appendDouble(getEntry(identifier, WPILogFormat.TYPE_DOUBLE, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, boolean value) {
+    long t = now();
+    writer.appendBoolean(getEntry(identifier, WPILogFormat.TYPE_BOOLEAN, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, byte[] value) {
+    long t = now();
+    writer.appendRaw(getEntry(identifier, WPILogFormat.TYPE_RAW, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, int[] value) {
+    long t = now();
+    writer.appendIntegerArray(getEntry(identifier, WPILogFormat.TYPE_INT64_ARRAY, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, long[] value) {
+    long t = now();
+    writer.appendIntegerArray(getEntry(identifier, WPILogFormat.TYPE_INT64_ARRAY, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, float[] value) {
+    long t = now();
+    writer.appendFloatArray(getEntry(identifier, WPILogFormat.TYPE_FLOAT_ARRAY, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, double[] value) {
+    long t = now();
+    writer.appendDoubleArray(getEntry(identifier, WPILogFormat.TYPE_DOUBLE_ARRAY, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, boolean[] value) {
+    long t = now();
+    writer.appendBooleanArray(getEntry(identifier, WPILogFormat.TYPE_BOOLEAN_ARRAY, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, String value) {
+    long t = now();
+    writer.appendString(getEntry(identifier, WPILogFormat.TYPE_STRING, t), value, t);
+  }
+
+  @Override
+  public synchronized void log(String identifier, String[] value) {
+    long t = now();
+    writer.appendStringArray(getEntry(identifier, WPILogFormat.TYPE_STRING_ARRAY, t), value, t);
+  }
+
+  @Override
+  public synchronized <S> void log(String identifier, S value, Struct<S> struct) {
+    long t = now();
+    addSchema(struct, t);
+    int entry = getEntry(identifier, "struct:" + struct.getTypeString(), t);
+    writer.appendStruct(entry, value, struct, t);
+  }
+
+  @Override
+  public synchronized <S> void log(String identifier, S[] value, Struct<S> struct) {
+    long t = now();
+    addSchema(struct, t);
+    int entry = getEntry(identifier, "struct:" + struct.getTypeString() + "[]", t);
+    writer.appendStructArray(entry, value, struct, t);
+  }
+
+  @Override
+  public synchronized <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    long t = now();
+    addSchema(struct, t);
+    int entry = getEntry(identifier, "struct:" + struct.getTypeString(), t);
+    writer.appendRaw(entry, packed, t);
+  }
+
+  /**
+   * Writes all buffered data to disk.
+   */
+  public synchronized void flush() {
+    writer.flush();
+    lastFlush = timestampMicros.getAsLong();
+  }
+
+  /**
+   * Writes all buffered data to disk and closes the log file. No more data may be logged after the
+   * logger is closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+}
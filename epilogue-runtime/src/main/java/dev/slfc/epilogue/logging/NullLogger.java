@@ -2,6 +2,7 @@ package dev.slfc.epilogue.logging;
 
 import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.util.struct.StructSerializable;
+import java.nio.ByteBuffer;
 
 /**
  * Null data logger implementation that logs nothing.
@@ -88,4 +89,9 @@ public class NullLogger implements DataLogger {
   public <S> void log(String identifier, S[] value, Struct<S> struct) {
 
   }
+
+  @Override
+  public <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+
+  }
 }
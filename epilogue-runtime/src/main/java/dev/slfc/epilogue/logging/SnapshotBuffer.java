@@ -0,0 +1,97 @@
+package dev.slfc.epilogue.logging;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hands snapshots of logged objects off from the thread that reads them to a background thread
+ * that writes them to a data logger. Snapshots are triple buffered: the reading thread always has
+ * a snapshot of its own to fill in, the writing thread always has one of its own to write from,
+ * and the third holds the most recently published snapshot until the writer picks it up. Neither
+ * thread ever waits on the other, and no snapshots are allocated after the buffer is created. If
+ * snapshots are published faster than they can be written, the writer skips to the latest one.
+ *
+ * <p>Only one thread may fill in and publish snapshots at a time.
+ *
+ * @param <S> the type of snapshots in the buffer
+ */
+public final class SnapshotBuffer<S extends LogSnapshot> {
+  // The low bits of the state hold the index of the shared snapshot; this bit is set when the
+  // shared snapshot has been published but not yet written
+  private static final int kIndexMask = 0b011;
+  private static final int kUnwritten = 0b100;
+
+  private final DataLogger dataLogger;
+  private final LogSnapshot[] snapshots;
+  private final AtomicInteger state = new AtomicInteger(1);
+  private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+  private final Object writeLock = new Object();
+
+  // Only accessed by the thread publishing snapshots
+  private int fillIndex = 0;
+
+  // Only accessed while holding the write lock
+  private int writeIndex = 2;
+
+  /**
+   * Creates a new snapshot buffer.
+   *
+   * @param dataLogger the data logger to write snapshots to
+   * @param factory creates empty snapshots
+   */
+  public SnapshotBuffer(DataLogger dataLogger, Supplier<S> factory) {
+    this.dataLogger = dataLogger;
+    this.snapshots = new LogSnapshot[] {factory.get(), factory.get(), factory.get()};
+  }
+
+  /**
+   * Gets the snapshot to fill in with the current values of the logged object. The same snapshot
+   * is returned until {@link #publish} is called. Snapshots are reused, so values from a previous
+   * cycle may still be present.
+   */
+  @SuppressWarnings("unchecked")
+  public S getFillSnapshot() {
+    return (S) snapshots[fillIndex];
+  }
+
+  /**
+   * Publishes the filled-in snapshot and schedules it to be written to the data logger. If an
+   * earlier snapshot hasn't been written yet, it's discarded in favor of the new one.
+   *
+   * @param executor the executor to write the snapshot on
+   * @param errorHandler called with any exceptions raised while writing the snapshot
+   */
+  public void publish(Executor executor, Consumer<Exception> errorHandler) {
+    int previous = state.getAndSet(fillIndex | kUnwritten);
+    fillIndex = previous & kIndexMask;
+
+    if (writeScheduled.compareAndSet(false, true)) {
+      executor.execute(() -> write(errorHandler));
+    }
+  }
+
+  private void write(Consumer<Exception> errorHandler) {
+    synchronized (writeLock) {
+      // Cleared before taking the snapshot, so anything published after this point schedules
+      // another write
+      writeScheduled.set(false);
+
+      if ((state.get() & kUnwritten) == 0) {
+        // Already written by an earlier task
+        return;
+      }
+
+      int previous = state.getAndSet(writeIndex);
+      writeIndex = previous & kIndexMask;
+
+      try {
+        snapshots[writeIndex].writeTo(dataLogger);
+      } catch (Exception e) {
+        errorHandler.accept(e);
+      }
+    }
+  }
+}
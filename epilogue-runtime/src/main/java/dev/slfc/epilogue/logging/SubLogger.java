@@ -2,13 +2,20 @@ package dev.slfc.epilogue.logging;
 
 import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.util.struct.StructSerializable;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SubLogger implements DataLogger {
   private final String prefix;
+  private final String path;
   private final DataLogger impl;
-  private final Map<String, SubLogger> subLoggers = new HashMap<>();
+  private final Map<String, SubLogger> subLoggers = new ConcurrentHashMap<>();
+
+  // The state of the class-specific logger that logs to this path, cached here so it doesn't need
+  // to be looked up on every update. Only used by ClassSpecificLogger
+  volatile ClassSpecificLogger.PathState pathState;
 
   public SubLogger(String prefix, DataLogger impl) {
     // Add a trailing slash if not already present
@@ -18,6 +25,18 @@ public class SubLogger implements DataLogger {
       this.prefix = prefix + "/";
     }
     this.impl = impl;
+
+    // Computed once up front, since sub loggers are cached and reused for every update
+    String fullPrefix = impl instanceof SubLogger parent ? parent.path + "/" + this.prefix : this.prefix;
+    this.path = fullPrefix.substring(0, fullPrefix.length() - 1);
+  }
+
+  /**
+   * Gets the full path of the data logged by this logger, including the prefixes of any parent
+   * sub loggers; for example, {@code "Robot/drivetrain/gyro"}.
+   */
+  public String getPath() {
+    return path;
   }
 
   @Override
@@ -25,6 +44,11 @@ public class SubLogger implements DataLogger {
     return subLoggers.computeIfAbsent(path, k -> new SubLogger(k, this));
   }
 
+  @Override
+  public void preregister(Collection<ManifestEntry> entries) {
+    impl.preregister(entries.stream().map(e -> e.withPrefix(prefix)).toList());
+  }
+
   @Override
   public void log(String identifier, int value) {
     impl.log(prefix + identifier, value);
@@ -99,4 +123,9 @@ public class SubLogger implements DataLogger {
   public <S> void log(String identifier, S[] value, Struct<S> struct) {
     impl.log(prefix + identifier, value, struct);
   }
+
+  @Override
+  public <S> void logPacked(String identifier, ByteBuffer packed, Struct<S> struct) {
+    impl.logPacked(prefix + identifier, packed, struct);
+  }
 }
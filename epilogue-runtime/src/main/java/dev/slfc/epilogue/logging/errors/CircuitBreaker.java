@@ -0,0 +1,134 @@
+package dev.slfc.epilogue.logging.errors;
+
+import dev.slfc.epilogue.logging.ClassSpecificLogger;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * An error handler that temporarily disables loggers that keep failing, then automatically tries
+ * them again. Useful for loggers that read from devices that may be disconnected for a while, like
+ * a motor controller on a loose CAN connection: while the device is gone its logger is skipped
+ * without throwing any exceptions, and logging resumes on its own once the device is back.
+ *
+ * <p>A logger is disabled for the initial backoff period once it raises more than
+ * {@code threshold} errors. After the backoff period, the logger gets a single retry. If the retry
+ * fails, the logger is disabled again for twice as long as before, up to the maximum backoff
+ * period. If the logger runs without errors for a full backoff period after it's retried, it's
+ * considered to have recovered, and its error count and backoff period are reset.
+ */
+public class CircuitBreaker implements ErrorHandler {
+  private final int threshold;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+  private final LongSupplier nanoTime;
+  private final PrintStream out;
+  private final Map<ClassSpecificLogger<?>, State> states = new ConcurrentHashMap<>();
+
+  /**
+   * The breaker state of a single logger.
+   */
+  private static final class State {
+    private int errorCount;
+    private boolean tripped;
+    private long backoffNanos;
+    private long retryTime;
+  }
+
+  /**
+   * Creates a new circuit breaker.
+   *
+   * @param threshold the number of errors a logger may raise before it's disabled. Set to 0 to
+   *                  disable loggers on their first error
+   * @param initialBackoffSeconds how long to disable a logger for the first time it fails
+   * @param maxBackoffSeconds the longest a logger may be disabled for at a time
+   */
+  public CircuitBreaker(int threshold, double initialBackoffSeconds, double maxBackoffSeconds) {
+    this(threshold, initialBackoffSeconds, maxBackoffSeconds, System::nanoTime, System.err);
+  }
+
+  CircuitBreaker(
+      int threshold,
+      double initialBackoffSeconds,
+      double maxBackoffSeconds,
+      LongSupplier nanoTime,
+      PrintStream out) {
+    if (initialBackoffSeconds <= 0) {
+      throw new IllegalArgumentException(
+          "Initial backoff must be positive, but was " + initialBackoffSeconds
+      );
+    }
+    if (maxBackoffSeconds < initialBackoffSeconds) {
+      throw new IllegalArgumentException(
+          "Maximum backoff (" + maxBackoffSeconds + ") must be at least the initial backoff ("
+              + initialBackoffSeconds + ")"
+      );
+    }
+
+    this.threshold = threshold;
+    this.initialBackoffNanos = (long) (initialBackoffSeconds * 1e9);
+    this.maxBackoffNanos = (long) (maxBackoffSeconds * 1e9);
+    this.nanoTime = nanoTime;
+    this.out = out;
+  }
+
+  @Override
+  public void handle(Throwable exception, ClassSpecificLogger<?> logger) {
+    long now = nanoTime.getAsLong();
+    var state = states.computeIfAbsent(logger, k -> new State());
+
+    synchronized (state) {
+      if (state.tripped) {
+        if (now - state.retryTime < 0) {
+          // An update that was already running when the logger was disabled. Not a retry
+          return;
+        }
+
+        if (now - state.retryTime < state.backoffNanos) {
+          // The retry failed. Back off for longer
+          state.backoffNanos = Math.min(state.backoffNanos * 2, maxBackoffNanos);
+          trip(state, logger, exception, now);
+          return;
+        }
+
+        // Ran cleanly for a full backoff period after the retry. Treat this as a new failure
+        state.tripped = false;
+        state.errorCount = 0;
+      }
+
+      state.errorCount++;
+      if (state.errorCount > threshold) {
+        state.tripped = true;
+        state.backoffNanos = initialBackoffNanos;
+        trip(state, logger, exception, now);
+      }
+    }
+  }
+
+  private void trip(State state, ClassSpecificLogger<?> logger, Throwable exception, long now) {
+    // Measured by the same clock as the retry time, so the logger is reenabled exactly when it's
+    // due for a retry
+    state.retryTime = now + state.backoffNanos;
+    logger.disableUntil(state.retryTime, nanoTime);
+
+    out.println(
+        "[EPILOGUE] Disabling the logger for "
+            + logger.getLoggedType().getName()
+            + " for "
+            + (state.backoffNanos / 1e9)
+            + " seconds after an error: "
+            + exception
+    );
+  }
+
+  /**
+   * Resets all error counts and reenables all loggers.
+   */
+  public void reset() {
+    for (var logger : states.keySet()) {
+      logger.reenable();
+    }
+    states.clear();
+  }
+}
@@ -0,0 +1,223 @@
+package dev.slfc.epilogue.logging.errors;
+
+import dev.slfc.epilogue.logging.ClassSpecificLogger;
+import dev.slfc.epilogue.logging.DataLogger;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * An error handler that counts errors instead of printing every one of them. The first error of
+ * each type raised by a logger is printed right away; repeats of it are suppressed and only
+ * reported in a summary that is printed at most once per summary period. This keeps a logger that
+ * fails on every loop from flooding the console, which is slow enough on a roboRIO to cause loop
+ * overruns on its own.
+ *
+ * <p>Summaries are printed once the summary period has elapsed, either when the next error is
+ * handled or from {@link #periodic(DataLogger)}, which {@code Epiloguer.bind()} calls every loop.
+ * This way a burst of errors is still reported after the errors stop. Call {@link #printSummary()}
+ * to print one on demand, for example when the robot is disabled.
+ *
+ * <p>Error counts are kept for the lifetime of the handler and can be read at any time. They're
+ * also published every loop, as {@code Errors} and {@code Suppressed Errors} under
+ * {@code Epilogue/Stats}.
+ */
+public class ErrorAggregator implements ErrorHandler {
+  /**
+   * The default amount of time between error summaries.
+   */
+  public static final double kDefaultSummaryPeriodSeconds = 5;
+
+  /**
+   * Counts for one type of exception raised by one logger.
+   */
+  private static final class ErrorCount {
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sinceSummary = new AtomicLong();
+  }
+
+  /**
+   * All error counts for one logger. Allocated the first time the logger raises an error, along
+   * with the counts for the type of that error. Loggers that fail on every loop almost always
+   * raise the same type of error each time, so repeats are counted without any map updates or
+   * allocations.
+   */
+  private static final class LoggerErrors {
+    private final AtomicLong total = new AtomicLong();
+    private final Map<Class<?>, ErrorCount> byType = new ConcurrentHashMap<>();
+    private final AtomicReference<Class<?>> firstType = new AtomicReference<>();
+    private final ErrorCount firstCount = new ErrorCount();
+
+    private ErrorCount countFor(Class<?> type) {
+      if (firstType.get() == type) {
+        return firstCount;
+      }
+
+      if (firstType.compareAndSet(null, type)) {
+        byType.put(type, firstCount);
+        return firstCount;
+      }
+
+      if (firstType.get() == type) {
+        // Another thread claimed the preallocated counts for the same type
+        return firstCount;
+      }
+
+      return byType.computeIfAbsent(type, k -> new ErrorCount());
+    }
+  }
+
+  private final long summaryPeriodNanos;
+  private final LongSupplier nanoTime;
+  private final PrintStream out;
+  private final Map<ClassSpecificLogger<?>, LoggerErrors> errors = new ConcurrentHashMap<>();
+  private final AtomicLong totalErrors = new AtomicLong();
+  private final AtomicLong suppressedErrors = new AtomicLong();
+  private final AtomicLong lastSummary;
+
+  /**
+   * Creates a new error aggregator that prints to {@link System#err}.
+   *
+   * @param summaryPeriodSeconds the minimum amount of time between error summaries, in seconds
+   */
+  public ErrorAggregator(double summaryPeriodSeconds) {
+    this(summaryPeriodSeconds, System::nanoTime, System.err);
+  }
+
+  ErrorAggregator(double summaryPeriodSeconds, LongSupplier nanoTime, PrintStream out) {
+    if (summaryPeriodSeconds <= 0) {
+      throw new IllegalArgumentException(
+          "Summary period must be positive, but was " + summaryPeriodSeconds
+      );
+    }
+
+    this.summaryPeriodNanos = (long) (summaryPeriodSeconds * 1e9);
+    this.nanoTime = nanoTime;
+    this.out = out;
+    this.lastSummary = new AtomicLong(nanoTime.getAsLong());
+  }
+
+  @Override
+  public void handle(Throwable exception, ClassSpecificLogger<?> logger) {
+    var loggerErrors = errors.get(logger);
+    if (loggerErrors == null) {
+      loggerErrors = errors.computeIfAbsent(logger, k -> new LoggerErrors());
+    }
+    var count = loggerErrors.countFor(exception.getClass());
+
+    totalErrors.incrementAndGet();
+    loggerErrors.total.incrementAndGet();
+    count.sinceSummary.incrementAndGet();
+
+    if (count.total.incrementAndGet() == 1) {
+      // First time seeing this error from this logger, report it right away
+      out.println(
+          "[EPILOGUE] An error occurred while logging an instance of "
+              + logger.getLoggedType().getName()
+              + ": "
+              + exception
+              + ". Repeats of this error will be summarized."
+      );
+    } else {
+      suppressedErrors.incrementAndGet();
+    }
+
+    printSummaryIfDue();
+  }
+
+  /**
+   * Prints a summary if the summary period has elapsed, and publishes the error counts.
+   *
+   * @param stats the data logger for Epilogue's own statistics
+   */
+  @Override
+  public void periodic(DataLogger stats) {
+    printSummaryIfDue();
+    stats.log("Errors", totalErrors.get());
+    stats.log("Suppressed Errors", suppressedErrors.get());
+  }
+
+  private void printSummaryIfDue() {
+    long now = nanoTime.getAsLong();
+    long last = lastSummary.get();
+    if (now - last >= summaryPeriodNanos && lastSummary.compareAndSet(last, now)) {
+      // Only one thread wins the race to print the summary
+      printSummary();
+    }
+  }
+
+  /**
+   * Prints a summary of every error that occurred since the previous summary, grouped by logged
+   * type and exception class. Nothing is printed if there have been no errors.
+   */
+  public void printSummary() {
+    var summary = new StringBuilder();
+
+    errors.forEach((logger, loggerErrors) -> {
+      loggerErrors.byType.forEach((type, count) -> {
+        long recent = count.sinceSummary.getAndSet(0);
+        if (recent > 0) {
+          summary
+              .append("\n  ")
+              .append(logger.getLoggedType().getName())
+              .append(": ")
+              .append(type.getName())
+              .append(" x")
+              .append(recent)
+              .append(" (")
+              .append(count.total.get())
+              .append(" total)");
+        }
+      });
+    });
+
+    if (!summary.isEmpty()) {
+      out.println("[EPILOGUE] Logging errors since the last summary:" + summary);
+    }
+  }
+
+  /**
+   * Gets the total number of errors handled.
+   */
+  public long getErrorCount() {
+    return totalErrors.get();
+  }
+
+  /**
+   * Gets the number of errors raised by a specific logger.
+   *
+   * @param logger the logger to get the error count of
+   */
+  public long getErrorCount(ClassSpecificLogger<?> logger) {
+    var loggerErrors = errors.get(logger);
+    return loggerErrors == null ? 0 : loggerErrors.total.get();
+  }
+
+  /**
+   * Gets the number of errors of a specific type raised by a specific logger. Subclasses of the
+   * exception type are counted separately.
+   *
+   * @param logger the logger to get the error count of
+   * @param exceptionType the type of exception to count
+   */
+  public long getErrorCount(ClassSpecificLogger<?> logger, Class<? extends Throwable> exceptionType) {
+    var loggerErrors = errors.get(logger);
+    if (loggerErrors == null) {
+      return 0;
+    }
+
+    var count = loggerErrors.byType.get(exceptionType);
+    return count == null ? 0 : count.total.get();
+  }
+
+  /**
+   * Gets the number of errors that were not printed when they were handled. These are only
+   * reported in summaries.
+   */
+  public long getSuppressedCount() {
+    return suppressedErrors.get();
+  }
+}
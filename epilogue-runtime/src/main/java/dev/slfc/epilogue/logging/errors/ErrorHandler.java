@@ -1,11 +1,22 @@
 package dev.slfc.epilogue.logging.errors;
 
 import dev.slfc.epilogue.logging.ClassSpecificLogger;
+import dev.slfc.epilogue.logging.DataLogger;
 
 @FunctionalInterface
 public interface ErrorHandler {
   void handle(Throwable exception, ClassSpecificLogger<?> logger);
 
+  /**
+   * Called once per robot loop by {@code Epiloguer.bind()}, after the robot has been logged.
+   * Handlers that report errors in batches can use this to report them without waiting for
+   * another error to be raised.
+   *
+   * @param stats the data logger for Epilogue's own statistics
+   */
+  default void periodic(DataLogger stats) {
+  }
+
   static ErrorHandler crashOnError() {
     return new CrashOnError();
   }
@@ -17,4 +28,13 @@ public interface ErrorHandler {
   static ErrorHandler disabling(int maximumPermissibleErrors) {
     return new LoggerDisabler(maximumPermissibleErrors);
   }
+
+  static ErrorHandler circuitBreaker(
+      int threshold, double initialBackoffSeconds, double maxBackoffSeconds) {
+    return new CircuitBreaker(threshold, initialBackoffSeconds, maxBackoffSeconds);
+  }
+
+  static ErrorHandler aggregating(double summaryPeriodSeconds) {
+    return new ErrorAggregator(summaryPeriodSeconds);
+  }
 }
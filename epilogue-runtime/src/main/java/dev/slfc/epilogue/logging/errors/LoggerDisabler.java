@@ -1,8 +1,9 @@
 package dev.slfc.epilogue.logging.errors;
 
 import dev.slfc.epilogue.logging.ClassSpecificLogger;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An error handler that disables loggers after too many exceptions are raised. Useful when playing
@@ -14,7 +15,7 @@ import java.util.Map;
  */
 public class LoggerDisabler implements ErrorHandler {
   private final int threshold;
-  private final Map<ClassSpecificLogger<?>, Integer> errorCounts = new HashMap<>();
+  private final Map<ClassSpecificLogger<?>, AtomicInteger> errorCounts = new ConcurrentHashMap<>();
 
   public LoggerDisabler(int threshold) {
     this.threshold = threshold;
@@ -31,8 +32,9 @@ public class LoggerDisabler implements ErrorHandler {
 
   @Override
   public void handle(Throwable exception, ClassSpecificLogger<?> logger) {
-    var errorCount = errorCounts.getOrDefault(logger, 0) + 1;
-    errorCounts.put(logger, errorCount);
+    // Atomic increment, in case the same logger fails on multiple threads at once. The counter is
+    // only allocated the first time a logger fails
+    var errorCount = errorCounts.computeIfAbsent(logger, k -> new AtomicInteger()).incrementAndGet();
 
     if (errorCount > threshold) {
       logger.disable();
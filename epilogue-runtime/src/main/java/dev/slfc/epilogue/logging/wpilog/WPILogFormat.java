@@ -0,0 +1,69 @@
+package dev.slfc.epilogue.logging.wpilog;
+
+/**
+ * Constants describing the WPILib data log (.wpilog) binary format, version 1.0.
+ *
+ * <p>A file starts with the ASCII magic {@code "WPILOG"}, a little-endian 16-bit version number,
+ * and a length-prefixed UTF-8 "extra header" string. The rest of the file is a sequence of
+ * records. Each record starts with a one-byte bitfield describing the byte lengths of the entry ID
+ * (bits 0-1, 1 to 4 bytes), the payload size (bits 2-3, 1 to 4 bytes), and the timestamp
+ * (bits 4-6, 1 to 8 bytes), followed by those three little-endian integers and the payload.
+ * Records for entry ID 0 are control records that start and finish entries or set entry metadata.
+ */
+public final class WPILogFormat {
+  private WPILogFormat() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * The magic bytes at the very start of every wpilog file.
+   */
+  public static final byte[] MAGIC = {'W', 'P', 'I', 'L', 'O', 'G'};
+
+  /**
+   * The format version written by Epilogue (major version in the high byte).
+   */
+  public static final short VERSION = 0x0100;
+
+  /**
+   * The length of the fixed part of the file header: the magic, the version, and the length of
+   * the extra header string.
+   */
+  public static final int HEADER_SIZE = MAGIC.length + 2 + 4;
+
+  /**
+   * The largest possible record header: the bitfield byte, a 4-byte entry ID, a 4-byte payload
+   * size, and an 8-byte timestamp.
+   */
+  public static final int MAX_RECORD_HEADER_SIZE = 1 + 4 + 4 + 8;
+
+  /**
+   * The entry ID reserved for control records.
+   */
+  public static final int CONTROL_ENTRY = 0;
+
+  public static final byte CONTROL_START = 0;
+  public static final byte CONTROL_FINISH = 1;
+  public static final byte CONTROL_SET_METADATA = 2;
+
+  // Data types understood by AdvantageScope and the WPILib log tools
+
+  public static final String TYPE_BOOLEAN = "boolean";
+  public static final String TYPE_INT64 = "int64";
+  public static final String TYPE_FLOAT = "float";
+  public static final String TYPE_DOUBLE = "double";
+  public static final String TYPE_STRING = "string";
+  public static final String TYPE_RAW = "raw";
+  public static final String TYPE_BOOLEAN_ARRAY = "boolean[]";
+  public static final String TYPE_INT64_ARRAY = "int64[]";
+  public static final String TYPE_FLOAT_ARRAY = "float[]";
+  public static final String TYPE_DOUBLE_ARRAY = "double[]";
+  public static final String TYPE_STRING_ARRAY = "string[]";
+  public static final String TYPE_STRUCT_SCHEMA = "structschema";
+
+  /**
+   * The prefix of the names of the entries that hold struct schemas, eg
+   * {@code "/.schema/struct:Pose2d"}.
+   */
+  public static final String SCHEMA_ENTRY_PREFIX = "/.schema/";
+}
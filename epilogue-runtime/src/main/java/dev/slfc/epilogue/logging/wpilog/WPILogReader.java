@@ -0,0 +1,424 @@
+package dev.slfc.epilogue.logging.wpilog;
+
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_ENTRY;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_FINISH;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_SET_METADATA;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_START;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.HEADER_SIZE;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.MAGIC;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads WPILib data log (.wpilog) files, such as those written by
+ * {@link dev.slfc.epilogue.logging.FileLogger FileLogger} and
+ * {@link dev.slfc.epilogue.logging.NioFileLogger NioFileLogger}, with random access to the records
+ * of individual entries.
+ *
+ * <p>The file is memory-mapped and indexed in a single pass when the reader is opened. The index
+ * only holds the position, size, and timestamp of every record, grouped by entry name; payloads are
+ * never copied. Instead, querying a record returns a read-only view into the mapped file. This
+ * means the cost of a query is proportional to the number of records it returns, not to the size
+ * of the file, and the operating system only pages in the parts of the file that are actually read.
+ *
+ * <p>Records of an entry are expected to be stored in timestamp order, which is true of files
+ * written by WPILib and by Epilogue. Time range queries on entries whose records are out of order
+ * may miss records.
+ */
+public final class WPILogReader {
+  /**
+   * A single data record of an entry.
+   *
+   * @param timestamp the timestamp of the record, in microseconds
+   * @param payload a read-only, little-endian view of the record payload in the mapped file
+   */
+  public record DataRecord(long timestamp, ByteBuffer payload) {
+    public boolean getBoolean() {
+      return payload.get(0) != 0;
+    }
+
+    public long getInteger() {
+      return payload.getLong(0);
+    }
+
+    public float getFloat() {
+      return payload.getFloat(0);
+    }
+
+    public double getDouble() {
+      return payload.getDouble(0);
+    }
+
+    public String getString() {
+      var bytes = new byte[payload.remaining()];
+      payload.get(0, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * The index of all the records of a single entry.
+   */
+  public static final class Entry {
+    private final String name;
+    private final String type;
+    private String metadata;
+
+    // Growable parallel arrays, one element per record
+    private int count;
+    private int[] positions = new int[16];
+    private int[] sizes = new int[16];
+    private long[] timestamps = new long[16];
+
+    private final ByteBuffer data;
+
+    private Entry(String name, String type, String metadata, ByteBuffer data) {
+      this.name = name;
+      this.type = type;
+      this.metadata = metadata;
+      this.data = data;
+    }
+
+    private void add(int position, int size, long timestamp) {
+      if (count == positions.length) {
+        positions = Arrays.copyOf(positions, count * 2);
+        sizes = Arrays.copyOf(sizes, count * 2);
+        timestamps = Arrays.copyOf(timestamps, count * 2);
+      }
+      positions[count] = position;
+      sizes[count] = size;
+      timestamps[count] = timestamp;
+      count++;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    /**
+     * Gets the most recent metadata set for the entry.
+     */
+    public String getMetadata() {
+      return metadata;
+    }
+
+    /**
+     * Gets the number of data records in the entry.
+     */
+    public int size() {
+      return count;
+    }
+
+    /**
+     * Gets the timestamp of a record.
+     *
+     * @param index the index of the record, from 0 to {@link #size()} (exclusive)
+     * @return the timestamp of the record, in microseconds
+     */
+    public long getTimestamp(int index) {
+      return timestamps[checkIndex(index)];
+    }
+
+    /**
+     * Gets a read-only, little-endian view of the payload of a record. The data is not copied.
+     *
+     * @param index the index of the record, from 0 to {@link #size()} (exclusive)
+     * @return the record payload
+     */
+    public ByteBuffer getPayload(int index) {
+      checkIndex(index);
+      return data.slice(positions[index], sizes[index]).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets a record.
+     *
+     * @param index the index of the record, from 0 to {@link #size()} (exclusive)
+     * @return the record
+     */
+    public DataRecord get(int index) {
+      return new DataRecord(getTimestamp(index), getPayload(index));
+    }
+
+    /**
+     * Finds the index of the first record with a timestamp at or after the given time.
+     *
+     * @param timestamp the time to search for, in microseconds
+     * @return the index of the first record at or after the time, or {@link #size()} if there are
+     *         no such records
+     */
+    public int indexOf(long timestamp) {
+      int low = 0;
+      int high = count;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (timestamps[mid] < timestamp) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * Gets all records of the entry.
+     */
+    public List<DataRecord> getRecords() {
+      return range(0, count);
+    }
+
+    /**
+     * Gets all records of the entry with timestamps in the given range. The returned list is a
+     * view backed by the index; records are only created as they are accessed.
+     *
+     * @param startTimestamp the start of the time range (inclusive), in microseconds
+     * @param endTimestamp the end of the time range (exclusive), in microseconds
+     * @return the records in the time range
+     */
+    public List<DataRecord> getRecords(long startTimestamp, long endTimestamp) {
+      int start = indexOf(startTimestamp);
+      int end = Math.max(start, indexOf(endTimestamp));
+      return range(start, end);
+    }
+
+    private List<DataRecord> range(int start, int end) {
+      return new AbstractList<>() {
+        @Override
+        public DataRecord get(int index) {
+          return Entry.this.get(start + Objects.checkIndex(index, end - start));
+        }
+
+        @Override
+        public int size() {
+          return end - start;
+        }
+      };
+    }
+
+    private int checkIndex(int index) {
+      return Objects.checkIndex(index, count);
+    }
+  }
+
+  private final ByteBuffer data;
+  private final String extraHeader;
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+  /**
+   * Opens and indexes a log file.
+   *
+   * @param path the path to the log file
+   * @throws IOException if the file could not be read, is larger than 2 GB, or is not a valid
+   *                     wpilog file
+   */
+  public WPILogReader(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Log file is too large to read: " + path + " (" + size + " bytes)");
+      }
+
+      // The mapping stays valid after the channel is closed
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    extraHeader = readHeader(path);
+    index();
+  }
+
+  private String readHeader(Path path) throws IOException {
+    if (data.limit() < HEADER_SIZE || !data.slice(0, MAGIC.length).equals(ByteBuffer.wrap(MAGIC))) {
+      throw new IOException("Not a wpilog file: " + path);
+    }
+
+    int version = data.getShort(MAGIC.length) & 0xFFFF;
+    if (version < 0x0100 || version >= 0x0200) {
+      throw new IOException("Unsupported wpilog version " + Integer.toHexString(version));
+    }
+
+    int extraHeaderLength = data.getInt(MAGIC.length + 2);
+    if (extraHeaderLength < 0 || HEADER_SIZE + extraHeaderLength > data.limit()) {
+      throw new IOException("Corrupt wpilog header: " + path);
+    }
+    return readString(HEADER_SIZE, extraHeaderLength);
+  }
+
+  private void index() {
+    // Entry IDs may be reused after an entry is finished, so they're only mapped to the entry
+    // that currently owns them
+    Map<Integer, Entry> active = new HashMap<>();
+
+    int position = HEADER_SIZE + data.getInt(MAGIC.length + 2);
+    int limit = data.limit();
+
+    while (position < limit) {
+      int bitfield = data.get(position) & 0xFF;
+      int entryLength = (bitfield & 0b11) + 1;
+      int sizeLength = (bitfield >> 2 & 0b11) + 1;
+      int timestampLength = (bitfield >> 4 & 0b111) + 1;
+      int headerLength = 1 + entryLength + sizeLength + timestampLength;
+
+      if (position + headerLength > limit) {
+        // Truncated record header, eg from a robot losing power mid-write
+        break;
+      }
+
+      int entryId = (int) readLittleEndian(position + 1, entryLength);
+      long size = readLittleEndian(position + 1 + entryLength, sizeLength);
+      long timestamp = readLittleEndian(position + 1 + entryLength + sizeLength, timestampLength);
+      int payload = position + headerLength;
+
+      if (size > limit - payload) {
+        // Truncated payload
+        break;
+      }
+
+      if (entryId == CONTROL_ENTRY) {
+        readControl(payload, (int) size, active);
+      } else {
+        // Records for entries that were never started are ignored, just like the WPILib tools do
+        var entry = active.get(entryId);
+        if (entry != null) {
+          entry.add(payload, (int) size, timestamp);
+        }
+      }
+
+      position = payload + (int) size;
+    }
+  }
+
+  private void readControl(int position, int size, Map<Integer, Entry> active) {
+    if (size < 5) {
+      return;
+    }
+
+    byte type = data.get(position);
+    int entryId = data.getInt(position + 1);
+    var payload = data.slice(position + 5, size - 5).order(ByteOrder.LITTLE_ENDIAN);
+
+    switch (type) {
+      case CONTROL_START -> {
+        String name = readPrefixedString(payload);
+        String dataType = readPrefixedString(payload);
+        String metadata = readPrefixedString(payload);
+        if (name == null || dataType == null || metadata == null) {
+          return;
+        }
+
+        // An entry that is restarted (eg by a new logger writing to the same name) keeps adding to
+        // the same index, as long as its type hasn't changed
+        var entry = entries.get(name);
+        if (entry == null || !entry.type.equals(dataType)) {
+          entry = new Entry(name, dataType, metadata, data);
+          entries.put(name, entry);
+        }
+        entry.metadata = metadata;
+        active.put(entryId, entry);
+      }
+      case CONTROL_FINISH -> active.remove(entryId);
+      case CONTROL_SET_METADATA -> {
+        String metadata = readPrefixedString(payload);
+        var entry = active.get(entryId);
+        if (entry != null && metadata != null) {
+          entry.metadata = metadata;
+        }
+      }
+      default -> {
+        // Unknown control record, skip it
+      }
+    }
+  }
+
+  private long readLittleEndian(int position, int length) {
+    long value = 0;
+    for (int i = 0; i < length; i++) {
+      value |= (data.get(position + i) & 0xFFL) << (8 * i);
+    }
+    return value;
+  }
+
+  private String readString(int position, int length) {
+    var bytes = new byte[length];
+    data.get(position, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a u32-length-prefixed string and advances the buffer past it. Returns null if the
+   * buffer doesn't contain the entire string.
+   */
+  private static String readPrefixedString(ByteBuffer buffer) {
+    if (buffer.remaining() < 4) {
+      return null;
+    }
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      return null;
+    }
+    var bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the extra header string in the file header.
+   */
+  public String getExtraHeader() {
+    return extraHeader;
+  }
+
+  /**
+   * Gets the indexes of all entries in the file, in the order they were first started.
+   */
+  public Collection<Entry> getEntries() {
+    return Collections.unmodifiableCollection(entries.values());
+  }
+
+  /**
+   * Gets the index of the entry with the given name.
+   *
+   * @param name the name of the entry
+   * @return the entry index, or null if the file has no entry with that name
+   */
+  public Entry getEntry(String name) {
+    return entries.get(name);
+  }
+
+  /**
+   * Gets the records of an entry with timestamps in the given range.
+   *
+   * @param name the name of the entry
+   * @param startTimestamp the start of the time range (inclusive), in microseconds
+   * @param endTimestamp the end of the time range (exclusive), in microseconds
+   * @return the records in the time range. The list will be empty if the file has no entry with the
+   *         given name
+   */
+  public List<DataRecord> getRecords(String name, long startTimestamp, long endTimestamp) {
+    var entry = entries.get(name);
+    if (entry == null) {
+      return List.of();
+    }
+    return entry.getRecords(startTimestamp, endTimestamp);
+  }
+}
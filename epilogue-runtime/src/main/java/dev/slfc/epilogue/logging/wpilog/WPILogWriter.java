@@ -0,0 +1,447 @@
+package dev.slfc.epilogue.logging.wpilog;
+
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_ENTRY;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_FINISH;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_SET_METADATA;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.CONTROL_START;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.HEADER_SIZE;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.MAGIC;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.MAX_RECORD_HEADER_SIZE;
+import static dev.slfc.epilogue.logging.wpilog.WPILogFormat.VERSION;
+
+import edu.wpi.first.util.struct.Struct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes records in the WPILib data log (.wpilog) format without going through the native
+ * {@link edu.wpi.first.util.datalog.DataLog DataLog}. Records are encoded directly into an
+ * off-heap buffer and are handed to the operating system in large batches with a
+ * {@link FileChannel}, so appending a value costs a handful of buffer writes instead of a JNI call.
+ * Files written by this class can be opened by AdvantageScope and read with WPILib's
+ * {@link edu.wpi.first.util.datalog.DataLogReader DataLogReader}.
+ *
+ * <p>In memory-mapped mode, records are written straight into a mapped region of the file and
+ * no explicit write calls are made at all; the region is remapped whenever it fills up and the
+ * file is truncated to its real length when the writer is closed.
+ *
+ * <p>Writers are not thread safe. Timestamps are in microseconds.
+ */
+public final class WPILogWriter implements AutoCloseable {
+  /**
+   * The default buffer size, and the size of each mapped region in memory-mapped mode.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private final FileChannel channel;
+  private final boolean memoryMapped;
+  private final int bufferSize;
+
+  // In buffered mode, this is a direct buffer holding records that have not yet been written to
+  // the channel. In memory-mapped mode, this is the currently mapped region of the file.
+  private ByteBuffer buffer;
+
+  // The file offset of the start of the current mapped region. Unused in buffered mode.
+  private long regionStart;
+
+  private int nextEntryId = 1;
+
+  /**
+   * Creates a buffered writer with the default buffer size, overwriting the file at the given
+   * path if it already exists.
+   *
+   * @param path the path of the file to write to
+   * @throws IOException if the file could not be opened
+   */
+  public WPILogWriter(Path path) throws IOException {
+    this(path, false, DEFAULT_BUFFER_SIZE, "");
+  }
+
+  /**
+   * Creates a new writer, overwriting the file at the given path if it already exists.
+   *
+   * @param path the path of the file to write to
+   * @param memoryMapped true to write directly into a memory-mapped view of the file, false to
+   *                     buffer records and write them with explicit channel writes
+   * @param bufferSize the size of the write buffer, or of each mapped region in memory-mapped mode
+   * @param extraHeader the extra header string to place in the file header. May be empty
+   * @throws IOException if the file could not be opened
+   */
+  public WPILogWriter(Path path, boolean memoryMapped, int bufferSize, String extraHeader)
+      throws IOException {
+    if (bufferSize < HEADER_SIZE + MAX_RECORD_HEADER_SIZE) {
+      throw new IllegalArgumentException("Buffer size is too small: " + bufferSize);
+    }
+
+    this.memoryMapped = memoryMapped;
+    this.bufferSize = bufferSize;
+
+    if (memoryMapped) {
+      // Mapping a file read-write requires the channel to be open for reading too
+      channel = FileChannel.open(
+          path,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.READ,
+          StandardOpenOption.WRITE
+      );
+      regionStart = 0;
+      buffer = map(0, bufferSize);
+    } else {
+      channel = FileChannel.open(
+          path,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE
+      );
+      buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    int extraHeaderLength = utf8Length(extraHeader);
+    ensureCapacity(HEADER_SIZE + extraHeaderLength);
+    buffer.put(MAGIC);
+    buffer.putShort(VERSION);
+    buffer.putInt(extraHeaderLength);
+    putUtf8(extraHeader);
+  }
+
+  /**
+   * Starts a new entry. Entries must be started before any data can be appended to them.
+   *
+   * @param name the name of the entry
+   * @param type the data type of the entry, eg {@code "double"} or {@code "struct:Pose2d"}
+   * @param metadata the entry metadata. May be empty
+   * @param timestamp the time of the start record, in microseconds
+   * @return the ID of the new entry
+   */
+  public int start(String name, String type, String metadata, long timestamp) {
+    int entry = nextEntryId++;
+
+    int nameLength = utf8Length(name);
+    int typeLength = utf8Length(type);
+    int metadataLength = utf8Length(metadata);
+
+    beginRecord(
+        CONTROL_ENTRY,
+        1 + 4 + 4 + nameLength + 4 + typeLength + 4 + metadataLength,
+        timestamp
+    );
+    buffer.put(CONTROL_START);
+    buffer.putInt(entry);
+    buffer.putInt(nameLength);
+    putUtf8(name);
+    buffer.putInt(typeLength);
+    putUtf8(type);
+    buffer.putInt(metadataLength);
+    putUtf8(metadata);
+
+    return entry;
+  }
+
+  /**
+   * Finishes an entry. No more data may be appended to a finished entry.
+   *
+   * @param entry the ID of the entry to finish
+   * @param timestamp the time of the finish record, in microseconds
+   */
+  public void finish(int entry, long timestamp) {
+    beginRecord(CONTROL_ENTRY, 1 + 4, timestamp);
+    buffer.put(CONTROL_FINISH);
+    buffer.putInt(entry);
+  }
+
+  /**
+   * Updates the metadata of an entry.
+   *
+   * @param entry the ID of the entry to update
+   * @param metadata the new metadata
+   * @param timestamp the time of the record, in microseconds
+   */
+  public void setMetadata(int entry, String metadata, long timestamp) {
+    int metadataLength = utf8Length(metadata);
+
+    beginRecord(CONTROL_ENTRY, 1 + 4 + 4 + metadataLength, timestamp);
+    buffer.put(CONTROL_SET_METADATA);
+    buffer.putInt(entry);
+    buffer.putInt(metadataLength);
+    putUtf8(metadata);
+  }
+
+  public void appendBoolean(int entry, boolean value, long timestamp) {
+    beginRecord(entry, 1, timestamp);
+    buffer.put((byte) (value ? 1 : 0));
+  }
+
+  public void appendInteger(int entry, long value, long timestamp) {
+    beginRecord(entry, 8, timestamp);
+    buffer.putLong(value);
+  }
+
+  public void appendFloat(int entry, float value, long timestamp) {
+    beginRecord(entry, 4, timestamp);
+    buffer.putFloat(value);
+  }
+
+  public void appendDouble(int entry, double value, long timestamp) {
+    beginRecord(entry, 8, timestamp);
+    buffer.putDouble(value);
+  }
+
+  public void appendString(int entry, String value, long timestamp) {
+    beginRecord(entry, utf8Length(value), timestamp);
+    putUtf8(value);
+  }
+
+  public void appendRaw(int entry, byte[] value, long timestamp) {
+    beginRecord(entry, value.length, timestamp);
+    buffer.put(value);
+  }
+
+  /**
+   * Appends the bytes between a buffer's position and its limit. The buffer's position is left
+   * unchanged.
+   */
+  public void appendRaw(int entry, ByteBuffer value, long timestamp) {
+    int size = value.remaining();
+    beginRecord(entry, size, timestamp);
+    buffer.put(buffer.position(), value, value.position(), size);
+    buffer.position(buffer.position() + size);
+  }
+
+  public void appendBooleanArray(int entry, boolean[] value, long timestamp) {
+    beginRecord(entry, value.length, timestamp);
+    for (boolean b : value) {
+      buffer.put((byte) (b ? 1 : 0));
+    }
+  }
+
+  /**
+   * Appends an array of 32-bit integers to an {@code int64[]} entry. Values are widened to 64 bits
+   * as they are written, without allocating an intermediate {@code long[]}.
+   */
+  public void appendIntegerArray(int entry, int[] value, long timestamp) {
+    beginRecord(entry, value.length * 8, timestamp);
+    for (int i : value) {
+      buffer.putLong(i);
+    }
+  }
+
+  public void appendIntegerArray(int entry, long[] value, long timestamp) {
+    beginRecord(entry, value.length * 8, timestamp);
+    for (long l : value) {
+      buffer.putLong(l);
+    }
+  }
+
+  public void appendFloatArray(int entry, float[] value, long timestamp) {
+    beginRecord(entry, value.length * 4, timestamp);
+    for (float f : value) {
+      buffer.putFloat(f);
+    }
+  }
+
+  public void appendDoubleArray(int entry, double[] value, long timestamp) {
+    beginRecord(entry, value.length * 8, timestamp);
+    for (double d : value) {
+      buffer.putDouble(d);
+    }
+  }
+
+  public void appendStringArray(int entry, String[] value, long timestamp) {
+    int size = 4;
+    for (String s : value) {
+      size += 4 + utf8Length(s);
+    }
+
+    beginRecord(entry, size, timestamp);
+    buffer.putInt(value.length);
+    for (String s : value) {
+      buffer.putInt(utf8Length(s));
+      putUtf8(s);
+    }
+  }
+
+  /**
+   * Appends a struct-serialized value. The value is packed directly into the output buffer.
+   */
+  public <S> void appendStruct(int entry, S value, Struct<S> struct, long timestamp) {
+    int size = struct.getSize();
+    beginRecord(entry, size, timestamp);
+    packStruct(value, struct, size);
+  }
+
+  /**
+   * Appends an array of struct-serialized values. The values are packed directly into the output
+   * buffer.
+   */
+  public <S> void appendStructArray(int entry, S[] values, Struct<S> struct, long timestamp) {
+    int size = struct.getSize();
+    beginRecord(entry, size * values.length, timestamp);
+    for (S value : values) {
+      packStruct(value, struct, size);
+    }
+  }
+
+  /**
+   * Hands all buffered records to the operating system. This is a no-op for memory-mapped
+   * writers, since their records are written directly into the operating system's page cache.
+   */
+  public void flush() {
+    if (memoryMapped) {
+      return;
+    }
+
+    try {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes any buffered records and closes the file.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!channel.isOpen()) {
+      return;
+    }
+
+    try {
+      if (memoryMapped) {
+        // The last region is almost never completely filled; drop its unused tail
+        long length = regionStart + buffer.position();
+        buffer = null;
+        channel.truncate(length);
+      } else {
+        flush();
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  private <S> void packStruct(S value, Struct<S> struct, int size) {
+    int start = buffer.position();
+    struct.pack(buffer, value);
+    // Don't trust the struct implementation to leave the buffer where we expect it to be
+    buffer.position(start + size);
+  }
+
+  private void beginRecord(int entry, int payloadSize, long timestamp) {
+    ensureCapacity(MAX_RECORD_HEADER_SIZE + payloadSize);
+
+    int entryLength = byteLength(entry);
+    int sizeLength = byteLength(payloadSize);
+    int timestampLength = byteLength(timestamp);
+
+    buffer.put((byte) ((entryLength - 1) | (sizeLength - 1) << 2 | (timestampLength - 1) << 4));
+    putLittleEndian(entry, entryLength);
+    putLittleEndian(payloadSize, sizeLength);
+    putLittleEndian(timestamp, timestampLength);
+  }
+
+  private void ensureCapacity(int bytes) {
+    if (buffer.remaining() >= bytes) {
+      return;
+    }
+
+    if (memoryMapped) {
+      regionStart += buffer.position();
+      buffer = map(regionStart, Math.max(bufferSize, bytes));
+      return;
+    }
+
+    flush();
+    if (buffer.capacity() < bytes) {
+      // A single record is larger than the entire buffer. This should be rare (eg very large
+      // raw or array values), so just grow the buffer instead of adding a separate unbuffered path
+      buffer = ByteBuffer.allocateDirect(Math.max(bytes, buffer.capacity() * 2))
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  private ByteBuffer map(long position, int size) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_WRITE, position, size)
+          .order(ByteOrder.LITTLE_ENDIAN);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void putLittleEndian(long value, int length) {
+    for (int i = 0; i < length; i++) {
+      buffer.put((byte) (value >>> (8 * i)));
+    }
+  }
+
+  /**
+   * Gets the minimum number of bytes needed to represent an unsigned integer.
+   */
+  private static int byteLength(long value) {
+    return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 7) / 8);
+  }
+
+  /**
+   * Computes the length of a string in UTF-8 without encoding it. Unpaired surrogates count as
+   * a single byte, since they are replaced with {@code '?'} when written (matching the behavior
+   * of {@link String#getBytes(java.nio.charset.Charset)}).
+   */
+  static int utf8Length(String string) {
+    int length = 0;
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < string.length()
+          && Character.isLowSurrogate(string.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        length += 1;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  private void putUtf8(String string) {
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | c >> 6));
+        buffer.put((byte) (0x80 | c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < string.length()
+          && Character.isLowSurrogate(string.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, string.charAt(++i));
+        buffer.put((byte) (0xF0 | codePoint >> 18));
+        buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+        buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        buffer.put((byte) (0x80 | codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        buffer.put((byte) '?');
+      } else {
+        buffer.put((byte) (0xE0 | c >> 12));
+        buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+        buffer.put((byte) (0x80 | c & 0x3F));
+      }
+    }
+  }
+}
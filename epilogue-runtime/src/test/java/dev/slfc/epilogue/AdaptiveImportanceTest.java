@@ -0,0 +1,111 @@
+package dev.slfc.epilogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.slfc.epilogue.logging.TestLogger;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveImportanceTest {
+  private static final long kMillis = 1_000_000;
+
+  private final TestLogger log = new TestLogger();
+  private final EpilogueConfiguration config = new EpilogueConfiguration();
+
+  {
+    config.dataLogger = log;
+  }
+
+  private void run(AdaptiveImportance controller, int cycles, long elapsedNanos) {
+    for (int i = 0; i < cycles; i++) {
+      controller.update(config, elapsedNanos);
+    }
+  }
+
+  @Test
+  void raisesAndRestoresWithHysteresis() {
+    // 2ms budget, no smoothing, restore below 1ms, 3 cycles to settle after a change
+    var controller = new AdaptiveImportance(0.002, 1, 0.5, 3);
+
+    run(controller, 10, 1 * kMillis);
+    assertEquals(Epilogue.Importance.DEBUG, config.minimumImportance);
+
+    // Over budget. Raised one level at a time, settling in between
+    run(controller, 1, 3 * kMillis);
+    assertEquals(Epilogue.Importance.INFO, config.minimumImportance);
+    run(controller, 3, 3 * kMillis);
+    assertEquals(Epilogue.Importance.INFO, config.minimumImportance);
+    run(controller, 1, 3 * kMillis);
+    assertEquals(Epilogue.Importance.CRITICAL, config.minimumImportance);
+
+    // Can't go any higher
+    run(controller, 10, 3 * kMillis);
+    assertEquals(Epilogue.Importance.CRITICAL, config.minimumImportance);
+
+    // Under budget, but not by enough to restore
+    run(controller, 10, 1500 * 1000);
+    assertEquals(Epilogue.Importance.CRITICAL, config.minimumImportance);
+
+    // Load dropped. Restored one level at a time, but never below the configured level
+    run(controller, 1, kMillis / 2);
+    assertEquals(Epilogue.Importance.INFO, config.minimumImportance);
+    run(controller, 4, kMillis / 2);
+    assertEquals(Epilogue.Importance.DEBUG, config.minimumImportance);
+    run(controller, 10, kMillis / 2);
+    assertEquals(Epilogue.Importance.DEBUG, config.minimumImportance);
+
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("Epilogue/Minimum Importance", "INFO"),
+            new TestLogger.LogEntry<>("Epilogue/Minimum Importance", "CRITICAL"),
+            new TestLogger.LogEntry<>("Epilogue/Minimum Importance", "INFO"),
+            new TestLogger.LogEntry<>("Epilogue/Minimum Importance", "DEBUG")
+        ),
+        log.getEntries()
+    );
+  }
+
+  @Test
+  void respectsConfiguredLevel() {
+    var controller = new AdaptiveImportance(0.002, 1, 0.5, 0);
+    config.minimumImportance = Epilogue.Importance.INFO;
+
+    run(controller, 1, 3 * kMillis);
+    assertEquals(Epilogue.Importance.CRITICAL, config.minimumImportance);
+
+    // Never restores past the configured level
+    run(controller, 10, 0);
+    assertEquals(Epilogue.Importance.INFO, config.minimumImportance);
+  }
+
+  @Test
+  void smoothsSpikes() {
+    var controller = new AdaptiveImportance(0.002, 0.1, 0.5, 0);
+
+    run(controller, 10, 1 * kMillis);
+
+    // A single spike doesn't bring the average over budget
+    run(controller, 1, 5 * kMillis);
+    assertEquals(Epilogue.Importance.DEBUG, config.minimumImportance);
+    assertEquals(0.0014, controller.getAverageSeconds(), 1e-9);
+  }
+
+  @Test
+  void printsLevelChanges() {
+    var output = new ByteArrayOutputStream();
+    var controller = new AdaptiveImportance(
+        0.002, 1, 0.5, 0, new PrintStream(output, true, StandardCharsets.UTF_8)
+    );
+
+    run(controller, 1, 3 * kMillis);
+    assertEquals(
+        "[EPILOGUE] Logging is taking 3.0 ms on average (budget: 2.0 ms), changing the minimum "
+            + "importance from DEBUG to INFO"
+            + System.lineSeparator(),
+        output.toString(StandardCharsets.UTF_8)
+    );
+  }
+}
@@ -1,9 +1,24 @@
 package dev.slfc.epilogue.logging;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import dev.slfc.epilogue.Epilogue;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class ClassSpecificLoggerTest {
@@ -42,4 +57,393 @@ class ClassSpecificLoggerTest {
             new TestLogger.LogEntry<>("Point/dim", 2)
         ), dataLog.getEntries());
   }
-}
\ No newline at end of file
+
+  @Test
+  void updateInParallel() throws Exception {
+    var executor = Executors.newFixedThreadPool(3);
+    try {
+      // Every update waits for all the others to start, which only finishes if they run at once
+      var started = new CountDownLatch(4);
+      Set<Thread> threads = ConcurrentHashMap.newKeySet();
+      List<Runnable> updates = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        updates.add(() -> {
+          threads.add(Thread.currentThread());
+          started.countDown();
+          try {
+            started.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+      }
+
+      ClassSpecificLogger.updateInParallel(updates, executor);
+
+      assertEquals(0, started.getCount());
+      assertEquals(4, threads.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void updateInParallelRethrowsAfterAllComplete() {
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var completed = new AtomicInteger();
+      var exception = new IllegalStateException("Crash");
+      List<Runnable> updates = List.of(
+          completed::incrementAndGet,
+          () -> {
+            throw exception;
+          },
+          () -> {
+            try {
+              Thread.sleep(50);
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            completed.incrementAndGet();
+          }
+      );
+
+      var thrown = assertThrows(
+          IllegalStateException.class,
+          () -> ClassSpecificLogger.updateInParallel(updates, executor)
+      );
+      assertSame(exception, thrown);
+      assertEquals(2, completed.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Holds references to points, logged in order under the path each one is mapped to.
+   */
+  static class References {
+    final Map<String, Point2d> points = new LinkedHashMap<>();
+
+    static class Logger extends ClassSpecificLogger<References> {
+      final Point2d.Logger pointLogger = new Point2d.Logger();
+
+      public Logger() {
+        super(References.class);
+      }
+
+      @Override
+      protected void update(DataLogger dataLogger, References object) {
+        object.points.forEach((path, point) -> {
+          pointLogger.tryUpdateNested(dataLogger.getSubLogger(path), point, (e, l) -> {});
+        });
+      }
+    }
+  }
+
+  @Test
+  void sharedObjectsAreLoggedOncePerUpdate() {
+    var point = new Point2d(1, 4, 2);
+    var references = new References();
+    references.points.put("a/point", point);
+    references.points.put("b", point);
+    var logger = new References.Logger();
+    var dataLog = new TestLogger();
+
+    // No cycles are advanced in between, like a robot program that updates loggers itself
+    for (int i = 0; i < 2; i++) {
+      logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    }
+
+    assertEquals(
+        List.of(
+            // First update: logged in full at the first reference, aliased at the second
+            new TestLogger.LogEntry<>("Robot/a/point/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/a/point/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/a/point/dim", 2),
+            new TestLogger.LogEntry<>("Robot/b/.alias", "Robot/a/point"),
+            // Second update: logged in full again, but the alias is unchanged and isn't rewritten
+            new TestLogger.LogEntry<>("Robot/a/point/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/a/point/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/a/point/dim", 2)
+        ),
+        dataLog.getEntries()
+    );
+  }
+
+  @Test
+  void sharedObjectsKeepTheirPath() {
+    var point = new Point2d(1, 4, 2);
+    var references = new References();
+    references.points.put("a", point);
+    references.points.put("b", point);
+    var logger = new References.Logger();
+    var dataLog = new TestLogger();
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    dataLog.getEntries().clear();
+
+    // Reaching the point through b first, like a parallel update might, doesn't move it
+    references.points.remove("a");
+    references.points.put("a", point);
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("Robot/a/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/a/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/a/dim", 2)
+        ),
+        dataLog.getEntries()
+    );
+    dataLog.getEntries().clear();
+
+    // Once a no longer references the point, it moves to b in the same update
+    references.points.put("a", new Point2d(0, 0, 0));
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("Robot/a/x", 0.0),
+            new TestLogger.LogEntry<>("Robot/a/y", 0.0),
+            new TestLogger.LogEntry<>("Robot/a/dim", 0),
+            new TestLogger.LogEntry<>("Robot/b/.alias", ""),
+            new TestLogger.LogEntry<>("Robot/b/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/b/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/b/dim", 2)
+        ),
+        dataLog.getEntries()
+    );
+    dataLog.getEntries().clear();
+
+    // And stays there
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("Robot/b/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/b/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/b/dim", 2),
+            new TestLogger.LogEntry<>("Robot/a/x", 0.0),
+            new TestLogger.LogEntry<>("Robot/a/y", 0.0),
+            new TestLogger.LogEntry<>("Robot/a/dim", 0)
+        ),
+        dataLog.getEntries()
+    );
+  }
+
+  @Test
+  void aliasesAreClearedWhenNoLongerShared() {
+    var point = new Point2d(1, 4, 2);
+    var references = new References();
+    references.points.put("a", point);
+    references.points.put("b", point);
+    var logger = new References.Logger();
+    var dataLog = new TestLogger();
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    dataLog.getEntries().clear();
+
+    references.points.put("b", new Point2d(0, 0, 0));
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    logger.tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("Robot/a/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/a/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/a/dim", 2),
+            new TestLogger.LogEntry<>("Robot/b/.alias", ""),
+            new TestLogger.LogEntry<>("Robot/b/x", 0.0),
+            new TestLogger.LogEntry<>("Robot/b/y", 0.0),
+            new TestLogger.LogEntry<>("Robot/b/dim", 0),
+            new TestLogger.LogEntry<>("Robot/a/x", 1.0),
+            new TestLogger.LogEntry<>("Robot/a/y", 4.0),
+            new TestLogger.LogEntry<>("Robot/a/dim", 2),
+            new TestLogger.LogEntry<>("Robot/b/x", 0.0),
+            new TestLogger.LogEntry<>("Robot/b/y", 0.0),
+            new TestLogger.LogEntry<>("Robot/b/dim", 0)
+        ),
+        dataLog.getEntries()
+    );
+  }
+
+  @Test
+  void parallelUpdatesArePartOfTheSameRootUpdate() {
+    var point = new Point2d(1, 4, 2);
+    var pointLogger = new Point2d.Logger();
+    var executor = Executors.newFixedThreadPool(2);
+    var logger = new ClassSpecificLogger<>(Object.class) {
+      @Override
+      protected void update(DataLogger dataLogger, Object object) {
+        List<Runnable> updates = new ArrayList<>();
+        for (String path : List.of("a", "b", "c")) {
+          updates.add(() -> pointLogger.tryUpdateNested(dataLogger.getSubLogger(path), point, (e, l) -> {}));
+        }
+        updateInParallel(updates, executor);
+      }
+    };
+
+    try {
+      var dataLog = new TestLogger() {
+        @Override
+        public synchronized void log(String identifier, int value) {
+          super.log(identifier, value);
+        }
+
+        @Override
+        public synchronized void log(String identifier, double value) {
+          super.log(identifier, value);
+        }
+
+        @Override
+        public synchronized void log(String identifier, String value) {
+          super.log(identifier, value);
+        }
+      };
+      for (int i = 0; i < 10; i++) {
+        logger.tryUpdate(dataLog.getSubLogger("Robot"), new Object(), (e, l) -> {});
+      }
+
+      // Logged in full once per update, and always under the same path
+      var full = dataLog.getEntries().stream()
+          .filter(entry -> entry.identifier().endsWith("/x"))
+          .map(TestLogger.LogEntry::identifier)
+          .toList();
+      assertEquals(10, full.size());
+      assertEquals(1, Set.copyOf(full).size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void equalButDistinctObjectsAreBothLogged() {
+    var references = new References();
+    references.points.put("a", new Point2d(1, 1, 1));
+    references.points.put("b", new Point2d(1, 1, 1));
+    var dataLog = new TestLogger();
+
+    // Deduplication is by identity, not equality
+    new References.Logger().tryUpdate(dataLog.getSubLogger("Robot"), references, (e, l) -> {});
+
+    assertEquals(6, dataLog.getEntries().size());
+  }
+
+  @Test
+  void reducedPrecisionArrays() {
+    assertArrayEquals(new float[] {1.5f, -0.25f}, ClassSpecificLogger.toFloats(new double[] {1.5, -0.25}));
+    assertArrayEquals(new long[] {413, -3, 0}, ClassSpecificLogger.quantize(new double[] {41.26, -0.26, 0.04}, 0.1));
+    assertArrayEquals(new long[] {3, -1}, ClassSpecificLogger.quantize(new float[] {1.4f, -0.6f}, 0.5));
+  }
+
+  @Test
+  void lastValuesArePerDataLogger() {
+    var logger = new Point2d.Logger();
+    var dataLog = new TestLogger();
+    var a = dataLog.getSubLogger("a");
+    var b = dataLog.getSubLogger("b");
+
+    var aValues = logger.getLastValues(a, AtomicInteger::new);
+    var bValues = logger.getLastValues(b, AtomicInteger::new);
+
+    assertNotSame(aValues, bValues);
+    assertSame(aValues, logger.getLastValues(a, AtomicInteger::new));
+    assertSame(bValues, logger.getLastValues(b, AtomicInteger::new));
+  }
+
+  /**
+   * A counter logged only when its count changes, the same way generated loggers log elements
+   * annotated with {@code @Epilogue(onChange = true)}.
+   */
+  static class Counter {
+    int count;
+
+    static class Logger extends ClassSpecificLogger<Counter> {
+      static final class LastValues {
+        int count;
+        boolean count$logged;
+      }
+
+      public Logger() {
+        super(Counter.class);
+      }
+
+      @Override
+      protected void update(DataLogger dataLogger, Counter object) {
+        var lastValues = getLastValues(dataLogger, LastValues::new);
+        if (!lastValues.count$logged || lastValues.count != object.count) {
+          lastValues.count = object.count;
+          lastValues.count$logged = true;
+          dataLogger.log("count", object.count);
+        }
+      }
+    }
+  }
+
+  @Test
+  void lastValuesOfInstancesAtDifferentPaths() {
+    var logger = new Counter.Logger();
+    var dataLog = new TestLogger();
+    var left = new Counter();
+    var right = new Counter();
+
+    for (int i = 0; i < 3; i++) {
+      left.count = i;
+      logger.tryUpdate(dataLog.getSubLogger("left"), left, (e, l) -> {});
+      logger.tryUpdate(dataLog.getSubLogger("right"), right, (e, l) -> {});
+    }
+
+    // Each instance is compared against its own last value
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("left/count", 0),
+            new TestLogger.LogEntry<>("right/count", 0),
+            new TestLogger.LogEntry<>("left/count", 1),
+            new TestLogger.LogEntry<>("left/count", 2)
+        ),
+        dataLog.getEntries()
+    );
+
+    // Both paths keep their state in their own sub loggers, instead of taking turns in one cache
+    var leftState = ((SubLogger) dataLog.getSubLogger("left")).pathState;
+    var rightState = ((SubLogger) dataLog.getSubLogger("right")).pathState;
+    assertSame(logger, leftState.owner);
+    assertSame(logger, rightState.owner);
+    assertNotSame(leftState.lastValues, rightState.lastValues);
+  }
+
+  @Test
+  void lastValuesOfDifferentClassesAtTheSamePath() {
+    var first = new Counter.Logger();
+    var second = new Counter.Logger();
+    var dataLog = new TestLogger();
+    var path = dataLog.getSubLogger("mechanism");
+
+    var firstValues = first.getLastValues(path, AtomicInteger::new);
+    var secondValues = second.getLastValues(path, AtomicInteger::new);
+
+    // Only one logger's state is cached in the sub logger, but both keep their own values
+    assertNotSame(firstValues, secondValues);
+    assertSame(firstValues, first.getLastValues(path, AtomicInteger::new));
+    assertSame(secondValues, second.getLastValues(path, AtomicInteger::new));
+  }
+
+  @Test
+  void firstUpdatesAfterRelogOnce() {
+    var logger = new Point2d.Logger();
+    var dataLog = new TestLogger();
+    var a = dataLog.getSubLogger("a");
+    var b = dataLog.getSubLogger("b");
+
+    assertTrue(logger.isFirstUpdate(a));
+    assertFalse(logger.isFirstUpdate(a));
+    assertTrue(logger.isFirstUpdate(b));
+    assertFalse(logger.isFirstUpdate(a));
+    assertFalse(logger.isFirstUpdate(b));
+
+    ClassSpecificLogger.relogOnce();
+    assertTrue(logger.isFirstUpdate(a));
+    assertTrue(logger.isFirstUpdate(b));
+    assertFalse(logger.isFirstUpdate(a));
+    assertFalse(logger.isFirstUpdate(b));
+
+    // Each path keeps track of its own one-time data, instead of taking turns in one cache
+    assertSame(logger, ((SubLogger) a).pathState.owner);
+    assertSame(logger, ((SubLogger) b).pathState.owner);
+  }
+}
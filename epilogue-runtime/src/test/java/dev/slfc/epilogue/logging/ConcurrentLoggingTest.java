@@ -0,0 +1,235 @@
+package dev.slfc.epilogue.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.slfc.epilogue.logging.errors.LoggerDisabler;
+import dev.slfc.epilogue.logging.wpilog.WPILogReader;
+import dev.slfc.epilogue.logging.wpilog.WPILogWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Stress tests for logging to the same data loggers from many threads at once.
+ */
+class ConcurrentLoggingTest {
+  private static final int kThreads = 8;
+  private static final int kIterations = 2_000;
+
+  @TempDir
+  Path tempDir;
+
+  private ExecutorService executor;
+  private final AtomicLong clock = new AtomicLong();
+
+  @BeforeEach
+  void setup() {
+    executor = Executors.newFixedThreadPool(kThreads);
+  }
+
+  @AfterEach
+  void teardown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Runs a task on every thread at the same time, and waits for all of them to finish.
+   */
+  private void runConcurrently(ThreadTask task) throws Exception {
+    var start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < kThreads; i++) {
+      int thread = i;
+      futures.add(executor.submit((Callable<Void>) () -> {
+        start.await();
+        task.run(thread);
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (var future : futures) {
+      // Rethrows any assertion failures or exceptions from the task
+      future.get(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ThreadTask {
+    void run(int thread) throws Exception;
+  }
+
+  @Test
+  void noLostRecords() throws Exception {
+    var file = tempDir.resolve("stress.wpilog");
+
+    try (var fileLogger = new NioFileLogger(new WPILogWriter(file, false, 1024, ""), clock::incrementAndGet)) {
+      var logger = new MultiLogger(fileLogger);
+
+      runConcurrently(thread -> {
+        // Every thread creates sub loggers and entries at the same time as the others
+        var sub = logger.getSubLogger("shared").getSubLogger("thread" + thread);
+        for (int i = 0; i < kIterations; i++) {
+          sub.log("int", i);
+          sub.log("double", i * 0.5);
+          sub.log("string", "value " + i);
+          sub.log("array", new long[] {thread, i});
+
+          // All threads also log to a single shared entry
+          logger.log("shared/count", (long) i);
+        }
+      });
+    }
+
+    var reader = new WPILogReader(file);
+    for (int thread = 0; thread < kThreads; thread++) {
+      String prefix = "shared/thread" + thread + "/";
+      var ints = reader.getEntry(prefix + "int");
+      var doubles = reader.getEntry(prefix + "double");
+      var strings = reader.getEntry(prefix + "string");
+      var arrays = reader.getEntry(prefix + "array");
+
+      assertEquals(kIterations, ints.size());
+      assertEquals(kIterations, doubles.size());
+      assertEquals(kIterations, strings.size());
+      assertEquals(kIterations, arrays.size());
+
+      for (int i = 0; i < kIterations; i++) {
+        // Each thread's values appear in the order that thread logged them, and are uncorrupted
+        assertEquals(i, ints.get(i).getInteger());
+        assertEquals(i * 0.5, doubles.get(i).getDouble());
+        assertEquals("value " + i, strings.get(i).getString());
+        var array = arrays.getPayload(i);
+        assertEquals(thread, array.getLong(0));
+        assertEquals(i, array.getLong(8));
+      }
+    }
+
+    var shared = reader.getEntry("shared/count");
+    assertEquals(kThreads * kIterations, shared.size());
+
+    // Timestamps are read under the lock, so records are written in timestamp order
+    for (int i = 1; i < shared.size(); i++) {
+      assertTrue(shared.getTimestamp(i) > shared.getTimestamp(i - 1));
+    }
+  }
+
+  @Test
+  void lazyLoggerDeduplicatesAcrossThreads() throws Exception {
+    var file = tempDir.resolve("lazy.wpilog");
+
+    try (var fileLogger = new NioFileLogger(new WPILogWriter(file), clock::incrementAndGet)) {
+      var lazy = fileLogger.lazy();
+
+      runConcurrently(thread -> {
+        for (int i = 0; i < kIterations; i++) {
+          // Every thread logs the same unchanging value. It should only be logged once in total
+          lazy.log("constant", 42);
+
+          // Each thread logs values that change every other call to its own entry
+          lazy.log("thread" + thread, i / 2);
+        }
+      });
+    }
+
+    var reader = new WPILogReader(file);
+    assertEquals(1, reader.getEntry("constant").size());
+    for (int thread = 0; thread < kThreads; thread++) {
+      var entry = reader.getEntry("thread" + thread);
+      assertEquals(kIterations / 2, entry.size());
+      for (int i = 0; i < entry.size(); i++) {
+        assertEquals(i, entry.get(i).getInteger());
+      }
+    }
+  }
+
+  @Test
+  void lazyLoggerStaysInSyncWithDifferentValues() throws Exception {
+    var firstLogging = new CountDownLatch(1);
+    var otherThreadLogged = new CountDownLatch(1);
+    var logger = new TestLogger() {
+      @Override
+      public void log(String identifier, int value) {
+        if (value == 5) {
+          firstLogging.countDown();
+          // Let the other thread try to log its value while this one is being passed along. The
+          // lazy logger should make it wait, so this times out
+          try {
+            otherThreadLogged.await(200, TimeUnit.MILLISECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        synchronized (this) {
+          super.log(identifier, value);
+        }
+      }
+    };
+    var lazy = logger.lazy();
+
+    var first = executor.submit(() -> lazy.log("value", 5));
+    var second = executor.submit((Callable<Void>) () -> {
+      // Only log once the first value is being passed along, so the values always arrive in order
+      firstLogging.await();
+      lazy.log("value", 7);
+      otherThreadLogged.countDown();
+      return null;
+    });
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+
+    // The last value the underlying logger received is the one recorded as the previous value,
+    // so logging it again does nothing
+    var entries = logger.getEntries();
+    assertEquals(List.of(5, 7), entries.stream().map(TestLogger.LogEntry::value).toList());
+    lazy.log("value", 7);
+    assertEquals(2, entries.size());
+  }
+
+  @Test
+  void subLoggersAreShared() throws Exception {
+    var logger = new MultiLogger(new NullLogger()).lazy();
+    var seen = new DataLogger[kThreads];
+
+    runConcurrently(thread -> seen[thread] = logger.getSubLogger("a").getSubLogger("b"));
+
+    assertInstanceOf(SubLogger.class, seen[0]);
+    for (var sub : seen) {
+      assertSame(seen[0], sub);
+    }
+  }
+
+  @Test
+  void disablerCountsEveryError() throws Exception {
+    int errorsPerThread = 250;
+    var disabler = new LoggerDisabler(kThreads * errorsPerThread);
+    var logger = new ClassSpecificLogger<>(Object.class) {
+      @Override
+      protected void update(DataLogger dataLogger, Object object) {
+        throw new IllegalStateException("Oops");
+      }
+    };
+
+    runConcurrently(thread -> {
+      for (int i = 0; i < errorsPerThread; i++) {
+        logger.tryUpdate(new NullLogger(), new Object(), disabler);
+      }
+    });
+
+    // Exactly at the threshold; one more error should disable the logger
+    assertFalse(logger.isDisabled());
+    logger.tryUpdate(new NullLogger(), new Object(), disabler);
+    assertTrue(logger.isDisabled());
+  }
+}
@@ -2,6 +2,8 @@ package dev.slfc.epilogue.logging;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -54,4 +56,24 @@ class LazyLoggerTest {
       );
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void lazyPacked() {
+    var logger = new TestLogger();
+    var lazy = new LazyLogger(logger);
+    var struct = NioFileLoggerTest.Point.struct;
+    var packed = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+
+    for (var point : List.of(new NioFileLoggerTest.Point(1, 2), new NioFileLoggerTest.Point(1, 2), new NioFileLoggerTest.Point(3, 4))) {
+      // The same buffer is reused for every value, like in a snapshot
+      struct.pack(packed.clear(), point);
+      lazy.logPacked("point", packed.rewind(), struct);
+    }
+
+    // The repeated value is skipped, even though the buffer's contents were rewritten
+    var entries = logger.getEntries();
+    assertEquals(2, entries.size());
+    var last = ByteBuffer.wrap((byte[]) entries.get(1).value()).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(new NioFileLoggerTest.Point(3, 4), struct.unpack(last));
+  }
+}
@@ -0,0 +1,266 @@
+package dev.slfc.epilogue.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.slfc.epilogue.Epilogue;
+import dev.slfc.epilogue.logging.wpilog.WPILogWriter;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.util.struct.Struct;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NioFileLoggerTest {
+  record Point(double x, double y) {
+    static final Struct<Point> struct = new Struct<>() {
+      @Override
+      public Class<Point> getTypeClass() {
+        return Point.class;
+      }
+
+      @Override
+      public String getTypeString() {
+        return "Point";
+      }
+
+      @Override
+      public int getSize() {
+        return kSizeDouble * 2;
+      }
+
+      @Override
+      public String getSchema() {
+        return "double x;double y";
+      }
+
+      @Override
+      public Point unpack(ByteBuffer bb) {
+        return new Point(bb.getDouble(), bb.getDouble());
+      }
+
+      @Override
+      public void pack(ByteBuffer bb, Point value) {
+        bb.putDouble(value.x);
+        bb.putDouble(value.y);
+      }
+    };
+  }
+
+  /**
+   * A record read back from a log file, with its entry resolved to its name and type.
+   */
+  record ReadRecord(String name, String type, long timestamp, DataLogRecord record) {}
+
+  @TempDir
+  Path tempDir;
+
+  private final AtomicLong clock = new AtomicLong(0);
+
+  @Test
+  void roundTripBuffered() throws Exception {
+    roundTrip(false);
+  }
+
+  @Test
+  void roundTripMemoryMapped() throws Exception {
+    roundTrip(true);
+  }
+
+  private void roundTrip(boolean memoryMapped) throws Exception {
+    var file = tempDir.resolve("test.wpilog");
+
+    // Use a tiny buffer so records regularly cross buffer (or mapped region) boundaries
+    var writer = new WPILogWriter(file, memoryMapped, 64, "extra header");
+    try (var logger = new NioFileLogger(writer, clock::get)) {
+      logAll(logger);
+    }
+
+    var reader = new DataLogReader(file.toString());
+    assertTrue(reader.isValid());
+    assertEquals("extra header", reader.getExtraHeader());
+
+    var records = read(reader);
+    int i = 0;
+
+    // Two rounds of the same values, at different timestamps
+    for (long t : new long[] {0, 1_000_000}) {
+      assertEquals(42, expect(records.get(i++), "int", "int64", t).getInteger());
+      assertEquals(Long.MAX_VALUE, expect(records.get(i++), "long", "int64", t).getInteger());
+      assertEquals(1.5f, expect(records.get(i++), "float", "float", t).getFloat());
+      assertEquals(Math.PI, expect(records.get(i++), "double", "double", t).getDouble());
+      assertTrue(expect(records.get(i++), "boolean", "boolean", t).getBoolean());
+      assertArrayEquals(new byte[] {1, 2, 3}, expect(records.get(i++), "raw", "raw", t).getRaw());
+      assertArrayEquals(new long[] {1, -2, 3}, expect(records.get(i++), "int[]", "int64[]", t).getIntegerArray());
+      assertArrayEquals(new long[] {Long.MIN_VALUE, 0}, expect(records.get(i++), "long[]", "int64[]", t).getIntegerArray());
+      assertArrayEquals(new float[] {1.25f, -2f}, expect(records.get(i++), "float[]", "float[]", t).getFloatArray());
+      assertArrayEquals(new double[] {1e100, -0.5}, expect(records.get(i++), "double[]", "double[]", t).getDoubleArray());
+      assertArrayEquals(new boolean[] {true, false, true}, expect(records.get(i++), "boolean[]", "boolean[]", t).getBooleanArray());
+      assertEquals("Grüße, 世界 🤖", expect(records.get(i++), "string", "string", t).getString());
+      assertArrayEquals(new String[] {"a", "", "ü🤖"}, expect(records.get(i++), "string[]", "string[]", t).getStringArray());
+      if (t == 0) {
+        // The schema is only written once, right before the first use of the struct
+        assertEquals("double x;double y", expect(records.get(i++), "/.schema/struct:Point", "structschema", t).getString());
+      }
+      assertEquals(new Point(1, 2), Point.struct.unpack(expect(records.get(i++), "sub/point", "struct:Point", t).getRawBuffer()));
+
+      var points = expect(records.get(i++), "sub/points", "struct:Point[]", t).getRawBuffer();
+      assertEquals(new Point(3, 4), Point.struct.unpack(points));
+      assertEquals(new Point(5, 6), Point.struct.unpack(points));
+      assertFalse(points.hasRemaining());
+    }
+
+    assertEquals(records.size(), i, "Unexpected records: " + records.subList(i, records.size()));
+  }
+
+  @Test
+  void largeRecords() throws Exception {
+    var file = tempDir.resolve("large.wpilog");
+
+    // Records much larger than the buffer
+    var big = new double[1000];
+    for (int i = 0; i < big.length; i++) {
+      big[i] = i;
+    }
+
+    for (boolean memoryMapped : new boolean[] {false, true}) {
+      var writer = new WPILogWriter(file, memoryMapped, 64, "");
+      try (var logger = new NioFileLogger(writer, clock::get)) {
+        logger.log("big", big);
+        logger.log("small", 1);
+        logger.log("big", big);
+      }
+
+      var records = read(new DataLogReader(file.toString()));
+      assertEquals(3, records.size());
+      assertArrayEquals(big, expect(records.get(0), "big", "double[]", 0).getDoubleArray());
+      assertEquals(1, expect(records.get(1), "small", "int64", 0).getInteger());
+      assertArrayEquals(big, expect(records.get(2), "big", "double[]", 0).getDoubleArray());
+    }
+  }
+
+  @Test
+  void mismatchedTypes() throws Exception {
+    var writer = new WPILogWriter(tempDir.resolve("mismatch.wpilog"));
+    try (var logger = new NioFileLogger(writer, clock::get)) {
+      logger.log("x", 1.0);
+      assertThrows(IllegalStateException.class, () -> logger.log("x", "not a double"));
+    }
+  }
+
+  @Test
+  void packedStructs() throws Exception {
+    var file = tempDir.resolve("packed.wpilog");
+    var packed = ByteBuffer.allocate(Point.struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    Point.struct.pack(packed, new Point(1, 2));
+    packed.rewind();
+
+    try (var logger = new NioFileLogger(new WPILogWriter(file), clock::get)) {
+      new MultiLogger(logger, logger).getSubLogger("sub").logPacked("point", packed, Point.struct);
+    }
+
+    // The bytes are copied as they are, without moving the buffer
+    assertEquals(0, packed.position());
+
+    var records = read(new DataLogReader(file.toString()));
+    assertEquals(3, records.size());
+    assertEquals("double x;double y", expect(records.get(0), "/.schema/struct:Point", "structschema", 0).getString());
+    assertEquals(new Point(1, 2), Point.struct.unpack(expect(records.get(1), "sub/point", "struct:Point", 0).getRawBuffer()));
+    assertEquals(new Point(1, 2), Point.struct.unpack(expect(records.get(2), "sub/point", "struct:Point", 0).getRawBuffer()));
+  }
+
+  @Test
+  void preregisteredEntries() throws Exception {
+    var file = tempDir.resolve("preregistered.wpilog");
+    var writer = new WPILogWriter(file);
+    try (var logger = new NioFileLogger(writer, clock::get)) {
+      logger.getSubLogger("Robot").preregister(List.of(
+          new ManifestEntry("x", "double", Epilogue.Importance.DEBUG),
+          new ManifestEntry("names", "string[]", Epilogue.Importance.INFO),
+          new ManifestEntry("point", "struct:Point", Epilogue.Importance.DEBUG)
+      ));
+
+      clock.set(5);
+      logger.log("Robot/x", 1.5);
+      logger.getSubLogger("Robot").log("point", new Point(1, 2), Point.struct);
+    }
+
+    // Preregistered entries are started up front, and aren't started again when they're logged
+    Map<String, Long> starts = new HashMap<>();
+    for (DataLogRecord record : new DataLogReader(file.toString())) {
+      if (record.isStart()) {
+        var start = record.getStartData();
+        assertNull(starts.put(start.name, record.getTimestamp()), start.name + " started twice");
+      }
+    }
+    assertEquals(0, (long) starts.get("Robot/x"));
+    assertEquals(0, (long) starts.get("Robot/names"));
+
+    // Struct entries are started when they're first logged, after their schemas
+    assertEquals(5, (long) starts.get("Robot/point"));
+
+    var records = read(new DataLogReader(file.toString()));
+    assertEquals(1.5, expect(records.get(0), "Robot/x", "double", 5).getDouble());
+  }
+
+  private void logAll(NioFileLogger logger) {
+    for (long t : new long[] {0, 1_000_000}) {
+      clock.set(t);
+      logger.log("int", 42);
+      logger.log("long", Long.MAX_VALUE);
+      logger.log("float", 1.5f);
+      logger.log("double", Math.PI);
+      logger.log("boolean", true);
+      logger.log("raw", new byte[] {1, 2, 3});
+      logger.log("int[]", new int[] {1, -2, 3});
+      logger.log("long[]", new long[] {Long.MIN_VALUE, 0});
+      logger.log("float[]", new float[] {1.25f, -2f});
+      logger.log("double[]", new double[] {1e100, -0.5});
+      logger.log("boolean[]", new boolean[] {true, false, true});
+      logger.log("string", "Grüße, 世界 🤖");
+      logger.log("string[]", new String[] {"a", "", "ü🤖"});
+
+      var sub = logger.getSubLogger("sub");
+      sub.log("point", new Point(1, 2), Point.struct);
+      sub.log("points", new Point[] {new Point(3, 4), new Point(5, 6)}, Point.struct);
+    }
+  }
+
+  /**
+   * Reads all the data records from a log file. Control records are checked and consumed.
+   */
+  private static List<ReadRecord> read(DataLogReader reader) {
+    Map<Integer, DataLogRecord.StartRecordData> starts = new HashMap<>();
+    List<ReadRecord> records = new ArrayList<>();
+
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        var start = record.getStartData();
+        assertNull(starts.put(start.entry, start), "Entry " + start.entry + " started twice");
+        assertEquals("", start.metadata);
+      } else if (record.isControl()) {
+        fail("Unexpected control record");
+      } else {
+        var start = starts.get(record.getEntry());
+        assertNotNull(start, "Record for unknown entry " + record.getEntry());
+        records.add(new ReadRecord(start.name, start.type, record.getTimestamp(), record));
+      }
+    }
+
+    return records;
+  }
+
+  private static DataLogRecord expect(ReadRecord record, String name, String type, long timestamp) {
+    assertEquals(name, record.name());
+    assertEquals(type, record.type());
+    assertEquals(timestamp, record.timestamp());
+    return record.record();
+  }
+}
@@ -0,0 +1,105 @@
+package dev.slfc.epilogue.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SnapshotBufferTest {
+  static class Snapshot implements LogSnapshot {
+    int value;
+
+    @Override
+    public void writeTo(DataLogger dataLogger) {
+      dataLogger.log("value", value);
+    }
+  }
+
+  @Test
+  void writesPublishedSnapshots() {
+    var log = new TestLogger();
+    var buffer = new SnapshotBuffer<>(log, Snapshot::new);
+
+    var first = buffer.getFillSnapshot();
+    first.value = 1;
+    assertSame(first, buffer.getFillSnapshot());
+    buffer.publish(Runnable::run, e -> {});
+
+    // Publishing swaps in a different snapshot to fill in
+    var second = buffer.getFillSnapshot();
+    assertNotSame(first, second);
+    second.value = 2;
+    buffer.publish(Runnable::run, e -> {});
+
+    assertEquals(
+        List.of(new TestLogger.LogEntry<>("value", 1), new TestLogger.LogEntry<>("value", 2)),
+        log.getEntries()
+    );
+  }
+
+  @Test
+  void skipsToLatestSnapshot() {
+    var log = new TestLogger();
+    var buffer = new SnapshotBuffer<>(log, Snapshot::new);
+    List<Runnable> pending = new ArrayList<>();
+
+    // Publish faster than the writer runs
+    for (int i = 1; i <= 5; i++) {
+      buffer.getFillSnapshot().value = i;
+      buffer.publish(pending::add, e -> {});
+    }
+
+    // Only one write is scheduled at a time, and it writes the latest snapshot
+    assertEquals(1, pending.size());
+    pending.remove(0).run();
+    assertEquals(List.of(new TestLogger.LogEntry<>("value", 5)), log.getEntries());
+  }
+
+  @Test
+  void reportsErrors() {
+    var buffer = new SnapshotBuffer<LogSnapshot>(new TestLogger(), () -> dataLogger -> {
+      throw new IllegalStateException("Oops");
+    });
+    List<Exception> errors = new ArrayList<>();
+
+    buffer.publish(Runnable::run, errors::add);
+
+    assertEquals(1, errors.size());
+    assertEquals("Oops", errors.get(0).getMessage());
+  }
+
+  @Test
+  void concurrentWrites() throws Exception {
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      var log = new TestLogger();
+      var buffer = new SnapshotBuffer<>(log, Snapshot::new);
+      List<Exception> errors = new ArrayList<>();
+
+      for (int i = 1; i <= 10_000; i++) {
+        buffer.getFillSnapshot().value = i;
+        buffer.publish(executor, errors::add);
+      }
+
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+      assertEquals(List.of(), errors);
+
+      // Snapshots are written in the order they were published, possibly skipping some, and the
+      // last one is always written
+      var written = log.getEntries().stream().map(e -> (Integer) e.value()).toList();
+      for (int i = 1; i < written.size(); i++) {
+        assertTrue(written.get(i) > written.get(i - 1), "Written out of order: " + written);
+      }
+      assertEquals(10_000, (int) written.get(written.size() - 1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package dev.slfc.epilogue.logging.errors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.slfc.epilogue.logging.ClassSpecificLogger;
+import dev.slfc.epilogue.logging.DataLogger;
+import dev.slfc.epilogue.logging.NullLogger;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+  /**
+   * A logger for a device that may be disconnected.
+   */
+  static class DeviceLogger extends ClassSpecificLogger<String> {
+    boolean connected = false;
+    int attempts = 0;
+
+    DeviceLogger() {
+      super(String.class);
+    }
+
+    @Override
+    protected void update(DataLogger dataLogger, String object) {
+      attempts++;
+      if (!connected) {
+        throw new IllegalStateException("Device disconnected");
+      }
+    }
+  }
+
+  private final DataLogger dataLogger = new NullLogger();
+
+  // Loggers are disabled by the breaker's clock, so this controls when they're reenabled too
+  private final AtomicLong clock = new AtomicLong(0);
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  private CircuitBreaker breaker(int threshold, double initialBackoffSeconds, double maxBackoffSeconds) {
+    return new CircuitBreaker(
+        threshold,
+        initialBackoffSeconds,
+        maxBackoffSeconds,
+        clock::get,
+        new PrintStream(output, true, StandardCharsets.UTF_8)
+    );
+  }
+
+  private void advanceSeconds(double seconds) {
+    clock.addAndGet((long) (seconds * 1e9));
+  }
+
+  private String takeOutput() {
+    var text = output.toString(StandardCharsets.UTF_8);
+    output.reset();
+    return text;
+  }
+
+  private static String disabledFor(double seconds) {
+    return "[EPILOGUE] Disabling the logger for java.lang.String for " + seconds
+        + " seconds after an error: java.lang.IllegalStateException: Device disconnected"
+        + System.lineSeparator();
+  }
+
+  @Test
+  void backsOffAndRecovers() {
+    var breaker = breaker(0, 100, 1000);
+    var logger = new DeviceLogger();
+    var error = new IllegalStateException("Device disconnected");
+
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertEquals(1, logger.attempts);
+    assertTrue(logger.isDisabled());
+    assertEquals(disabledFor(100), takeOutput());
+
+    // Skipped while disabled
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertEquals(1, logger.attempts);
+
+    // An update that was already running when the logger was disabled isn't a retry
+    advanceSeconds(50);
+    breaker.handle(error, logger);
+    assertEquals("", takeOutput());
+
+    // Retried after the initial backoff, but still broken. Backs off for twice as long
+    advanceSeconds(60);
+    breaker.handle(error, logger);
+    assertEquals(disabledFor(200), takeOutput());
+
+    // Fails again on the next retry. Backs off for twice as long again
+    advanceSeconds(210);
+    breaker.handle(error, logger);
+    assertEquals(disabledFor(400), takeOutput());
+
+    // The device came back after the next retry, and the logger ran cleanly for a full backoff
+    // period. A new failure starts over from the initial backoff
+    advanceSeconds(410 + 400);
+    breaker.handle(error, logger);
+    assertEquals(disabledFor(100), takeOutput());
+    assertTrue(logger.isDisabled());
+  }
+
+  @Test
+  void recoversOnceTheDeviceReconnects() {
+    var breaker = breaker(0, 100, 1000);
+    var logger = new DeviceLogger();
+
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertTrue(logger.isDisabled());
+    assertEquals(disabledFor(100), takeOutput());
+
+    // Still skipped until the backoff period is over, even though the device is back
+    logger.connected = true;
+    advanceSeconds(99);
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertEquals(1, logger.attempts);
+    assertTrue(logger.isDisabled());
+
+    // Retried on its own once the backoff period is over, and keeps logging from then on
+    advanceSeconds(1);
+    assertFalse(logger.isDisabled());
+    for (int i = 0; i < 5; i++) {
+      logger.tryUpdate(dataLogger, "", breaker);
+      advanceSeconds(0.02);
+    }
+    assertEquals(6, logger.attempts);
+    assertFalse(logger.isDisabled());
+    assertEquals("", takeOutput());
+
+    // After running cleanly for a full backoff period, the next disconnect starts over from the
+    // initial backoff
+    advanceSeconds(100);
+    logger.connected = false;
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertEquals(7, logger.attempts);
+    assertEquals(disabledFor(100), takeOutput());
+  }
+
+  @Test
+  void backoffIsCapped() {
+    var breaker = breaker(0, 100, 300);
+    var logger = new DeviceLogger();
+    var error = new IllegalStateException("Device disconnected");
+
+    breaker.handle(error, logger);
+    advanceSeconds(110);
+    breaker.handle(error, logger);
+    advanceSeconds(210);
+    breaker.handle(error, logger);
+
+    assertEquals(disabledFor(100) + disabledFor(200) + disabledFor(300), takeOutput());
+  }
+
+  @Test
+  void threshold() {
+    var breaker = breaker(2, 10, 10);
+    var logger = new DeviceLogger();
+
+    logger.tryUpdate(dataLogger, "", breaker);
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertFalse(logger.isDisabled());
+
+    logger.tryUpdate(dataLogger, "", breaker);
+    assertTrue(logger.isDisabled());
+
+    breaker.reset();
+    assertFalse(logger.isDisabled());
+  }
+}
@@ -0,0 +1,140 @@
+package dev.slfc.epilogue.logging.errors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.slfc.epilogue.logging.ClassSpecificLogger;
+import dev.slfc.epilogue.logging.DataLogger;
+import dev.slfc.epilogue.logging.TestLogger;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ErrorAggregatorTest {
+  static class StringLogger extends ClassSpecificLogger<String> {
+    StringLogger() {
+      super(String.class);
+    }
+
+    @Override
+    protected void update(DataLogger dataLogger, String object) {
+      // Not used
+    }
+  }
+
+  private final AtomicLong clock = new AtomicLong(0);
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+  private final ErrorAggregator aggregator =
+      new ErrorAggregator(1, clock::get, new PrintStream(output, true, StandardCharsets.UTF_8));
+
+  private String takeOutput() {
+    var text = output.toString(StandardCharsets.UTF_8);
+    output.reset();
+    return text;
+  }
+
+  @Test
+  void countsAndSuppressesRepeats() {
+    var logger = new StringLogger();
+
+    for (int i = 0; i < 10; i++) {
+      aggregator.handle(new IllegalStateException("broken"), logger);
+    }
+    aggregator.handle(new NullPointerException(), logger);
+
+    // Only the first error of each type is printed
+    assertEquals(
+        "[EPILOGUE] An error occurred while logging an instance of java.lang.String: "
+            + "java.lang.IllegalStateException: broken. Repeats of this error will be summarized."
+            + System.lineSeparator()
+            + "[EPILOGUE] An error occurred while logging an instance of java.lang.String: "
+            + "java.lang.NullPointerException. Repeats of this error will be summarized."
+            + System.lineSeparator(),
+        takeOutput()
+    );
+
+    assertEquals(11, aggregator.getErrorCount());
+    assertEquals(11, aggregator.getErrorCount(logger));
+    assertEquals(10, aggregator.getErrorCount(logger, IllegalStateException.class));
+    assertEquals(1, aggregator.getErrorCount(logger, NullPointerException.class));
+    assertEquals(0, aggregator.getErrorCount(logger, RuntimeException.class));
+    assertEquals(0, aggregator.getErrorCount(new StringLogger()));
+    assertEquals(9, aggregator.getSuppressedCount());
+  }
+
+  @Test
+  void periodicSummary() {
+    var logger = new StringLogger();
+
+    aggregator.handle(new IllegalStateException(), logger);
+    aggregator.handle(new IllegalStateException(), logger);
+    takeOutput();
+
+    // Summary period has elapsed, the next error triggers a summary
+    clock.set(1_000_000_000L);
+    aggregator.handle(new IllegalStateException(), logger);
+    assertEquals(
+        "[EPILOGUE] Logging errors since the last summary:"
+            + "\n  java.lang.String: java.lang.IllegalStateException x3 (3 total)"
+            + System.lineSeparator(),
+        takeOutput()
+    );
+
+    // Counts since the last summary were reset, but totals are kept
+    aggregator.handle(new IllegalStateException(), logger);
+    assertEquals("", takeOutput());
+    aggregator.printSummary();
+    assertEquals(
+        "[EPILOGUE] Logging errors since the last summary:"
+            + "\n  java.lang.String: java.lang.IllegalStateException x1 (4 total)"
+            + System.lineSeparator(),
+        takeOutput()
+    );
+
+    // Nothing new to report
+    aggregator.printSummary();
+    assertEquals("", takeOutput());
+  }
+
+  @Test
+  void summaryAfterErrorsStop() {
+    var logger = new StringLogger();
+    var stats = new TestLogger();
+
+    aggregator.handle(new IllegalStateException(), logger);
+    aggregator.handle(new IllegalStateException(), logger);
+    aggregator.handle(new NullPointerException(), logger);
+    takeOutput();
+
+    // Not due yet
+    aggregator.periodic(stats);
+    assertEquals("", takeOutput());
+
+    // No more errors are raised, but the burst is still summarized once the period has elapsed
+    clock.set(1_000_000_000L);
+    aggregator.periodic(stats);
+    var summary = takeOutput();
+    assertTrue(summary.startsWith("[EPILOGUE] Logging errors since the last summary:"));
+    assertTrue(summary.contains("\n  java.lang.String: java.lang.IllegalStateException x2 (2 total)"));
+    assertTrue(summary.contains("\n  java.lang.String: java.lang.NullPointerException x1 (1 total)"));
+
+    aggregator.periodic(stats);
+    assertEquals("", takeOutput());
+
+    // Counts are published every loop
+    assertEquals(
+        List.of(
+            new TestLogger.LogEntry<>("Errors", 3L),
+            new TestLogger.LogEntry<>("Suppressed Errors", 1L),
+            new TestLogger.LogEntry<>("Errors", 3L),
+            new TestLogger.LogEntry<>("Suppressed Errors", 1L),
+            new TestLogger.LogEntry<>("Errors", 3L),
+            new TestLogger.LogEntry<>("Suppressed Errors", 1L)
+        ),
+        stats.getEntries()
+    );
+  }
+}
@@ -0,0 +1,149 @@
+package dev.slfc.epilogue.logging.wpilog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.slfc.epilogue.logging.NioFileLogger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WPILogReaderTest {
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void indexesEntries() throws Exception {
+    var file = tempDir.resolve("test.wpilog");
+    var clock = new AtomicLong();
+
+    try (var logger = new NioFileLogger(new WPILogWriter(file, false, 256, "header"), clock::get)) {
+      for (int i = 0; i < 100; i++) {
+        clock.set(i * 20_000L);
+        logger.log("count", i);
+        logger.log("half", i / 2.0);
+        if (i % 10 == 0) {
+          logger.log("name", "item " + i);
+        }
+      }
+    }
+
+    var reader = new WPILogReader(file);
+    assertEquals("header", reader.getExtraHeader());
+    assertEquals(
+        List.of("count", "half", "name"),
+        reader.getEntries().stream().map(WPILogReader.Entry::getName).toList()
+    );
+
+    var count = reader.getEntry("count");
+    assertEquals("int64", count.getType());
+    assertEquals(100, count.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i * 20_000L, count.getTimestamp(i));
+      assertEquals(i, count.get(i).getInteger());
+    }
+
+    assertEquals(49.5, reader.getEntry("half").get(99).getDouble());
+    assertEquals("item 90", reader.getEntry("name").get(9).getString());
+    assertNull(reader.getEntry("missing"));
+  }
+
+  @Test
+  void timeRangeQueries() throws Exception {
+    var file = tempDir.resolve("range.wpilog");
+    var clock = new AtomicLong();
+
+    try (var logger = new NioFileLogger(new WPILogWriter(file), clock::get)) {
+      for (int i = 0; i < 10; i++) {
+        clock.set(i * 1000L);
+        logger.log("x", i);
+      }
+    }
+
+    var reader = new WPILogReader(file);
+
+    // Start is inclusive, end is exclusive
+    var records = reader.getRecords("x", 3000, 6000);
+    assertEquals(3, records.size());
+    assertEquals(3000, records.get(0).timestamp());
+    assertEquals(3, records.get(0).getInteger());
+    assertEquals(5, records.get(2).getInteger());
+
+    // Bounds between records
+    assertEquals(List.of(4L, 5L), values(reader.getRecords("x", 3500, 5500)));
+
+    // Out of range
+    assertEquals(List.of(), reader.getRecords("x", 20_000, 30_000));
+    assertEquals(List.of(), reader.getRecords("x", 5000, 1000));
+    assertEquals(List.of(), reader.getRecords("missing", 0, Long.MAX_VALUE));
+    assertEquals(10, reader.getRecords("x", Long.MIN_VALUE, Long.MAX_VALUE).size());
+  }
+
+  @Test
+  void payloadsAreReadOnlyViews() throws Exception {
+    var file = tempDir.resolve("raw.wpilog");
+    try (var logger = new NioFileLogger(new WPILogWriter(file), () -> 0)) {
+      logger.log("raw", new byte[] {1, 2, 3, 4});
+    }
+
+    var payload = new WPILogReader(file).getEntry("raw").getPayload(0);
+    assertTrue(payload.isReadOnly());
+    assertEquals(4, payload.remaining());
+    assertEquals(3, payload.get(2));
+  }
+
+  @Test
+  void controlRecords() throws Exception {
+    var file = tempDir.resolve("control.wpilog");
+    try (var writer = new WPILogWriter(file)) {
+      int a = writer.start("a", "double", "first", 0);
+      writer.appendDouble(a, 1, 10);
+      writer.setMetadata(a, "second", 20);
+      writer.finish(a, 30);
+
+      // Appends after an entry is finished are not part of it
+      writer.appendDouble(a, 2, 40);
+
+      // Restarting the same entry continues the same index
+      int a2 = writer.start("a", "double", "third", 50);
+      writer.appendDouble(a2, 3, 60);
+    }
+
+    var entry = new WPILogReader(file).getEntry("a");
+    assertEquals("third", entry.getMetadata());
+    assertEquals(List.of(10L, 60L), entry.getRecords().stream().map(WPILogReader.DataRecord::timestamp).toList());
+    assertEquals(3, entry.get(1).getDouble());
+  }
+
+  @Test
+  void truncatedFile() throws Exception {
+    var file = tempDir.resolve("truncated.wpilog");
+    try (var logger = new NioFileLogger(new WPILogWriter(file), () -> 0)) {
+      logger.log("x", 1L);
+      logger.log("x", 2L);
+    }
+
+    // Chop off part of the last record, as if the robot lost power while writing it
+    var bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+    var entry = new WPILogReader(file).getEntry("x");
+    assertEquals(1, entry.size());
+    assertEquals(1, entry.get(0).getInteger());
+  }
+
+  @Test
+  void notAWpilog() throws Exception {
+    var file = tempDir.resolve("garbage.wpilog");
+    Files.writeString(file, "this is not a log file");
+    assertThrows(IOException.class, () -> new WPILogReader(file));
+  }
+
+  private static List<Long> values(List<WPILogReader.DataRecord> records) {
+    return records.stream().map(WPILogReader.DataRecord::getInteger).toList();
+  }
+}